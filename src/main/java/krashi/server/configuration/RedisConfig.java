@@ -4,8 +4,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import krashi.server.dto.CursorPageDto;
+import krashi.server.dto.EventResponseDto;
+import krashi.server.util.EventPageSerializer;
+
 @Configuration
 public class RedisConfig {
     
@@ -22,4 +27,24 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    // Catalog pages are stored in a compact binary form rather than as strings.
+    @Bean
+    public RedisTemplate<String, CursorPageDto<EventResponseDto>> catalogRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, CursorPageDto<EventResponseDto>> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new EventPageSerializer());
+
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
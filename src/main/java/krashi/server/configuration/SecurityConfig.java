@@ -13,7 +13,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import krashi.server.filter.AdmissionFilter;
 import krashi.server.filter.JwtFilter;
+import krashi.server.service.AdmissionService;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Arrays;
@@ -29,6 +31,7 @@ public class SecurityConfig {
     private final JwtFilter jwtFilter;
     private final CustomAccessDeniedHandler accessDeniedHandler;
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
+    private final AdmissionService admissionService;
     
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -37,7 +40,7 @@ public class SecurityConfig {
         http.authorizeHttpRequests(authorizeRequests -> authorizeRequests
             .requestMatchers(
                 "/", "/hello", "/signup", "/events", "/events/**", "/auth/login",
-                "/api/auth/**",
+                "/api/auth/**", "/queue/**",
                 "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html"
             ).permitAll()
             .requestMatchers("/admin/**").hasRole("ADMIN")
@@ -46,6 +49,7 @@ public class SecurityConfig {
         );
         http.sessionManagement(management -> management.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(new AdmissionFilter(admissionService), JwtFilter.class);
         
         http.exceptionHandling(exceptions -> exceptions
             .accessDeniedHandler(accessDeniedHandler)
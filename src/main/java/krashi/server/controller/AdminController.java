@@ -49,6 +49,21 @@ public class AdminController {
         return adminService.cancelEvent(eventId, reason);
     }
     
+    @PostMapping("/event/{eventId}/flash-sale")
+    public ResponseEntity<?> setFlashSaleMode(@PathVariable Long eventId, @RequestParam boolean enabled) {
+        return adminService.setFlashSaleMode(eventId, enabled);
+    }
+    
+    @PostMapping("/event/{eventId}/waiting-room")
+    public ResponseEntity<?> openWaitingRoom(@PathVariable Long eventId, @RequestParam int admitsPerSecond) {
+        return adminService.openWaitingRoom(eventId, admitsPerSecond);
+    }
+    
+    @DeleteMapping("/event/{eventId}/waiting-room")
+    public ResponseEntity<?> closeWaitingRoom(@PathVariable Long eventId) {
+        return adminService.closeWaitingRoom(eventId);
+    }
+    
     @GetMapping("/event/{eventId}/statistics")
     public ResponseEntity<?> getEventStatistics(@PathVariable Long eventId) {
         return adminService.getEventStatistics(eventId);
@@ -0,0 +1,31 @@
+package krashi.server.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import krashi.server.dto.QueueTicketDto;
+import krashi.server.filter.AdmissionFilter;
+import krashi.server.service.AdmissionService;
+import lombok.AllArgsConstructor;
+
+@RestController
+@AllArgsConstructor
+public class QueueController {
+
+    private final AdmissionService admissionService;
+
+    @PostMapping("/user/queue/{eventId}")
+    public ResponseEntity<QueueTicketDto> joinQueue(@PathVariable Long eventId) {
+        return ResponseEntity.ok(admissionService.joinQueue(eventId));
+    }
+
+    @GetMapping("/queue/{eventId}/status")
+    public ResponseEntity<QueueTicketDto> getQueueStatus(@PathVariable Long eventId,
+                                                         @RequestHeader(AdmissionFilter.TICKET_HEADER) String ticket) {
+        return ResponseEntity.ok(admissionService.getQueueStatus(eventId, ticket));
+    }
+}
@@ -1,5 +1,6 @@
 package krashi.server.controller;
 
+import krashi.server.dto.EventBrowseRequestDto;
 import krashi.server.dto.UserInfoDto;
 import krashi.server.service.SignUpService;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -29,13 +31,27 @@ public class SignupController {
     }
 
     @GetMapping("/events")
-    public ResponseEntity<?> getAllEvents() {
-        return signUpService.getAllEvents();
+    public ResponseEntity<?> getAllEvents(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size) {
+        return signUpService.getAllEvents(cursor, size);
     }
     
     @GetMapping("/events/published")
-    public ResponseEntity<?> getPublishedEvents() {
-        return signUpService.getPublishedEvents();
+    public ResponseEntity<?> getPublishedEvents(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        return signUpService.getPublishedEvents(cursor, size);
+    }
+    
+    @GetMapping("/events/suggest")
+    public ResponseEntity<?> suggestEvents(@RequestParam String q,
+                                           @RequestParam(required = false) Integer limit) {
+        return signUpService.suggestEvents(q, limit);
+    }
+    
+    // Filters bind from query parameters: category, from, to, minPrice, maxPrice, location, hasSeats, cursor, size.
+    @GetMapping("/events/browse")
+    public ResponseEntity<?> browseEvents(EventBrowseRequestDto request) {
+        return signUpService.browseEvents(request);
     }
     
     @GetMapping("/events/{eventId}")
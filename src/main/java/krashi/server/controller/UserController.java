@@ -6,28 +6,58 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import krashi.server.dto.EventFeedbackDto;
+import krashi.server.service.IdempotencyService;
+import krashi.server.service.SeatHoldService;
 import krashi.server.service.UserService;
+import krashi.server.service.WaitlistOfferService;
+import krashi.server.service.WaitlistPositionService;
 import lombok.AllArgsConstructor;
 
 @RestController
 @RequestMapping("/user")
 @AllArgsConstructor
 public class UserController {
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final UserService userService;
+    private final SeatHoldService seatHoldService;
+    private final IdempotencyService idempotencyService;
+    private final WaitlistPositionService waitlistPositionService;
+    private final WaitlistOfferService waitlistOfferService;
 
     @PostMapping("/book/{eventId}/{numberOfSeats}")
-    public ResponseEntity<?> bookEvent(@PathVariable Long eventId, @PathVariable int numberOfSeats) {
-        return userService.bookEvent(eventId, numberOfSeats);
+    public ResponseEntity<?> bookEvent(@PathVariable Long eventId, @PathVariable int numberOfSeats,
+                                       @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "book:" + eventId + ":" + numberOfSeats,
+                () -> userService.bookEvent(eventId, numberOfSeats));
+    }
+
+    @PostMapping("/hold/{eventId}/{numberOfSeats}")
+    public ResponseEntity<?> holdSeats(@PathVariable Long eventId, @PathVariable int numberOfSeats) {
+        return seatHoldService.holdSeats(eventId, numberOfSeats);
+    }
+
+    @PostMapping("/hold/{holdId}/confirm")
+    public ResponseEntity<?> confirmHold(@PathVariable Long holdId) {
+        return seatHoldService.confirmHold(holdId);
+    }
+
+    @DeleteMapping("/hold/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable Long holdId) {
+        return seatHoldService.releaseHold(holdId);
     }
 
     @PostMapping("/cancel/{bookingId}")
-    public ResponseEntity<?> cancelBooking(@PathVariable Long bookingId) {
-        return userService.cancelBooking(bookingId);
+    public ResponseEntity<?> cancelBooking(@PathVariable Long bookingId,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "cancel:" + bookingId,
+                () -> userService.cancelBooking(bookingId));
     }
 
     @GetMapping("/details/{bookingId}")
@@ -45,6 +75,16 @@ public class UserController {
         return userService.getUserWaitlist();
     }
     
+    @GetMapping("/waitlist/{waitlistId}/position")
+    public ResponseEntity<?> getWaitlistPosition(@PathVariable Long waitlistId) {
+        return waitlistPositionService.getWaitlistPosition(waitlistId);
+    }
+    
+    @PostMapping("/waitlist/{waitlistId}/accept")
+    public ResponseEntity<?> acceptWaitlistOffer(@PathVariable Long waitlistId) {
+        return waitlistOfferService.acceptOffer(waitlistId);
+    }
+    
     @DeleteMapping("/waitlist/{waitlistId}")
     public ResponseEntity<?> removeFromWaitlist(@PathVariable Long waitlistId) {
         return userService.removeFromWaitlist(waitlistId);
@@ -61,17 +101,22 @@ public class UserController {
     }
     
     @GetMapping("/events/upcoming")
-    public ResponseEntity<?> getUpcomingEvents() {
-        return userService.getUpcomingEvents();
+    public ResponseEntity<?> getUpcomingEvents(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size) {
+        return userService.getUpcomingEvents(cursor, size);
     }
     
     @GetMapping("/events/category")
-    public ResponseEntity<?> getEventsByCategory(@RequestParam String category) {
-        return userService.getEventsByCategory(category);
+    public ResponseEntity<?> getEventsByCategory(@RequestParam String category,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return userService.getEventsByCategory(category, cursor, size);
     }
     
     @GetMapping("/events/search")
-    public ResponseEntity<?> searchEvents(@RequestParam String keyword) {
-        return userService.searchEvents(keyword);
+    public ResponseEntity<?> searchEvents(@RequestParam String keyword,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size) {
+        return userService.searchEvents(keyword, cursor, size);
     }
 }
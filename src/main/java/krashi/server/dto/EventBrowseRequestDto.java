@@ -0,0 +1,19 @@
+package krashi.server.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Query parameters of /events/browse; every filter is optional. Dates are yyyy-MM-dd, both inclusive.
+@Getter
+@Setter
+public class EventBrowseRequestDto {
+    private String category;
+    private String from;
+    private String to;
+    private Double minPrice;
+    private Double maxPrice;
+    private String location;
+    private Boolean hasSeats;
+    private String cursor;
+    private Integer size;
+}
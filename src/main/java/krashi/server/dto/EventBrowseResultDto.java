@@ -0,0 +1,19 @@
+package krashi.server.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Each facet counts matches under every filter except its own, so it shows what picking that value would return.
+@Getter
+@Setter
+public class EventBrowseResultDto {
+    private List<EventResponseDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int total;
+    private Map<String, Integer> categoryFacets;
+    private Map<String, Integer> priceFacets;
+}
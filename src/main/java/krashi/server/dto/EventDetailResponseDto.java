@@ -62,6 +62,7 @@ public class EventDetailResponseDto {
         private String userName;
         private int rating;
         private String comment;
+        private String suggestions;
         private boolean wouldRecommend;
         private LocalDateTime submittedAt;
     }
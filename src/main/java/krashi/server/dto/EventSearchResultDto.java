@@ -0,0 +1,24 @@
+package krashi.server.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// titleHighlight and snippet are HTML-escaped text with matched terms wrapped in <mark> tags;
+// both are null for fuzzy matches.
+@Getter
+@Setter
+public class EventSearchResultDto {
+    private Long id;
+    private String title;
+    private String titleHighlight;
+    private String snippet;
+    private String date;
+    private String time;
+    private String location;
+    private String category;
+    private double price;
+    private String organizerName;
+    private int availableSeats;
+    private String imageUrl;
+    private float score;
+}
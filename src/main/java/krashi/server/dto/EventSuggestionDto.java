@@ -0,0 +1,16 @@
+package krashi.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventSuggestionDto {
+    private Long id;
+    private String title;
+    private String category;
+    private String location;
+    private String date;
+}
@@ -0,0 +1,15 @@
+package krashi.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueTicketDto {
+    private Long eventId;
+    private String ticket;
+    private long position;
+    private boolean admitted;
+}
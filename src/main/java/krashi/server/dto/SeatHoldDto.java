@@ -0,0 +1,17 @@
+package krashi.server.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldDto {
+    private Long holdId;
+    private Long eventId;
+    private int seats;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,14 @@
+package krashi.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistNoticeDto {
+    private String subject;
+    private String textBody;
+    private String htmlBody;
+}
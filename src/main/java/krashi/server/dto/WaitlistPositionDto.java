@@ -0,0 +1,16 @@
+package krashi.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistPositionDto {
+    private Long waitlistId;
+    private Long eventId;
+    private int position;
+    private long seatsAhead;
+    private int totalWaiting;
+}
@@ -2,6 +2,7 @@ package krashi.server.entity;
 
 import java.time.LocalDateTime;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -30,6 +31,8 @@ public class Booking {
     private int numberOfSeats;
     private LocalDateTime bookingDateTime;
     private String status;
-    
 
+    // Set for flash sale bookings, so a replayed reservation is recognised as already committed.
+    @Column(unique = true, length = 36)
+    private String reservationId;
 }
@@ -4,18 +4,28 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_event_date_id", columnList = "date_time, id"),
+    @Index(name = "idx_event_status_date_id", columnList = "status, date_time, id"),
+    @Index(name = "idx_event_category_status_date_id", columnList = "category, status, date_time, id"),
+    @Index(name = "idx_event_browse",
+           columnList = "status, date_time, id, category, price, available_seats, location")
+})
 @Getter
 @Setter
 public class Event {
@@ -30,6 +40,8 @@ public class Event {
     
     private String location;
     private int totalSeats;
+    
+    @Column(updatable = false)
     private int availableSeats;
     
     private String category; // WORKSHOP, CONFERENCE, HACKATHON, MEETUP, WEBINAR, SEMINAR
@@ -44,6 +56,9 @@ public class Event {
     
     private String organizerEmail;
     
+    @Column(columnDefinition = "boolean default false")
+    private boolean flashSale;
+    
     @ManyToOne
     @JoinColumn(name = "created_by")
     private UserInfo createdBy;
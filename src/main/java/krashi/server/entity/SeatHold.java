@@ -0,0 +1,38 @@
+package krashi.server.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(indexes = @Index(name = "idx_seat_hold_expires_at", columnList = "expires_at"),
+       uniqueConstraints = @UniqueConstraint(name = "uq_seat_hold_user_event", columnNames = {"user_id", "event_id"}))
+@Getter
+@Setter
+public class SeatHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id")
+    private UserInfo user;
+
+    @ManyToOne
+    @JoinColumn(name = "event_id")
+    private Event event;
+
+    private int seats;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
@@ -6,12 +6,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_waitlist_event_status_joined", columnList = "event_id, status, joined_at"),
+    @Index(name = "idx_waitlist_status_offer_expires", columnList = "status, offer_expires_at")
+})
 @Getter
 @Setter
 public class Waitlist {
@@ -28,7 +34,8 @@ public class Waitlist {
     private Event event;
     
     private int requestedSeats;
-    private String status; // WAITING, NOTIFIED, EXPIRED
+    private String status; // WAITING, NOTIFIED (told to book directly, no longer queued), OFFERED, EXPIRED
     private LocalDateTime joinedAt;
     private LocalDateTime notifiedAt;
+    private LocalDateTime offerExpiresAt;
 }
@@ -0,0 +1,7 @@
+package krashi.server.exception;
+
+public class MailTransportUnavailableException extends EmailSendingException {
+    public MailTransportUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,92 @@
+package krashi.server.filter;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import krashi.server.service.AdmissionService;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    public static final String TICKET_HEADER = "X-Queue-Ticket";
+
+    private static final String[] GATED_PREFIXES = { "/user/book/", "/user/hold/" };
+
+    private final AdmissionService admissionService;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        Long eventId = gatedEventId(request);
+        if (eventId == null || !admissionService.isWaitingRoomOpen(eventId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Anonymous requests go on so the security chain answers them with 401.
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String username = authentication.getName();
+        String ticket = request.getHeader(TICKET_HEADER);
+        long position = admissionService.checkAdmission(eventId, username, ticket);
+
+        if (position == AdmissionService.ADMITTED) {
+            boolean succeeded = false;
+            try {
+                filterChain.doFilter(request, response);
+                succeeded = response.getStatus() < HttpStatus.BAD_REQUEST.value();
+            } finally {
+                admissionService.ticketUsed(eventId, username, ticket, succeeded);
+            }
+            return;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        if (position == AdmissionService.INVALID_TICKET) {
+            response.getWriter().write("This event is behind a waiting room. Join the queue at /user/queue/" + eventId + " and retry with your " + TICKET_HEADER + " header");
+        } else if (position == AdmissionService.SPENT_TICKET) {
+            response.getWriter().write("This queue ticket has already been used. Join the queue at /user/queue/" + eventId + " for a new one");
+        } else {
+            response.setHeader("Retry-After", "5");
+            response.getWriter().write("You are still in the waiting room. Position: " + position);
+        }
+    }
+
+    private Long gatedEventId(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String prefix : GATED_PREFIXES) {
+            if (path.startsWith(prefix) && !path.endsWith("/confirm")) {
+                int end = path.indexOf('/', prefix.length());
+                String eventId = end < 0 ? path.substring(prefix.length()) : path.substring(prefix.length(), end);
+                try {
+                    return Long.valueOf(eventId);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,7 +1,7 @@
 package krashi.server.mapping;
 
 import krashi.server.dto.BookingDto;
-import krashi.server.entity.Booking;
+import krashi.server.repository.projection.BookingView;
 
 import java.time.format.DateTimeFormatter;
 
@@ -10,7 +10,7 @@ public class BookingToDto {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
-    public static BookingDto mapToDto(Booking booking) {
+    public static BookingDto mapToDto(BookingView booking) {
         BookingDto bookingDto = new BookingDto();
         bookingDto.setId(booking.getId());
         bookingDto.setStatus(booking.getStatus());
@@ -18,13 +18,13 @@ public class BookingToDto {
         bookingDto.setBookingdate(booking.getBookingDateTime().toLocalDate().toString());
         bookingDto.setBookingtime(booking.getBookingDateTime().toLocalTime().toString());
         
-        if (booking.getEvent() != null) {
-            bookingDto.setEventId(booking.getEvent().getId());
-            bookingDto.setEventTitle(booking.getEvent().getTitle());
+        if (booking.getEventId() != null) {
+            bookingDto.setEventId(booking.getEventId());
+            bookingDto.setEventTitle(booking.getEventTitle());
             
-            if (booking.getEvent().getDateTime() != null) {
-                bookingDto.setEventDate(booking.getEvent().getDateTime().toLocalDate().format(DATE_FORMATTER));
-                bookingDto.setEventTime(booking.getEvent().getDateTime().toLocalTime().format(TIME_FORMATTER));
+            if (booking.getEventDateTime() != null) {
+                bookingDto.setEventDate(booking.getEventDateTime().toLocalDate().format(DATE_FORMATTER));
+                bookingDto.setEventTime(booking.getEventDateTime().toLocalTime().format(TIME_FORMATTER));
             }
         }
         
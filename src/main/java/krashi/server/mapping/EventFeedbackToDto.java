@@ -3,6 +3,7 @@ package krashi.server.mapping;
 import krashi.server.dto.EventFeedbackDto;
 import krashi.server.dto.UserFeedbackResponseDto;
 import krashi.server.entity.EventFeedback;
+import krashi.server.repository.projection.UserFeedbackView;
 
 import java.time.format.DateTimeFormatter;
 
@@ -20,18 +21,18 @@ public class EventFeedbackToDto {
         return dto;
     }
     
-    public static UserFeedbackResponseDto mapToUserResponseDto(EventFeedback feedback) {
+    public static UserFeedbackResponseDto mapToUserResponseDto(UserFeedbackView feedback) {
         UserFeedbackResponseDto dto = new UserFeedbackResponseDto();
         
         dto.setId(feedback.getId());
-        dto.setEventId(feedback.getEvent().getId());
-        dto.setEventTitle(feedback.getEvent().getTitle());
+        dto.setEventId(feedback.getEventId());
+        dto.setEventTitle(feedback.getEventTitle());
         
-        if (feedback.getEvent().getDateTime() != null) {
-            dto.setEventDate(feedback.getEvent().getDateTime().format(DATE_FORMATTER));
+        if (feedback.getEventDateTime() != null) {
+            dto.setEventDate(feedback.getEventDateTime().format(DATE_FORMATTER));
         }
         
-        dto.setEventLocation(feedback.getEvent().getLocation());
+        dto.setEventLocation(feedback.getEventLocation());
         dto.setRating(feedback.getRating());
         dto.setComment(feedback.getComment());
         dto.setSuggestions(feedback.getSuggestions());
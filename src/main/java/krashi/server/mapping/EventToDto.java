@@ -1,10 +1,15 @@
 package krashi.server.mapping;
 
+import krashi.server.dto.CursorPageDto;
 import krashi.server.dto.EventDto;
 import krashi.server.dto.EventResponseDto;
 import krashi.server.entity.Event;
+import krashi.server.repository.projection.EventView;
+import krashi.server.util.EventCursor;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class EventToDto {
     
@@ -41,7 +46,7 @@ public class EventToDto {
         return dto;
     }
     
-    public static EventResponseDto mapToResponseDto(Event event) {
+    public static EventResponseDto mapToResponseDto(EventView event) {
         if (event == null) {
             return null;
         }
@@ -72,12 +77,26 @@ public class EventToDto {
         dto.setStatus(event.getStatus());
         dto.setCreatedAt(event.getCreatedAt());
         dto.setUpdatedAt(event.getUpdatedAt());
-        
-        if (event.getCreatedBy() != null) {
-            dto.setCreatedById(event.getCreatedBy().getId());
-            dto.setCreatedByName(event.getCreatedBy().getName());
-        }
+        dto.setCreatedById(event.getCreatedById());
+        dto.setCreatedByName(event.getCreatedByName());
         
         return dto;
     }
+    
+    // Rows are fetched with a limit of size + 1; the extra row only signals that another page exists.
+    public static CursorPageDto<EventResponseDto> mapToResponsePage(List<EventView> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<EventView> page = hasMore ? rows.subList(0, size) : rows;
+        
+        List<EventResponseDto> items = page.stream()
+                .map(EventToDto::mapToResponseDto)
+                .collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (hasMore) {
+            EventView last = page.get(page.size() - 1);
+            nextCursor = new EventCursor(last.getDateTime(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, nextCursor, hasMore);
+    }
 }
@@ -1,11 +1,18 @@
 package krashi.server.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import krashi.server.entity.Booking;
+import krashi.server.repository.projection.BookingView;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -13,5 +20,44 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByEvent_Id(Long eventId);
     boolean existsByEvent_Id(Long eventId);
     boolean existsByUserIdAndEventId(Long userId, Long eventId);
+    boolean existsByUserIdAndEventIdAndStatus(Long userId, Long eventId, String status);
     int countByEvent_Id(Long eventId);
+    
+    // Column list for BookingView reads.
+    String VIEW_SELECT = "SELECT b.id AS id, b.user.id AS userId, b.status AS status, " +
+            "b.numberOfSeats AS numberOfSeats, b.bookingDateTime AS bookingDateTime, " +
+            "e.id AS eventId, e.title AS eventTitle, e.dateTime AS eventDateTime " +
+            "FROM Booking b LEFT JOIN b.event e ";
+    
+    @Query(VIEW_SELECT + "WHERE b.id = :bookingId")
+    Optional<BookingView> findViewById(Long bookingId);
+    
+    @Query(VIEW_SELECT + "WHERE b.user.id = :userId")
+    List<BookingView> findViewsByUserId(Long userId);
+    
+    @Query(VIEW_SELECT + "WHERE e.id = :eventId")
+    List<BookingView> findViewsByEventId(Long eventId);
+    
+    @Query(VIEW_SELECT + "WHERE e.id = :eventId ORDER BY b.bookingDateTime DESC")
+    List<BookingView> findRecentViewsByEventId(Long eventId, Pageable pageable);
+    
+    @Query("SELECT b.event.id, SUM(b.numberOfSeats) FROM Booking b WHERE b.status = 'Confirmed' GROUP BY b.event.id")
+    List<Object[]> sumConfirmedSeatsByEvent();
+    
+    @Query("SELECT b.reservationId FROM Booking b WHERE b.reservationId IN :reservationIds")
+    List<String> findReservationIdsIn(List<String> reservationIds);
+    
+    // One INSERT ... SELECT for a whole promotion batch; returns (booking id, user id, seats) for
+    // the entries that were still waiting. Entries left or notified since they were read are skipped.
+    @Transactional
+    @Query(value = "INSERT INTO booking (user_id, event_id, number_of_seats, booking_date_time, status) " +
+                   "SELECT w.user_id, w.event_id, w.requested_seats, CAST(:bookedAt AS timestamp), 'Confirmed' " +
+                   "FROM waitlist w WHERE w.id IN (:waitlistIds) AND w.status = 'WAITING' " +
+                   "RETURNING id, user_id, number_of_seats", nativeQuery = true)
+    List<Object[]> insertFromWaitlist(List<Long> waitlistIds, LocalDateTime bookedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Booking b SET b.status = 'Cancelled' WHERE b.id = :bookingId AND b.status <> 'Cancelled'")
+    int cancelIfActive(Long bookingId);
 }
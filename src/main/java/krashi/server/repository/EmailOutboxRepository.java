@@ -0,0 +1,37 @@
+package krashi.server.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import krashi.server.entity.EmailOutbox;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    long countByStatus(String status);
+
+    // Matches the partial unique index, so there is at most one open digest per recipient.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM EmailOutbox m WHERE m.recipient = :recipient AND m.digest = true " +
+           "AND m.status = 'PENDING' AND m.attempts = 0 ORDER BY m.id DESC")
+    List<EmailOutbox> lockOpenDigests(String recipient);
+
+    // Returns 0 when another transaction has already opened a digest for the recipient.
+    @Modifying
+    @Query(value = "INSERT INTO email_outbox (recipient, subject, body, html_body, digest, digest_count, status, " +
+                   "attempts, next_attempt_at, created_at) " +
+                   "VALUES (:recipient, :subject, :body, CAST(:htmlBody AS text), true, 1, 'PENDING', 0, " +
+                   ":nextAttemptAt, :createdAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertOpenDigest(String recipient, String subject, String body, String htmlBody,
+                         LocalDateTime nextAttemptAt, LocalDateTime createdAt);
+
+    @Query(value = "SELECT * FROM email_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDueMessages(LocalDateTime now, int limit);
+}
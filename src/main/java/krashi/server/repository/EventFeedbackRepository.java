@@ -2,11 +2,14 @@ package krashi.server.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import krashi.server.entity.EventFeedback;
+import krashi.server.repository.projection.FeedbackView;
+import krashi.server.repository.projection.UserFeedbackView;
 
 @Repository
 public interface EventFeedbackRepository extends JpaRepository<EventFeedback, Long> {
@@ -17,4 +20,21 @@ public interface EventFeedbackRepository extends JpaRepository<EventFeedback, Lo
     
     @Query("SELECT AVG(ef.rating) FROM EventFeedback ef WHERE ef.event.id = :eventId")
     Double getAverageRatingByEventId(Long eventId);
+    
+    // Column list for FeedbackView reads.
+    String VIEW_SELECT = "SELECT f.id AS id, u.userName AS userName, f.rating AS rating, f.comment AS comment, " +
+            "f.suggestions AS suggestions, f.wouldRecommend AS wouldRecommend, f.submittedAt AS submittedAt " +
+            "FROM EventFeedback f LEFT JOIN f.user u ";
+    
+    @Query(VIEW_SELECT + "WHERE f.event.id = :eventId")
+    List<FeedbackView> findViewsByEventId(Long eventId);
+    
+    @Query(VIEW_SELECT + "WHERE f.event.id = :eventId ORDER BY f.submittedAt DESC")
+    List<FeedbackView> findRecentViewsByEventId(Long eventId, Pageable pageable);
+    
+    @Query("SELECT f.id AS id, e.id AS eventId, e.title AS eventTitle, e.dateTime AS eventDateTime, " +
+           "e.location AS eventLocation, f.rating AS rating, f.comment AS comment, f.suggestions AS suggestions, " +
+           "f.wouldRecommend AS wouldRecommend, f.submittedAt AS submittedAt " +
+           "FROM EventFeedback f LEFT JOIN f.event e WHERE f.user.id = :userId")
+    List<UserFeedbackView> findViewsByUserId(Long userId);
 }
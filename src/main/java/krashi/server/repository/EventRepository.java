@@ -2,12 +2,17 @@ package krashi.server.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import krashi.server.entity.Event;
+import krashi.server.repository.projection.EventView;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
@@ -26,4 +31,116 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     
     @Query("SELECT e FROM Event e WHERE e.status = 'PUBLISHED' AND e.availableSeats > 0 ORDER BY e.dateTime ASC")
     List<Event> findAvailableEvents();
+    
+    // Column list for EventView reads; the creator is joined, not loaded as an entity.
+    String VIEW_SELECT = "SELECT e.id AS id, e.title AS title, e.description AS description, " +
+            "e.dateTime AS dateTime, e.endDateTime AS endDateTime, e.location AS location, " +
+            "e.totalSeats AS totalSeats, e.availableSeats AS availableSeats, e.category AS category, " +
+            "e.imageUrl AS imageUrl, e.price AS price, e.organizerName AS organizerName, " +
+            "e.organizerEmail AS organizerEmail, e.status AS status, e.createdAt AS createdAt, " +
+            "e.updatedAt AS updatedAt, c.id AS createdById, c.name AS createdByName " +
+            "FROM Event e LEFT JOIN e.createdBy c ";
+    
+    @Query(VIEW_SELECT + "WHERE e.id = :eventId")
+    Optional<EventView> findViewById(Long eventId);
+    
+    @Query(VIEW_SELECT + "WHERE c.id = :createdById")
+    List<EventView> findViewsByCreatedById(Long createdById);
+    
+    @Query(VIEW_SELECT + "WHERE e.id IN (:ids)")
+    List<EventView> findViewsByIds(List<Long> ids);
+    
+    // Narrow rows for the in-memory browse index, read from idx_event_browse alone.
+    // Rows: id, dateTime, category, location, price, availableSeats.
+    @Query("SELECT e.id, e.dateTime, e.category, e.location, e.price, e.availableSeats FROM Event e " +
+           "WHERE e.status = 'PUBLISHED' AND e.dateTime > :now ORDER BY e.dateTime, e.id")
+    List<Object[]> findBrowseRows(LocalDateTime now);
+    
+    // Keyset pages ordered by (dateTime, id), continuing strictly after (afterDateTime, afterId).
+    // The leading range predicate lets Postgres seek straight into the composite index.
+    @Query(VIEW_SELECT + "WHERE e.dateTime >= :afterDateTime " +
+           "AND (e.dateTime > :afterDateTime OR e.id > :afterId) ORDER BY e.dateTime, e.id")
+    List<EventView> findPageAfter(LocalDateTime afterDateTime, Long afterId, Pageable pageable);
+    
+    @Query(VIEW_SELECT + "WHERE e.status = :status AND e.dateTime >= :afterDateTime " +
+           "AND (e.dateTime > :afterDateTime OR e.id > :afterId) ORDER BY e.dateTime, e.id")
+    List<EventView> findPageByStatusAfter(String status, LocalDateTime afterDateTime, Long afterId, Pageable pageable);
+    
+    @Query(VIEW_SELECT + "WHERE e.category = :category AND e.status = :status " +
+           "AND e.dateTime >= :afterDateTime AND (e.dateTime > :afterDateTime OR e.id > :afterId) " +
+           "ORDER BY e.dateTime, e.id")
+    List<EventView> findPageByCategoryAndStatusAfter(String category, String status, LocalDateTime afterDateTime,
+                                                     Long afterId, Pageable pageable);
+    
+    // Control characters that never appear in rendered text, used as ts_headline's StartSel/StopSel.
+    String HIGHLIGHT_START = "\u0002";
+    String HIGHLIGHT_STOP = "\u0003";
+    String HIGHLIGHT_MARKERS = HIGHLIGHT_START + HIGHLIGHT_STOP;
+    
+    // Relevance-ranked search over the generated search_vector column (GIN-indexed), keyset
+    // paged on (rank DESC, id). Headlines are built only for the rows on the returned page.
+    // Rows: id, title, date_time, location, category, price, organizer_name, available_seats,
+    // image_url, rank, title headline, description snippet. Headlines are raw event text with
+    // matched terms between HIGHLIGHT_START and HIGHLIGHT_STOP; the markers are stripped from the
+    // text first, so they can only come from ts_headline.
+    @Query(value = "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS tsq), " +
+                   "page AS (SELECT hits.id, hits.rank FROM (" +
+                   "SELECT e.id, ts_rank_cd(e.search_vector, q.tsq) AS rank FROM event e CROSS JOIN q " +
+                   "WHERE e.status = 'PUBLISHED' AND e.search_vector @@ q.tsq) hits " +
+                   "WHERE hits.rank < CAST(:afterRank AS real) " +
+                   "OR (hits.rank = CAST(:afterRank AS real) AND hits.id > :afterId) " +
+                   "ORDER BY hits.rank DESC, hits.id LIMIT :limit) " +
+                   "SELECT e.id, e.title, e.date_time, e.location, e.category, e.price, e.organizer_name, " +
+                   "e.available_seats, e.image_url, p.rank, " +
+                   "ts_headline('english', translate(e.title, '" + HIGHLIGHT_MARKERS + "', ''), q.tsq, " +
+                   "'StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_STOP + ", HighlightAll=true'), " +
+                   "ts_headline('english', translate(coalesce(e.description, ''), '" + HIGHLIGHT_MARKERS + "', ''), " +
+                   "q.tsq, 'StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_STOP + ", " +
+                   "MaxFragments=2, MaxWords=20, MinWords=5') " +
+                   "FROM page p JOIN event e ON e.id = p.id CROSS JOIN q " +
+                   "ORDER BY p.rank DESC, p.id", nativeQuery = true)
+    List<Object[]> searchFullText(String query, float afterRank, Long afterId, int limit);
+    
+    // Typo-tolerant fallback on the trigram-indexed title, ranked by word similarity. Same row
+    // shape as searchFullText, without highlights.
+    @Query(value = "WITH page AS (SELECT hits.id, hits.rank FROM (" +
+                   "SELECT e.id, word_similarity(:query, e.title) AS rank FROM event e " +
+                   "WHERE e.status = 'PUBLISHED' AND :query <% e.title) hits " +
+                   "WHERE hits.rank < CAST(:afterRank AS real) " +
+                   "OR (hits.rank = CAST(:afterRank AS real) AND hits.id > :afterId) " +
+                   "ORDER BY hits.rank DESC, hits.id LIMIT :limit) " +
+                   "SELECT e.id, e.title, e.date_time, e.location, e.category, e.price, e.organizer_name, " +
+                   "e.available_seats, e.image_url, p.rank, NULL, NULL " +
+                   "FROM page p JOIN event e ON e.id = p.id " +
+                   "ORDER BY p.rank DESC, p.id", nativeQuery = true)
+    List<Object[]> searchFuzzy(String query, float afterRank, Long afterId, int limit);
+    
+    // Transaction-local, so it only affects the fuzzy search that follows in the same transaction.
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(String threshold);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.availableSeats = e.availableSeats - :seats " +
+           "WHERE e.id = :eventId AND e.availableSeats >= :seats AND e.status = 'PUBLISHED'")
+    int decrementAvailableSeats(Long eventId, int seats);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.availableSeats = e.availableSeats + :seats " +
+           "WHERE e.id = :eventId AND e.availableSeats + :seats <= e.totalSeats")
+    int incrementAvailableSeats(Long eventId, int seats);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.availableSeats = e.availableSeats + :delta WHERE e.id = :eventId")
+    int adjustAvailableSeats(Long eventId, int delta);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Event e SET e.availableSeats = :availableSeats WHERE e.id = :eventId")
+    int updateAvailableSeats(Long eventId, int availableSeats);
+    
+    @Query("SELECT e.availableSeats FROM Event e WHERE e.id = :eventId")
+    Integer findAvailableSeatsById(Long eventId);
 }
@@ -0,0 +1,30 @@
+package krashi.server.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import krashi.server.entity.SeatHold;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
+    boolean existsByUser_IdAndEvent_Id(Long userId, Long eventId);
+
+    // Seats taken out of inventory by holds that have not been confirmed or released yet.
+    @Query("SELECT h.event.id, SUM(h.seats) FROM SeatHold h GROUP BY h.event.id")
+    List<Object[]> sumHeldSeatsByEvent();
+
+    @Query("SELECT h.id FROM SeatHold h WHERE h.expiresAt <= :now ORDER BY h.expiresAt")
+    List<Long> findOverdueHolds(LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SeatHold h WHERE h.id = :holdId")
+    int deleteHold(Long holdId);
+}
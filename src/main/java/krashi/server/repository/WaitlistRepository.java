@@ -1,9 +1,14 @@
 package krashi.server.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import krashi.server.entity.Waitlist;
 
@@ -11,6 +16,89 @@ import krashi.server.entity.Waitlist;
 public interface WaitlistRepository extends JpaRepository<Waitlist, Long> {
     List<Waitlist> findByEventIdAndStatus(Long eventId, String status);
     List<Waitlist> findByUserIdAndStatus(Long userId, String status);
+    List<Waitlist> findByUserIdAndStatusIn(Long userId, List<String> statuses);
     boolean existsByUserIdAndEventId(Long userId, Long eventId);
+    boolean existsByUserIdAndEventIdAndStatusNot(Long userId, Long eventId, String status);
     long countByEvent_IdAndStatus(Long eventId, String status);
+
+    @Query("SELECT w FROM Waitlist w JOIN FETCH w.user WHERE w.event.id = :eventId AND w.status = 'WAITING' " +
+           "ORDER BY w.joinedAt, w.id")
+    List<Waitlist> findWaitingQueueHead(Long eventId, Pageable pageable);
+
+    // Ids of the same head, row-locked for a promotion: entries another transaction is changing are
+    // skipped, and ones returned here cannot be left or notified until the promotion commits. Only
+    // waitlist rows are locked, so users and the event stay writable.
+    @Query(value = "SELECT id FROM waitlist WHERE event_id = :eventId AND status = 'WAITING' " +
+                   "ORDER BY joined_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockWaitingQueueHeadIds(Long eventId, int limit);
+
+    @Query("SELECT w FROM Waitlist w JOIN FETCH w.user WHERE w.id IN :ids ORDER BY w.joinedAt, w.id")
+    List<Waitlist> findWithUserByIdIn(List<Long> ids);
+
+    // Every entry that still counts as waitlist membership, as (id, user id, joinedAt, seats, status).
+    // NOTIFIED entries have been told to book directly, so they no longer block booking or rejoining.
+    @Query("SELECT w.id, w.user.id, w.joinedAt, w.requestedSeats, w.status FROM Waitlist w " +
+           "WHERE w.event.id = :eventId AND w.status IN ('WAITING', 'OFFERED') ORDER BY w.joinedAt, w.id")
+    List<Object[]> findActiveEntries(Long eventId);
+
+    // Flips the next :limit WAITING entries to NOTIFIED and queues a notice for each from the rows the
+    // update returns, filling {{userName}} (HTML-escaped in the HTML body) and {{seats}} per recipient.
+    // Returns the ids flipped; the outbox rows commit or roll back with the caller's transaction.
+    @Transactional
+    @Query(value = "WITH notified AS (" +
+                   "UPDATE waitlist w SET status = 'NOTIFIED', notified_at = :notifiedAt FROM user_info u " +
+                   "WHERE w.id IN (SELECT id FROM waitlist WHERE event_id = :eventId AND status = 'WAITING' " +
+                   "ORDER BY joined_at, id LIMIT :limit) " +
+                   "AND w.status = 'WAITING' AND u.id = w.user_id " +
+                   "RETURNING w.id, coalesce(u.name, '') AS name, u.email, w.requested_seats), " +
+                   "queued AS (" +
+                   "INSERT INTO email_outbox (recipient, subject, body, html_body, digest, digest_count, status, " +
+                   "attempts, next_attempt_at, created_at) " +
+                   "SELECT n.email, :subject, " +
+                   "replace(replace(:textBody, '{{userName}}', n.name), '{{seats}}', n.requested_seats::text), " +
+                   "replace(replace(:htmlBody, '{{userName}}', replace(replace(replace(replace(replace(n.name, " +
+                   "'&', '&amp;'), '<', '&lt;'), '>', '&gt;'), '\"', '&quot;'), '''', '&#39;')), " +
+                   "'{{seats}}', n.requested_seats::text), " +
+                   "false, 1, 'PENDING', 0, :notifiedAt, :notifiedAt FROM notified n) " +
+                   "SELECT id FROM notified", nativeQuery = true)
+    List<Long> notifyWaitingChunk(Long eventId, LocalDateTime notifiedAt, int limit,
+                                  String subject, String textBody, String htmlBody);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Waitlist w WHERE w.id IN :ids")
+    int deleteByIdIn(List<Long> ids);
+
+    // Returns the ids that were still WAITING and now hold an offer.
+    @Transactional
+    @Query(value = "UPDATE waitlist SET status = 'OFFERED', notified_at = :offeredAt, offer_expires_at = :expiresAt " +
+                   "WHERE id IN (:ids) AND status = 'WAITING' RETURNING id", nativeQuery = true)
+    List<Long> markOffered(List<Long> ids, LocalDateTime offeredAt, LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Waitlist w SET w.status = 'EXPIRED' " +
+           "WHERE w.id = :id AND w.status = 'OFFERED' AND w.offerExpiresAt <= :now")
+    int expireOffer(Long id, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Waitlist w WHERE w.id = :id AND w.status = 'OFFERED' AND w.offerExpiresAt > :now")
+    int claimOffer(Long id, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Waitlist w WHERE w.id = :id AND w.status = 'OFFERED'")
+    int withdrawOffer(Long id);
+
+    // Seats reserved by offers that have not been accepted or expired yet.
+    @Query("SELECT w.event.id, SUM(w.requestedSeats) FROM Waitlist w WHERE w.status = 'OFFERED' GROUP BY w.event.id")
+    List<Object[]> sumOfferedSeatsByEvent();
+
+    @Query("SELECT w.id, w.offerExpiresAt FROM Waitlist w WHERE w.status = 'OFFERED'")
+    List<Object[]> findOpenOfferDeadlines();
+
+    @Query("SELECT w.id FROM Waitlist w WHERE w.status = 'OFFERED' AND w.offerExpiresAt <= :now " +
+           "ORDER BY w.offerExpiresAt")
+    List<Long> findOverdueOffers(LocalDateTime now, Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package krashi.server.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Booking columns plus the few event fields BookingDto shows.
+public interface BookingView {
+    Long getId();
+    Long getUserId();
+    String getStatus();
+    int getNumberOfSeats();
+    LocalDateTime getBookingDateTime();
+    Long getEventId();
+    String getEventTitle();
+    LocalDateTime getEventDateTime();
+}
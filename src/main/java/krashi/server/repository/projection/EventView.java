@@ -0,0 +1,29 @@
+package krashi.server.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only column projection of an event and its creator, for listings and detail reads that
+ * only map to DTOs. Hibernate returns these as tuples, so no managed entity, no dirty-check
+ * snapshot and no extra select for createdBy is produced per row.
+ */
+public interface EventView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    LocalDateTime getDateTime();
+    LocalDateTime getEndDateTime();
+    String getLocation();
+    int getTotalSeats();
+    int getAvailableSeats();
+    String getCategory();
+    String getImageUrl();
+    double getPrice();
+    String getOrganizerName();
+    String getOrganizerEmail();
+    String getStatus();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getCreatedById();
+    String getCreatedByName();
+}
@@ -0,0 +1,14 @@
+package krashi.server.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Feedback on one event, with the author's user name.
+public interface FeedbackView {
+    Long getId();
+    String getUserName();
+    int getRating();
+    String getComment();
+    String getSuggestions();
+    boolean isWouldRecommend();
+    LocalDateTime getSubmittedAt();
+}
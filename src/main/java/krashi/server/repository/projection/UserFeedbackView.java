@@ -0,0 +1,17 @@
+package krashi.server.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Feedback left by one user, with the event fields UserFeedbackResponseDto shows.
+public interface UserFeedbackView {
+    Long getId();
+    Long getEventId();
+    String getEventTitle();
+    LocalDateTime getEventDateTime();
+    String getEventLocation();
+    int getRating();
+    String getComment();
+    String getSuggestions();
+    boolean isWouldRecommend();
+    LocalDateTime getSubmittedAt();
+}
@@ -10,6 +10,9 @@ public interface AdminService {
     ResponseEntity<?> deleteEvent(Long eventId);
     ResponseEntity<?> publishEvent(Long eventId);
     ResponseEntity<?> cancelEvent(Long eventId, String reason);
+    ResponseEntity<?> setFlashSaleMode(Long eventId, boolean enabled);
+    ResponseEntity<?> openWaitingRoom(Long eventId, int admitsPerSecond);
+    ResponseEntity<?> closeWaitingRoom(Long eventId);
     
     ResponseEntity<?> getEventStatistics(Long eventId);
     ResponseEntity<?> getEventBookings(Long eventId);
@@ -0,0 +1,17 @@
+package krashi.server.service;
+
+import krashi.server.dto.QueueTicketDto;
+
+public interface AdmissionService {
+    long ADMITTED = 0;
+    long INVALID_TICKET = -1;
+    long SPENT_TICKET = -2;
+
+    void openWaitingRoom(Long eventId, int admitsPerSecond);
+    void closeWaitingRoom(Long eventId);
+    boolean isWaitingRoomOpen(Long eventId);
+    QueueTicketDto joinQueue(Long eventId);
+    QueueTicketDto getQueueStatus(Long eventId, String ticket);
+    long checkAdmission(Long eventId, String username, String ticket);
+    void ticketUsed(Long eventId, String username, String ticket, boolean succeeded);
+}
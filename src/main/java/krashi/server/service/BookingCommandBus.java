@@ -0,0 +1,7 @@
+package krashi.server.service;
+
+import java.util.function.Supplier;
+
+public interface BookingCommandBus {
+    <T> T execute(Long eventId, Supplier<T> command);
+}
@@ -1,8 +1,10 @@
 package krashi.server.service;
 
 import krashi.server.dto.PromotedUserDto;
+import krashi.server.dto.WaitlistNoticeDto;
 import krashi.server.entity.UserInfo;
 import krashi.server.entity.Event;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface EmailNotificationService {
@@ -11,6 +13,8 @@ public interface EmailNotificationService {
 
     void sendWaitlistConfirmationEmail(UserInfo user, Event event, int requestedSeats);
 
+    void sendWaitlistOfferEmail(UserInfo user, Event event, Long waitlistId, int offeredSeats, LocalDateTime offerExpiresAt);
+
     void sendPromotionNotificationEmails(List<PromotedUserDto> promotedUsers);
 
     void sendPromotionNotificationEmail(PromotedUserDto promotedUser);
@@ -18,4 +22,7 @@ public interface EmailNotificationService {
     void sendBookingCancellationEmail(UserInfo user, Event event, int numberOfSeats, Long bookingId);
 
     void sendNotificationEmail(String userEmail, String subject, String message);
+
+    // Rendered once per event; {{userName}} and {{seats}} are left in for each recipient.
+    WaitlistNoticeDto renderWaitlistNotice(Event event);
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package krashi.server.service;
+
+public interface EmailOutboxService {
+    void enqueue(String recipient, String subject, String body);
+    void enqueue(String recipient, String subject, String body, String htmlBody);
+    void enqueueDigestible(String recipient, String subject, String body, String htmlBody);
+    void dispatchPending();
+}
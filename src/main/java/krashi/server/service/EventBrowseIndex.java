@@ -0,0 +1,10 @@
+package krashi.server.service;
+
+import krashi.server.dto.EventBrowseRequestDto;
+import krashi.server.dto.EventBrowseResultDto;
+
+public interface EventBrowseIndex {
+    EventBrowseResultDto browse(EventBrowseRequestDto request);
+    void markDirty();
+    void refreshIfStale();
+}
@@ -0,0 +1,12 @@
+package krashi.server.service;
+
+import krashi.server.dto.CursorPageDto;
+import krashi.server.dto.EventResponseDto;
+import krashi.server.util.EventCursor;
+
+public interface EventCatalogCache {
+    CursorPageDto<EventResponseDto> getUpcomingEvents(EventCursor cursor, int size);
+    CursorPageDto<EventResponseDto> getPublishedEvents(EventCursor cursor, int size);
+    CursorPageDto<EventResponseDto> getEventsByCategory(String category, EventCursor cursor, int size);
+    void invalidate(Long eventId);
+}
@@ -0,0 +1,9 @@
+package krashi.server.service;
+
+import krashi.server.dto.UserEventDetailDto;
+
+public interface EventDetailCache {
+    UserEventDetailDto getEventDetails(Long eventId);
+    void invalidate(Long eventId);
+    void seatsChanged(Long eventId);
+}
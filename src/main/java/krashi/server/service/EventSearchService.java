@@ -0,0 +1,8 @@
+package krashi.server.service;
+
+import krashi.server.dto.CursorPageDto;
+import krashi.server.dto.EventSearchResultDto;
+
+public interface EventSearchService {
+    CursorPageDto<EventSearchResultDto> search(String query, String cursor, Integer size);
+}
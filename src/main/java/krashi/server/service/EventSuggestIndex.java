@@ -0,0 +1,14 @@
+package krashi.server.service;
+
+import java.util.List;
+
+import krashi.server.dto.EventSuggestionDto;
+import krashi.server.entity.Event;
+
+public interface EventSuggestIndex {
+    List<EventSuggestionDto> suggest(String query, int limit);
+    void eventChanged(Event event);
+    void eventRemoved(Long eventId);
+    void refresh(Long eventId);
+    void rebuild();
+}
@@ -0,0 +1,16 @@
+package krashi.server.service;
+
+import krashi.server.entity.Event;
+import krashi.server.entity.UserInfo;
+
+public interface FlashSaleService {
+    boolean reserve(UserInfo user, Event event, int seats);
+    boolean tryAcquire(Long eventId, int seats);
+    void release(Long eventId, int seats);
+    void bookingAdded(Long eventId, Long userId);
+    void bookingCancelled(Long eventId, Long userId);
+    int getAvailableSeats(Long eventId);
+    void enable(Event event);
+    void disable(Event event);
+    void commitPendingBookings();
+}
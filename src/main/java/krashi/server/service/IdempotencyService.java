@@ -0,0 +1,9 @@
+package krashi.server.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+
+public interface IdempotencyService {
+    ResponseEntity<?> execute(String idempotencyKey, String operation, Supplier<ResponseEntity<?>> action);
+}
@@ -0,0 +1,15 @@
+package krashi.server.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.mail.SimpleMailMessage;
+
+import jakarta.mail.internet.MimeMessage;
+
+public interface MailTransport {
+    MimeMessage createMimeMessage();
+    CompletableFuture<Void> sendAsync(MimeMessage... messages);
+    void send(SimpleMailMessage message);
+    boolean isAvailable();
+    long retryAfterMillis();
+}
@@ -0,0 +1,10 @@
+package krashi.server.service;
+
+import org.springframework.http.ResponseEntity;
+
+public interface SeatHoldService {
+    ResponseEntity<?> holdSeats(Long eventId, int numberOfSeats);
+    ResponseEntity<?> confirmHold(Long holdId);
+    ResponseEntity<?> releaseHold(Long holdId);
+    void sweepOverdueHolds();
+}
@@ -0,0 +1,11 @@
+package krashi.server.service;
+
+import krashi.server.entity.Event;
+
+public interface SeatInventoryService {
+    boolean tryAcquire(Event event, int seats);
+    boolean release(Event event, int seats);
+    int getAvailableSeats(Event event);
+    void flush();
+    void reconcile();
+}
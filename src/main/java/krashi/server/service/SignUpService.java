@@ -2,10 +2,14 @@ package krashi.server.service;
 
 import org.springframework.http.ResponseEntity;
 
+import krashi.server.dto.EventBrowseRequestDto;
+
 public interface SignUpService {
     ResponseEntity<?> signUp(String username, String name, String email, String password, String role);
-    ResponseEntity<?> getAllEvents();
-    ResponseEntity<?> getPublishedEvents();
+    ResponseEntity<?> getAllEvents(String cursor, Integer size);
+    ResponseEntity<?> getPublishedEvents(String cursor, Integer size);
+    ResponseEntity<?> suggestEvents(String query, Integer limit);
+    ResponseEntity<?> browseEvents(EventBrowseRequestDto request);
     ResponseEntity<?> getEventDetails(Long eventId);
     ResponseEntity<?> getEventCategories();
 }
@@ -16,7 +16,7 @@ public interface UserService {
     ResponseEntity<?> submitEventFeedback(EventFeedbackDto feedbackDto);
     ResponseEntity<?> getUserFeedback();
     
-    ResponseEntity<?> getUpcomingEvents();
-    ResponseEntity<?> getEventsByCategory(String category);
-    ResponseEntity<?> searchEvents(String keyword);
+    ResponseEntity<?> getUpcomingEvents(String cursor, Integer size);
+    ResponseEntity<?> getEventsByCategory(String category, String cursor, Integer size);
+    ResponseEntity<?> searchEvents(String keyword, String cursor, Integer size);
 }
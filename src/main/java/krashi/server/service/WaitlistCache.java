@@ -0,0 +1,14 @@
+package krashi.server.service;
+
+import java.util.Collection;
+
+import krashi.server.entity.Waitlist;
+
+public interface WaitlistCache {
+    boolean isMember(Long eventId, Long userId);
+    int waitingCount(Long eventId);
+    int countFittingHead(Long eventId, int availableSeats);
+    void onJoined(Waitlist waitlist);
+    void onLeftQueue(Long eventId, Collection<Long> waitlistIds);
+    void onRemoved(Long eventId, Collection<Long> waitlistIds);
+}
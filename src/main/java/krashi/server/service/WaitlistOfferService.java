@@ -0,0 +1,16 @@
+package krashi.server.service;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+
+import krashi.server.entity.Event;
+import krashi.server.entity.Waitlist;
+
+public interface WaitlistOfferService {
+    boolean isEnabled();
+    int createOffers(Event event, List<Waitlist> entries);
+    ResponseEntity<?> acceptOffer(Long waitlistId);
+    boolean withdrawOffer(Waitlist waitlist);
+    void sweepOverdueOffers();
+}
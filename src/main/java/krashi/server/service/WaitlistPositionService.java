@@ -0,0 +1,13 @@
+package krashi.server.service;
+
+import java.util.Collection;
+
+import org.springframework.http.ResponseEntity;
+
+import krashi.server.entity.Waitlist;
+
+public interface WaitlistPositionService {
+    ResponseEntity<?> getWaitlistPosition(Long waitlistId);
+    void onJoined(Waitlist waitlist);
+    void onRemoved(Long eventId, Collection<Long> waitlistIds);
+}
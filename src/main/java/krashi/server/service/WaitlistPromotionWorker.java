@@ -0,0 +1,6 @@
+package krashi.server.service;
+
+public interface WaitlistPromotionWorker {
+    void seatsReleased(Long eventId, int seats);
+    void sweepPendingPromotions();
+}
@@ -9,16 +9,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import krashi.server.dto.BookingDto;
 import krashi.server.dto.EventDetailResponseDto;
 import krashi.server.dto.EventDto;
 import krashi.server.dto.EventResponseDto;
-import krashi.server.entity.Booking;
+import krashi.server.dto.WaitlistNoticeDto;
 import krashi.server.entity.Event;
-import krashi.server.entity.EventFeedback;
 import krashi.server.entity.UserInfo;
 import krashi.server.entity.Waitlist;
 import krashi.server.exception.AccessDeniedException;
@@ -30,22 +31,59 @@ import krashi.server.repository.BookingRepository;
 import krashi.server.repository.EventFeedbackRepository;
 import krashi.server.repository.EventRepository;
 import krashi.server.repository.WaitlistRepository;
+import krashi.server.repository.projection.EventView;
+import krashi.server.repository.projection.FeedbackView;
 import krashi.server.service.AdminService;
+import krashi.server.service.AdmissionService;
 import krashi.server.service.AuthenticationService;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.EventCatalogCache;
+import krashi.server.service.EventDetailCache;
+import krashi.server.service.EventSuggestIndex;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.service.WaitlistPositionService;
 import lombok.AllArgsConstructor;
 
 @Service
 @AllArgsConstructor
 public class AdminServiceImpl implements AdminService{
 
+    private static final int WAITLIST_NOTICE_CHUNK_SIZE = 500;
+
     private final EventRepository eventRepository;
     private final BookingRepository bookingRepository;
     private final WaitlistRepository waitlistRepository;
     private final EventFeedbackRepository eventFeedbackRepository;
     private final AuthenticationService authenticationService;
+    private final FlashSaleService flashSaleService;
+    private final AdmissionService admissionService;
+    private final EmailNotificationService emailNotificationService;
+    private final WaitlistPositionService waitlistPositionService;
+    private final WaitlistCache waitlistCache;
+    private final EventDetailCache eventDetailCache;
+    private final EventCatalogCache eventCatalogCache;
+    private final EventSuggestIndex eventSuggestIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    private static EventDetailResponseDto.FeedbackSummaryDto toFeedbackSummary(FeedbackView feedback) {
+        EventDetailResponseDto.FeedbackSummaryDto dto = new EventDetailResponseDto.FeedbackSummaryDto();
+        dto.setId(feedback.getId());
+        dto.setUserName(feedback.getUserName());
+        dto.setRating(feedback.getRating());
+        dto.setComment(feedback.getComment());
+        dto.setSuggestions(feedback.getSuggestions());
+        dto.setWouldRecommend(feedback.isWouldRecommend());
+        dto.setSubmittedAt(feedback.getSubmittedAt());
+        return dto;
+    }
 
     private void verifyEventOwnership(Event event, UserInfo admin) {
-        if (event.getCreatedBy() == null) {
+        verifyEventOwnership(event.getCreatedBy() != null ? event.getCreatedBy().getId() : null, admin);
+    }
+
+    private void verifyEventOwnership(Long createdById, UserInfo admin) {
+        if (createdById == null) {
             throw new BadRequestException("Event has no creator assigned");
         }
         
@@ -53,7 +91,7 @@ public class AdminServiceImpl implements AdminService{
             throw new BadRequestException("Invalid admin user");
         }
         
-        if (!event.getCreatedBy().getId().equals(admin.getId())) {
+        if (!createdById.equals(admin.getId())) {
             throw new AccessDeniedException("You can only access events you created");
         }
     }
@@ -153,6 +191,13 @@ public class AdminServiceImpl implements AdminService{
         }
 
         eventRepository.save(event);
+        
+        if (event.getStatus().equals("DRAFT")) {
+            eventRepository.updateAvailableSeats(eventId, eventDto.getTotalSeats());
+        }
+        eventDetailCache.invalidate(eventId);
+        eventCatalogCache.invalidate(eventId);
+        eventSuggestIndex.eventChanged(event);
         return ResponseEntity.ok("Event updated successfully");
     }
 
@@ -170,6 +215,9 @@ public class AdminServiceImpl implements AdminService{
         }
         
         eventRepository.deleteById(eventId);
+        eventDetailCache.invalidate(eventId);
+        eventCatalogCache.invalidate(eventId);
+        eventSuggestIndex.eventRemoved(eventId);
         return ResponseEntity.ok("Event deleted successfully");
     }
 
@@ -193,6 +241,9 @@ public class AdminServiceImpl implements AdminService{
         event.setStatus("PUBLISHED");
         event.setUpdatedAt(LocalDateTime.now());
         eventRepository.save(event);
+        eventDetailCache.invalidate(eventId);
+        eventCatalogCache.invalidate(eventId);
+        eventSuggestIndex.eventChanged(event);
         
         return ResponseEntity.ok("Event published successfully");
     }
@@ -209,10 +260,81 @@ public class AdminServiceImpl implements AdminService{
         event.setStatus("CANCELLED");
         event.setUpdatedAt(LocalDateTime.now());
         eventRepository.save(event);
+        eventDetailCache.invalidate(eventId);
+        eventCatalogCache.invalidate(eventId);
+        eventSuggestIndex.eventChanged(event);
         
         return ResponseEntity.ok("Event cancelled successfully. Reason: " + reason);
     }
 
+    @Override
+    public ResponseEntity<?> setFlashSaleMode(Long eventId, boolean enabled) {
+        UserInfo admin = authenticationService.getCurrentAdmin();
+        
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
+        
+        verifyEventOwnership(event, admin);
+        
+        if (event.isFlashSale() == enabled) {
+            return ResponseEntity.ok("Flash sale mode is already " + (enabled ? "enabled" : "disabled"));
+        }
+        
+        if (enabled) {
+            if (!event.getStatus().equals("PUBLISHED")) {
+                throw new BadRequestException("Flash sale mode can only be enabled for published events");
+            }
+            
+            event.setFlashSale(true);
+            event.setUpdatedAt(LocalDateTime.now());
+            eventRepository.save(event);
+            flashSaleService.enable(event);
+            eventDetailCache.invalidate(eventId);
+            eventCatalogCache.invalidate(eventId);
+            
+            return ResponseEntity.ok("Flash sale mode enabled");
+        }
+        
+        flashSaleService.disable(event);
+        event.setFlashSale(false);
+        event.setUpdatedAt(LocalDateTime.now());
+        eventRepository.save(event);
+        eventDetailCache.invalidate(eventId);
+        eventCatalogCache.invalidate(eventId);
+        
+        return ResponseEntity.ok("Flash sale mode disabled");
+    }
+
+    @Override
+    public ResponseEntity<?> openWaitingRoom(Long eventId, int admitsPerSecond) {
+        UserInfo admin = authenticationService.getCurrentAdmin();
+        
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
+        
+        verifyEventOwnership(event, admin);
+        
+        if (!event.getStatus().equals("PUBLISHED")) {
+            throw new BadRequestException("Waiting room can only be opened for published events");
+        }
+        
+        admissionService.openWaitingRoom(eventId, admitsPerSecond);
+        return ResponseEntity.ok("Waiting room opened, admitting " + admitsPerSecond + " user(s) per second");
+    }
+
+    @Override
+    public ResponseEntity<?> closeWaitingRoom(Long eventId) {
+        UserInfo admin = authenticationService.getCurrentAdmin();
+        
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
+        
+        verifyEventOwnership(event, admin);
+        
+        admissionService.closeWaitingRoom(eventId);
+        return ResponseEntity.ok("Waiting room closed");
+    }
+
     @Override
     public ResponseEntity<?> getEventStatistics(Long eventId) {
         UserInfo admin = authenticationService.getCurrentAdmin();
@@ -223,7 +345,7 @@ public class AdminServiceImpl implements AdminService{
         verifyEventOwnership(event, admin);
         
         long totalBookings = bookingRepository.countByEvent_Id(eventId);
-        long waitlistCount = waitlistRepository.countByEvent_IdAndStatus(eventId, "WAITING");
+        long waitlistCount = waitlistCache.waitingCount(eventId);
         Double averageRating = eventFeedbackRepository.getAverageRatingByEventId(eventId);
         
         Map<String, Object> stats = new HashMap<>();
@@ -241,12 +363,14 @@ public class AdminServiceImpl implements AdminService{
     public ResponseEntity<?> getEventBookings(Long eventId) {
         UserInfo admin = authenticationService.getCurrentAdmin();
         
-        Event event = eventRepository.findById(eventId)
+        EventView event = eventRepository.findViewById(eventId)
             .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
         
-        verifyEventOwnership(event, admin);
+        verifyEventOwnership(event.getCreatedById(), admin);
         
-        List<Booking> bookings = bookingRepository.findByEvent_Id(eventId);
+        List<BookingDto> bookings = bookingRepository.findViewsByEventId(eventId).stream()
+                .map(BookingToDto::mapToDto)
+                .collect(Collectors.toList());
         return ResponseEntity.ok(bookings);
     }
 
@@ -267,12 +391,15 @@ public class AdminServiceImpl implements AdminService{
     public ResponseEntity<?> getEventFeedback(Long eventId) {
         UserInfo admin = authenticationService.getCurrentAdmin();
         
-        Event event = eventRepository.findById(eventId)
+        EventView event = eventRepository.findViewById(eventId)
             .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
         
-        verifyEventOwnership(event, admin);
+        verifyEventOwnership(event.getCreatedById(), admin);
         
-        List<EventFeedback> feedback = eventFeedbackRepository.findByEventId(eventId);
+        List<EventDetailResponseDto.FeedbackSummaryDto> feedback = eventFeedbackRepository.findViewsByEventId(eventId)
+                .stream()
+                .map(AdminServiceImpl::toFeedbackSummary)
+                .collect(Collectors.toList());
         return ResponseEntity.ok(feedback);
     }
 
@@ -280,7 +407,7 @@ public class AdminServiceImpl implements AdminService{
     public ResponseEntity<?> getAdminEvents() {
         Long adminId = authenticationService.getCurrentAdminId();
         
-        List<Event> events = eventRepository.findByCreatedBy_Id(adminId);
+        List<EventView> events = eventRepository.findViewsByCreatedById(adminId);
         List<EventResponseDto> eventDtos = events.stream()
                 .map(EventToDto::mapToResponseDto)
                 .collect(Collectors.toList());
@@ -291,10 +418,10 @@ public class AdminServiceImpl implements AdminService{
     public ResponseEntity<?> getEventDetails(Long eventId) {
         UserInfo admin = authenticationService.getCurrentAdmin();
         
-        Event event = eventRepository.findById(eventId)
+        EventView event = eventRepository.findViewById(eventId)
             .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
         
-        verifyEventOwnership(event, admin);
+        verifyEventOwnership(event.getCreatedById(), admin);
         
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
@@ -326,15 +453,10 @@ public class AdminServiceImpl implements AdminService{
         details.setStatus(event.getStatus());
         details.setCreatedAt(event.getCreatedAt());
         details.setUpdatedAt(event.getUpdatedAt());
+        details.setCreatedById(event.getCreatedById());
+        details.setCreatedByName(event.getCreatedByName());
         
-        if (event.getCreatedBy() != null) {
-            details.setCreatedById(event.getCreatedBy().getId());
-            details.setCreatedByName(event.getCreatedBy().getName());
-        }
-        
-        List<Booking> bookings = bookingRepository.findByEvent_Id(eventId);
         List<Waitlist> waitlist = waitlistRepository.findByEventIdAndStatus(eventId, "WAITING");
-        List<EventFeedback> feedbacks = eventFeedbackRepository.findByEventId(eventId);
         Double averageRating = eventFeedbackRepository.getAverageRatingByEventId(eventId);
         
         long totalBookings = bookingRepository.countByEvent_Id(eventId);
@@ -346,9 +468,8 @@ public class AdminServiceImpl implements AdminService{
         details.setAverageRating(averageRating != null ? averageRating : 0.0);
         details.setTotalFeedbacks((int)totalFeedbacks);
         
-        List<BookingDto> recentBookings = bookings.stream()
-                .sorted((b1, b2) -> b2.getBookingDateTime().compareTo(b1.getBookingDateTime()))
-                .limit(5)
+        List<BookingDto> recentBookings = bookingRepository.findRecentViewsByEventId(eventId, PageRequest.of(0, 5))
+                .stream()
                 .map(BookingToDto::mapToDto)
                 .collect(Collectors.toList());
         details.setRecentBookings(recentBookings);
@@ -368,25 +489,19 @@ public class AdminServiceImpl implements AdminService{
                 .collect(Collectors.toList());
         details.setWaitlistUsers(waitlistSummary);
         
-        List<EventDetailResponseDto.FeedbackSummaryDto> recentFeedbacks = feedbacks.stream()
-                .sorted((f1, f2) -> f2.getSubmittedAt().compareTo(f1.getSubmittedAt()))
-                .limit(5)
-                .map(f -> {
-                    EventDetailResponseDto.FeedbackSummaryDto dto = new EventDetailResponseDto.FeedbackSummaryDto();
-                    dto.setId(f.getId());
-                    dto.setUserName(f.getUser().getUserName());
-                    dto.setRating(f.getRating());
-                    dto.setComment(f.getComment());
-                    dto.setWouldRecommend(f.isWouldRecommend());
-                    dto.setSubmittedAt(f.getSubmittedAt());
-                    return dto;
-                })
+        List<EventDetailResponseDto.FeedbackSummaryDto> recentFeedbacks = eventFeedbackRepository
+                .findRecentViewsByEventId(eventId, PageRequest.of(0, 5))
+                .stream()
+                .map(AdminServiceImpl::toFeedbackSummary)
                 .collect(Collectors.toList());
         details.setRecentFeedbacks(recentFeedbacks);
         
         return ResponseEntity.ok(details);
     }
 
+    // Notified users leave the queue and are asked to book directly. Each chunk's status change
+    // and notice emails commit together in their own transaction, so a long waitlist never holds
+    // one transaction open, and a failure part way keeps the chunks already sent.
     @Override
     public ResponseEntity<?> notifyWaitlistUsers(Long eventId) {
         UserInfo admin = authenticationService.getCurrentAdmin();
@@ -396,15 +511,19 @@ public class AdminServiceImpl implements AdminService{
         
         verifyEventOwnership(event, admin);
         
-        List<Waitlist> waitlist = waitlistRepository.findByEventIdAndStatus(eventId, "WAITING");
-        
-        for (Waitlist wait : waitlist) {
-            wait.setStatus("NOTIFIED");
-            wait.setNotifiedAt(LocalDateTime.now());
-            waitlistRepository.save(wait);
-        }
-        
-        return ResponseEntity.ok("Notified " + waitlist.size() + " users on waitlist");
+        WaitlistNoticeDto notice = emailNotificationService.renderWaitlistNotice(event);
+        LocalDateTime notifiedAt = LocalDateTime.now();
+        int notified = 0;
+        List<Long> chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> waitlistRepository.notifyWaitingChunk(eventId, notifiedAt,
+                    WAITLIST_NOTICE_CHUNK_SIZE, notice.getSubject(), notice.getTextBody(), notice.getHtmlBody()));
+            waitlistPositionService.onRemoved(eventId, chunk);
+            waitlistCache.onRemoved(eventId, chunk);
+            notified += chunk.size();
+        } while (chunk.size() == WAITLIST_NOTICE_CHUNK_SIZE);
+        
+        return ResponseEntity.ok("Notified " + notified + " users on waitlist");
     }
 
 }
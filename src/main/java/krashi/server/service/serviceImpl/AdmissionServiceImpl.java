@@ -0,0 +1,321 @@
+package krashi.server.service.serviceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import krashi.server.dto.QueueTicketDto;
+import krashi.server.exception.BadRequestException;
+import krashi.server.service.AdmissionService;
+import krashi.server.service.AuthenticationService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Waiting rooms live in Redis so every node gates the same queue: the set of open rooms, each
+ * room's issued sequence and admitted watermark, and the sequence handed to each user. Every node
+ * advances the watermark on each tick with one script that measures elapsed time on the Redis
+ * clock, so the rate holds no matter how many nodes run it. Nodes keep the watermarks from their
+ * last tick in memory, which is all the booking filter and the status endpoint read.
+ */
+@Slf4j
+@Service
+public class AdmissionServiceImpl implements AdmissionService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final long ADMISSION_TICK_MILLIS = 100;
+    private static final String ROOMS_KEY = "admission:rooms";
+
+    // Returns the user's "sequence:issuedAt", issuing a new sequence when they have none or theirs
+    // is older than the ticket TTL.
+    private static final RedisScript<String> JOIN_SCRIPT = new DefaultRedisScript<>(
+            "local existing = redis.call('HGET', KEYS[2], ARGV[1]) " +
+            "if existing then " +
+            "  local issuedAt = tonumber(string.sub(existing, string.find(existing, ':') + 1)) " +
+            "  if tonumber(ARGV[2]) - issuedAt < tonumber(ARGV[3]) then return existing end " +
+            "end " +
+            "local value = redis.call('INCR', KEYS[1]) .. ':' .. ARGV[2] " +
+            "redis.call('HSET', KEYS[2], ARGV[1], value) " +
+            "return value",
+            String.class);
+
+    // Moves the admitted watermark forward by the time elapsed since the last advance, keeping the
+    // fractional remainder, and never past the last issued sequence so idle time cannot bank admissions.
+    private static final RedisScript<Long> ADVANCE_SCRIPT = new DefaultRedisScript<>(
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local last = tonumber(redis.call('GET', KEYS[3]) or now) " +
+            "local admitted = tonumber(redis.call('GET', KEYS[2]) or '0') " +
+            "local issued = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "local rate = tonumber(ARGV[1]) " +
+            "local admits = math.floor((now - last) * rate / 1000) " +
+            "if admitted + admits >= issued then " +
+            "  admitted = issued " +
+            "  last = now " +
+            "elseif admits > 0 then " +
+            "  admitted = admitted + admits " +
+            "  last = last + math.floor(admits * 1000 / rate) " +
+            "end " +
+            "redis.call('SET', KEYS[2], admitted) " +
+            "redis.call('SET', KEYS[3], last) " +
+            "return admitted",
+            Long.class);
+
+    // Drops the user's queue entry once their ticket has been spent, unless they have since been
+    // issued a newer sequence, so joining again puts them at the back of the queue.
+    private static final RedisScript<Long> FORGET_SCRIPT = new DefaultRedisScript<>(
+            "local existing = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if existing == ARGV[2] then " +
+            "  return redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "end " +
+            "return 0",
+            Long.class);
+
+    private final AuthenticationService authenticationService;
+    private final StringRedisTemplate redisTemplate;
+    // Open rooms and their admitted watermark as of this node's last tick.
+    private final Map<Long, Long> admittedByRoom = new ConcurrentHashMap<>();
+    private final SecretKeySpec signingKey;
+    private final ThreadLocal<Mac> macs;
+
+    @Value("${booking.admission.ticket-ttl-minutes:30}")
+    private long ticketTtlMinutes;
+
+    public AdmissionServiceImpl(AuthenticationService authenticationService, StringRedisTemplate redisTemplate,
+                                @Value("${booking.admission.secret:}") String secret) {
+        this.authenticationService = authenticationService;
+        this.redisTemplate = redisTemplate;
+
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("No booking.admission.secret configured, queue tickets are only valid on this instance");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.signingKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    @Override
+    public void openWaitingRoom(Long eventId, int admitsPerSecond) {
+        if (admitsPerSecond <= 0) {
+            throw new BadRequestException("Admission rate must be greater than zero");
+        }
+
+        redisTemplate.opsForHash().put(ROOMS_KEY, String.valueOf(eventId), String.valueOf(admitsPerSecond));
+        admittedByRoom.putIfAbsent(eventId, 0L);
+        log.info("Waiting room open for event {} admitting {} user(s) per second", eventId, admitsPerSecond);
+    }
+
+    @Override
+    public void closeWaitingRoom(Long eventId) {
+        redisTemplate.opsForHash().delete(ROOMS_KEY, String.valueOf(eventId));
+        redisTemplate.delete(roomKeys(eventId));
+        if (admittedByRoom.remove(eventId) != null) {
+            log.info("Waiting room closed for event {}", eventId);
+        }
+    }
+
+    @Override
+    public boolean isWaitingRoomOpen(Long eventId) {
+        return admittedByRoom.containsKey(eventId);
+    }
+
+    @Override
+    public QueueTicketDto joinQueue(Long eventId) {
+        if (!isWaitingRoomOpen(eventId)) {
+            throw new BadRequestException("No waiting room is active for this event. You can book directly");
+        }
+
+        String username = authenticationService.getCurrentUsername();
+        List<String> keys = roomKeys(eventId);
+        String issued = redisTemplate.execute(JOIN_SCRIPT, List.of(keys.get(0), keys.get(3)),
+                username, String.valueOf(System.currentTimeMillis()), String.valueOf(ticketTtlMillis()));
+        String ticket = sign(eventId + ":" + issued + ":" + username);
+
+        return getQueueStatus(eventId, ticket);
+    }
+
+    @Override
+    public QueueTicketDto getQueueStatus(Long eventId, String ticket) {
+        Long admitted = admittedByRoom.get(eventId);
+        if (admitted == null) {
+            return new QueueTicketDto(eventId, ticket, 0, true);
+        }
+
+        String[] claims = verify(ticket);
+        if (claims == null || !claims[0].equals(String.valueOf(eventId))) {
+            throw new BadRequestException("Invalid queue ticket");
+        }
+        if (isExpired(claims)) {
+            throw new BadRequestException("Queue ticket has expired. Join the queue again");
+        }
+
+        long position = Math.max(Long.parseLong(claims[1]) - admitted, 0);
+        return new QueueTicketDto(eventId, ticket, position, position == 0);
+    }
+
+    @Override
+    public long checkAdmission(Long eventId, String username, String ticket) {
+        Long admitted = admittedByRoom.get(eventId);
+        if (admitted == null) {
+            return ADMITTED;
+        }
+
+        String[] claims = verify(ticket);
+        if (claims == null
+                || !claims[0].equals(String.valueOf(eventId))
+                || !claims[3].equals(username)
+                || isExpired(claims)) {
+            return INVALID_TICKET;
+        }
+
+        long position = Math.max(Long.parseLong(claims[1]) - admitted, ADMITTED);
+        if (position != ADMITTED) {
+            return position;
+        }
+        return claimTicket(eventId, ticketId(claims)) ? ADMITTED : SPENT_TICKET;
+    }
+
+    // A failed request hands the ticket back for a retry; a successful one spends it for good.
+    @Override
+    public void ticketUsed(Long eventId, String username, String ticket, boolean succeeded) {
+        String[] claims = verify(ticket);
+        if (claims == null) {
+            return;
+        }
+        List<String> keys = roomKeys(eventId);
+        try {
+            if (succeeded) {
+                redisTemplate.execute(FORGET_SCRIPT, List.of(keys.get(3)), username, ticketId(claims));
+            } else {
+                redisTemplate.delete(spentKey(eventId, ticketId(claims)));
+            }
+        } catch (Exception e) {
+            log.error("Failed to settle queue ticket {} for event {}. Error: {}", ticketId(claims), eventId, e.getMessage());
+        }
+    }
+
+    // Tickets are single-use, so two requests racing on one ticket cannot both get through. If
+    // Redis is unreachable the request is let through, as the ticket itself was already checked.
+    private boolean claimTicket(Long eventId, String ticketId) {
+        try {
+            Boolean claimed = redisTemplate.opsForValue()
+                    .setIfAbsent(spentKey(eventId, ticketId), "1", Duration.ofMillis(ticketTtlMillis()));
+            return !Boolean.FALSE.equals(claimed);
+        } catch (Exception e) {
+            log.warn("Failed to claim queue ticket {} for event {}, admitting anyway. Error: {}",
+                    ticketId, eventId, e.getMessage());
+            return true;
+        }
+    }
+
+    // "sequence:issuedAt", as stored in the tickets hash; the issue time keeps ids unique when a
+    // room is closed and reopened and its sequence starts over.
+    private static String ticketId(String[] claims) {
+        return claims[1] + ":" + claims[2];
+    }
+
+    private static String spentKey(Long eventId, String ticketId) {
+        return "admission:{" + eventId + "}:spent:" + ticketId;
+    }
+
+    // Also picks up rooms opened or closed on other nodes. If Redis is unreachable the last known
+    // state is kept, so open rooms stay gated rather than letting everyone through.
+    @Scheduled(fixedRate = ADMISSION_TICK_MILLIS)
+    public void admitWaitingUsers() {
+        Map<Object, Object> rooms;
+        try {
+            rooms = redisTemplate.opsForHash().entries(ROOMS_KEY);
+        } catch (Exception e) {
+            log.error("Failed to read waiting rooms. Error: {}", e.getMessage());
+            return;
+        }
+
+        admittedByRoom.keySet().removeIf(eventId -> !rooms.containsKey(String.valueOf(eventId)));
+        rooms.forEach((eventId, admitsPerSecond) -> {
+            Long id = Long.valueOf((String) eventId);
+            List<String> keys = roomKeys(id);
+            try {
+                Long admitted = redisTemplate.execute(ADVANCE_SCRIPT, keys.subList(0, 3), (String) admitsPerSecond);
+                if (admitted != null) {
+                    admittedByRoom.put(id, admitted);
+                }
+            } catch (Exception e) {
+                log.error("Failed to advance waiting room for event {}. Error: {}", id, e.getMessage());
+            }
+        });
+    }
+
+    private boolean isExpired(String[] claims) {
+        return System.currentTimeMillis() - Long.parseLong(claims[2]) > ticketTtlMillis();
+    }
+
+    private long ticketTtlMillis() {
+        return ticketTtlMinutes * 60_000;
+    }
+
+    // issued, admitted, clock, tickets; the hash tag keeps one room's keys on one cluster slot.
+    private static List<String> roomKeys(Long eventId) {
+        String prefix = "admission:{" + eventId + "}:";
+        return List.of(prefix + "issued", prefix + "admitted", prefix + "clock", prefix + "tickets");
+    }
+
+    private String sign(String payload) {
+        byte[] signature = macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + encoder.encodeToString(signature);
+    }
+
+    private String[] verify(String ticket) {
+        if (ticket == null) {
+            return null;
+        }
+
+        int separator = ticket.indexOf('.');
+        if (separator <= 0) {
+            return null;
+        }
+
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(ticket.substring(0, separator));
+            byte[] signature = decoder.decode(ticket.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, macs.get().doFinal(payload))) {
+                return null;
+            }
+
+            String[] claims = new String(payload, StandardCharsets.UTF_8).split(":", 4);
+            return claims.length == 4 ? claims : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise queue ticket signing", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package krashi.server.service.serviceImpl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import krashi.server.exception.ServiceBusyException;
+import krashi.server.service.BookingCommandBus;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class BookingCommandBusImpl implements BookingCommandBus {
+
+    private static final ThreadLocal<Integer> CURRENT_PARTITION = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor[] partitions;
+    private final long timeoutMillis;
+
+    public BookingCommandBusImpl(@Value("${booking.command-bus.partitions:0}") int partitionCount,
+                                 @Value("${booking.command-bus.mailbox-capacity:1000}") int mailboxCapacity,
+                                 @Value("${booking.command-bus.timeout-ms:5000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        int count = partitionCount > 0 ? partitionCount : Runtime.getRuntime().availableProcessors();
+        this.partitions = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            int partition = i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(mailboxCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(() -> {
+                            CURRENT_PARTITION.set(partition);
+                            runnable.run();
+                        }, "booking-partition-" + partition);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        log.info("Booking command bus started with {} partition(s), mailbox capacity {}", count, mailboxCapacity);
+    }
+
+    @Override
+    public <T> T execute(Long eventId, Supplier<T> command) {
+        int partition = partitionFor(eventId);
+        Integer current = CURRENT_PARTITION.get();
+        if (current != null && current == partition) {
+            return command.get();
+        }
+
+        // Whoever flips this first decides the command's fate: the partition runs it, or a timed
+        // out caller abandons it so it can never run after the caller has given up.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = partitions[partition].submit(() -> claimed.compareAndSet(false, true) ? command.get() : null);
+        } catch (RejectedExecutionException e) {
+            log.warn("Booking partition {} is saturated, rejecting command for event {}", partition, eventId);
+            throw new ServiceBusyException("Booking service is busy for this event. Please retry shortly");
+        }
+
+        // A stuck partition must not pin request threads. A command still in the mailbox is
+        // abandoned; one already running may still commit, so the caller is told to check first.
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (claimed.compareAndSet(false, true)) {
+                future.cancel(false);
+                log.warn("Booking partition {} did not reach command for event {} within {} ms", partition, eventId, timeoutMillis);
+                throw new ServiceBusyException("Booking service is busy for this event. Please retry shortly");
+            }
+            log.warn("Booking command for event {} is still running on partition {} after {} ms", eventId, partition, timeoutMillis);
+            throw new ServiceBusyException("Booking request is taking longer than expected. Check your bookings before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Booking request was interrupted. Please retry");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+    }
+
+    private int partitionFor(Long eventId) {
+        int hash = eventId.hashCode();
+        return ((hash ^ (hash >>> 16)) & 0x7fffffff) % partitions.length;
+    }
+}
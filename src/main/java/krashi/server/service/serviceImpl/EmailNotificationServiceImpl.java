@@ -1,45 +1,71 @@
 package krashi.server.service.serviceImpl;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import krashi.server.dto.PromotedUserDto;
+import krashi.server.dto.WaitlistNoticeDto;
 import krashi.server.entity.Event;
 import krashi.server.entity.UserInfo;
 import krashi.server.service.EmailNotificationService;
-import lombok.AllArgsConstructor;
+import krashi.server.service.EmailOutboxService;
+import krashi.server.util.MailTemplate;
+import krashi.server.util.NotificationTemplates;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class EmailNotificationServiceImpl implements EmailNotificationService {
 
-    private final JavaMailSender javaMailSender;
+    private final EmailOutboxService emailOutboxService;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a");
+    private static final int MAX_CACHED_EVENTS = 10_000;
+
+    private final Map<Long, EventFragments> eventFragments = new ConcurrentHashMap<>();
 
     @Override
     public void sendBookingConfirmationEmail(UserInfo user, Event event, int numberOfSeats, Long bookingId) {
         String subject = "Booking Confirmation - " + event.getTitle();
-        String message = buildBookingConfirmationMessage(user, event, numberOfSeats, bookingId);
-        
-        sendEmail(user.getEmail(), subject, message);
-        log.info("Booking confirmation email sent to: {} for event: {}", user.getEmail(), event.getTitle());
+        EventFragments fragments = fragmentsFor(event);
+        String[] values = {user.getName(), fragments.title(), fragments.date(), fragments.time(),
+                fragments.location(), String.valueOf(numberOfSeats), String.valueOf(bookingId)};
+
+        sendEmail(user.getEmail(), subject, NotificationTemplates.BOOKING_CONFIRMATION, values);
+        log.info("Booking confirmation email queued for: {} for event: {}", user.getEmail(), event.getTitle());
     }
 
     @Override
     public void sendWaitlistConfirmationEmail(UserInfo user, Event event, int requestedSeats) {
         String subject = "Waitlist Confirmation - " + event.getTitle();
-        String message = buildWaitlistConfirmationMessage(user, event, requestedSeats);
-        
-        sendEmail(user.getEmail(), subject, message);
-        log.info("Waitlist confirmation email sent to: {} for event: {}", user.getEmail(), event.getTitle());
+        EventFragments fragments = fragmentsFor(event);
+        String[] values = {user.getName(), fragments.title(), fragments.date(), fragments.time(),
+                fragments.location(), String.valueOf(requestedSeats)};
+
+        sendNotice(user.getEmail(), subject, NotificationTemplates.WAITLIST_CONFIRMATION, values);
+        log.info("Waitlist confirmation email queued for: {} for event: {}", user.getEmail(), event.getTitle());
+    }
+
+    @Override
+    public void sendWaitlistOfferEmail(UserInfo user, Event event, Long waitlistId, int offeredSeats,
+                                       LocalDateTime offerExpiresAt) {
+        String subject = "Seats Available - Accept Your Offer for " + event.getTitle();
+        EventFragments fragments = fragmentsFor(event);
+        String[] values = {user.getName(), fragments.title(), fragments.date(), fragments.time(),
+                fragments.location(), String.valueOf(offeredSeats), String.valueOf(waitlistId),
+                offerExpiresAt.format(DATE_FORMATTER) + " " + offerExpiresAt.format(TIME_FORMATTER)};
+
+        sendEmail(user.getEmail(), subject, NotificationTemplates.WAITLIST_OFFER, values);
+        log.info("Waitlist offer email queued for: {} for event: {}", user.getEmail(), event.getTitle());
     }
 
     @Override
@@ -47,134 +73,80 @@ public class EmailNotificationServiceImpl implements EmailNotificationService {
         for (PromotedUserDto promotedUser : promotedUsers) {
             sendPromotionNotificationEmail(promotedUser);
         }
-        log.info("Promotion notification emails sent to {} users", promotedUsers.size());
+        log.info("Promotion notification emails queued for {} users", promotedUsers.size());
     }
 
     @Override
     public void sendPromotionNotificationEmail(PromotedUserDto promotedUser) {
         String subject = "Great News! You've been confirmed for " + promotedUser.getEventTitle();
-        String message = buildPromotionNotificationMessage(promotedUser);
-        
-        sendEmail(promotedUser.getUserEmail(), subject, message);
-        log.info("Promotion notification email sent to: {} for event: {}", 
+        String[] values = {promotedUser.getUserName(), promotedUser.getEventTitle(),
+                String.valueOf(promotedUser.getSeatsPromoted()), String.valueOf(promotedUser.getNewBookingId())};
+
+        sendEmail(promotedUser.getUserEmail(), subject, NotificationTemplates.PROMOTION_NOTIFICATION, values);
+        log.info("Promotion notification email queued for: {} for event: {}", 
                 promotedUser.getUserEmail(), promotedUser.getEventTitle());
     }
 
     @Override
     public void sendBookingCancellationEmail(UserInfo user, Event event, int numberOfSeats, Long bookingId) {
         String subject = "Booking Cancellation Confirmation - " + event.getTitle();
-        String message = buildCancellationConfirmationMessage(user, event, numberOfSeats, bookingId);
-        
-        sendEmail(user.getEmail(), subject, message);
-        log.info("Booking cancellation email sent to: {} for event: {}", user.getEmail(), event.getTitle());
+        EventFragments fragments = fragmentsFor(event);
+        String[] values = {user.getName(), fragments.title(), fragments.date(), fragments.time(),
+                fragments.location(), String.valueOf(numberOfSeats), String.valueOf(bookingId)};
+
+        sendEmail(user.getEmail(), subject, NotificationTemplates.BOOKING_CANCELLATION, values);
+        log.info("Booking cancellation email queued for: {} for event: {}", user.getEmail(), event.getTitle());
     }
 
     @Override
     public void sendNotificationEmail(String userEmail, String subject, String message) {
-        sendEmail(userEmail, subject, message);
-        log.info("General notification email sent to: {}", userEmail);
+        emailOutboxService.enqueueDigestible(userEmail, subject, message, null);
+        log.info("General notification email queued for: {}", userEmail);
     }
 
-    private void sendEmail(String toEmail, String subject, String message) {
-        try {
-            SimpleMailMessage mailMessage = new SimpleMailMessage();
-            mailMessage.setTo(toEmail);
-            mailMessage.setSubject(subject);
-            mailMessage.setText(message);
-            
-            javaMailSender.send(mailMessage);
-            log.info("Email sent successfully to: {}", toEmail);
-            
-        } catch (Exception e) {
-            log.error("Failed to send email to: {}. Error: {}", toEmail, e.getMessage());
-        }
+    // Per-recipient values stay as placeholders; the waitlist notice statement fills them in as
+    // it inserts the outbox rows, so the whole fan-out is one INSERT ... SELECT per chunk.
+    @Override
+    public WaitlistNoticeDto renderWaitlistNotice(Event event) {
+        EventFragments fragments = fragmentsFor(event);
+        String[] values = {"{{userName}}", fragments.title(), fragments.date(), fragments.time(),
+                fragments.location(), "{{seats}}"};
+        return new WaitlistNoticeDto("Waitlist Update - " + event.getTitle(),
+                NotificationTemplates.WAITLIST_NOTICE.renderText(values),
+                NotificationTemplates.WAITLIST_NOTICE.renderHtml(values));
     }
 
-    private String buildBookingConfirmationMessage(UserInfo user, Event event, int numberOfSeats, Long bookingId) {
-        return String.format(
-            "Dear %s,\n\n" +
-            "Your booking has been confirmed!\n\n" +
-            "Event Details:\n" +
-            "- Event: %s\n" +
-            "- Date: %s\n" +
-            "- Time: %s\n" +
-            "- Location: %s\n" +
-            "- Number of Seats: %d\n" +
-            "- Booking ID: %d\n\n" +
-            "We look forward to seeing you at the event!\n\n" +
-            "Best regards,\n" +
-            "Krashi Events Team",
-            user.getName(),
-            event.getTitle(),
-            event.getDateTime().format(DATE_FORMATTER),
-            event.getDateTime().format(TIME_FORMATTER),
-            event.getLocation(),
-            numberOfSeats,
-            bookingId
-        );
+    // Bookings, cancellations and offers are acted on, so they go out on their own straight away.
+    private void sendEmail(String toEmail, String subject, MailTemplate template, String[] values) {
+        emailOutboxService.enqueue(toEmail, subject, template.renderText(values), template.renderHtml(values));
     }
 
-    private String buildWaitlistConfirmationMessage(UserInfo user, Event event, int requestedSeats) {
-        return String.format(
-            "Dear %s,\n\n" +
-            "You have been added to the waitlist for the following event:\n\n" +
-            "Event Details:\n" +
-            "- Event: %s\n" +
-            "- Date: %s\n" +
-            "- Time: %s\n" +
-            "- Location: %s\n" +
-            "- Requested Seats: %d\n\n" +
-            "The event is currently full, but don't worry! You're now on our waitlist and will be automatically notified if seats become available.\n\n" +
-            "Best regards,\n" +
-            "Krashi Events Team",
-            user.getName(),
-            event.getTitle(),
-            event.getDateTime().format(DATE_FORMATTER),
-            event.getDateTime().format(TIME_FORMATTER),
-            event.getLocation(),
-            requestedSeats
-        );
+    // Informational notices may wait for the digest window and leave together.
+    private void sendNotice(String toEmail, String subject, MailTemplate template, String[] values) {
+        emailOutboxService.enqueueDigestible(toEmail, subject, template.renderText(values), template.renderHtml(values));
     }
 
-    private String buildPromotionNotificationMessage(PromotedUserDto promotedUser) {
-        return String.format(
-            "Dear %s,\n\n" +
-            "Excellent news! A seat has become available and you've been automatically moved from the waitlist to confirmed booking!\n\n" +
-            "Event Details:\n" +
-            "- Event: %s\n" +
-            "- Confirmed Seats: %d\n" +
-            "- Booking ID: %d\n\n" +
-            "Your booking is now confirmed and you're all set to attend the event.\n\n" +
-            "Best regards,\n" +
-            "Krashi Events Team",
-            promotedUser.getUserName(),
-            promotedUser.getEventTitle(),
-            promotedUser.getSeatsPromoted(),
-            promotedUser.getNewBookingId()
-        );
+    // Title, date, time and location are formatted once per event version rather than per email.
+    private EventFragments fragmentsFor(Event event) {
+        EventFragments cached = eventFragments.get(event.getId());
+        if (cached != null && Objects.equals(cached.version(), event.getUpdatedAt())) {
+            return cached;
+        }
+        EventFragments fragments = new EventFragments(
+                event.getUpdatedAt(),
+                event.getTitle(),
+                event.getDateTime().format(DATE_FORMATTER),
+                event.getDateTime().format(TIME_FORMATTER),
+                event.getLocation());
+        if (event.getId() != null) {
+            if (eventFragments.size() >= MAX_CACHED_EVENTS) {
+                eventFragments.clear();
+            }
+            eventFragments.put(event.getId(), fragments);
+        }
+        return fragments;
     }
 
-    private String buildCancellationConfirmationMessage(UserInfo user, Event event, int numberOfSeats, Long bookingId) {
-        return String.format(
-            "Dear %s,\n\n" +
-            "Your booking cancellation has been confirmed.\n\n" +
-            "Cancelled Booking Details:\n" +
-            "- Event: %s\n" +
-            "- Date: %s\n" +
-            "- Time: %s\n" +
-            "- Location: %s\n" +
-            "- Cancelled Seats: %d\n" +
-            "- Booking ID: %d\n\n" +
-            "Thank you for using Krashi Events.\n\n" +
-            "Best regards,\n" +
-            "Krashi Events Team",
-            user.getName(),
-            event.getTitle(),
-            event.getDateTime().format(DATE_FORMATTER),
-            event.getDateTime().format(TIME_FORMATTER),
-            event.getLocation(),
-            numberOfSeats,
-            bookingId
-        );
+    private record EventFragments(LocalDateTime version, String title, String date, String time, String location) {
     }
-}
\ No newline at end of file
+}
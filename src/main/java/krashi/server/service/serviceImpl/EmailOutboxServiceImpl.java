@@ -0,0 +1,365 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import krashi.server.entity.EmailOutbox;
+import krashi.server.exception.MailTransportUnavailableException;
+import krashi.server.repository.EmailOutboxRepository;
+import krashi.server.service.EmailOutboxService;
+import krashi.server.service.MailTransport;
+import krashi.server.util.MailTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Booking and waitlist emails are written to the outbox in the caller's transaction and
+ * delivered by a background dispatcher, so SMTP latency never sits on the request path.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_SENDING = "SENDING";
+    private static final String STATUS_SENT = "SENT";
+    private static final String STATUS_DEAD = "DEAD";
+    private static final int MAX_DIGEST_ATTEMPTS = 3;
+    private static final String DIGEST_SEPARATOR = "\n\n----------------------------------------\n\n";
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final MailTransport mailTransport;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notification.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notification.outbox.transport-batch-size:25}")
+    private int transportBatchSize;
+
+    @Value("${notification.outbox.max-per-second:0}")
+    private int maxPerSecond;
+
+    @Value("${notification.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.backoff-base-seconds:5}")
+    private long backoffBaseSeconds;
+
+    @Value("${notification.outbox.backoff-max-seconds:1800}")
+    private long backoffMaxSeconds;
+
+    @Value("${notification.digest.window-seconds:30}")
+    private long digestWindowSeconds;
+
+    @Value("${notification.digest.max-messages:20}")
+    private int digestMaxMessages;
+
+    @Value("${notification.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    private final Object throttleLock = new Object();
+    private long nextPermitNanos;
+
+    private Timer batchTimer;
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter deadCounter;
+    private Counter parkedCounter;
+    private DistributionSummary throughputSummary;
+
+    @PostConstruct
+    public void start() {
+        batchTimer = meterRegistry.timer("email.outbox.batch");
+        sentCounter = meterRegistry.counter("email.outbox.messages", "result", "sent");
+        failedCounter = meterRegistry.counter("email.outbox.messages", "result", "failed");
+        deadCounter = meterRegistry.counter("email.outbox.messages", "result", "dead");
+        parkedCounter = meterRegistry.counter("email.outbox.messages", "result", "parked");
+        throughputSummary = DistributionSummary.builder("email.outbox.throughput")
+                .baseUnit("messages/s")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void enqueue(String recipient, String subject, String body) {
+        enqueue(recipient, subject, body, null);
+    }
+
+    @Override
+    public void enqueue(String recipient, String subject, String body, String htmlBody) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox message = new EmailOutbox();
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setHtmlBody(htmlBody);
+        message.setDigestCount(1);
+        message.setStatus(STATUS_PENDING);
+        message.setAttempts(0);
+        message.setCreatedAt(now);
+        message.setNextAttemptAt(now);
+        emailOutboxRepository.save(message);
+    }
+
+    // At most one open digest per recipient. Two transactions that both find none race on the
+    // insert; the loser's insert is a no-op and it appends to the winner's row instead.
+    @EventListener(ApplicationReadyEvent.class)
+    public void createDigestIndex() {
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uq_email_outbox_open_digest ON email_outbox (recipient) " +
+                    "WHERE digest AND status = 'PENDING' AND attempts = 0");
+        } catch (Exception e) {
+            log.error("Failed to create the open digest index; concurrent digests may split. Error: {}", e.getMessage());
+        }
+    }
+
+    // The first digestible mail for a recipient opens a window; anything queued for them before
+    // it is sent is folded into the same row, so a burst of activity leaves as one email.
+    @Override
+    @Transactional
+    public void enqueueDigestible(String recipient, String subject, String body, String htmlBody) {
+        if (digestWindowSeconds <= 0) {
+            enqueue(recipient, subject, body, htmlBody);
+            return;
+        }
+        for (int attempt = 0; attempt < MAX_DIGEST_ATTEMPTS; attempt++) {
+            List<EmailOutbox> open = emailOutboxRepository.lockOpenDigests(recipient);
+            if (!open.isEmpty() && open.get(0).getDigestCount() >= digestMaxMessages) {
+                open.get(0).setDigest(false);
+                emailOutboxRepository.saveAndFlush(open.get(0));
+            } else if (!open.isEmpty()) {
+                appendToDigest(open.get(0), subject, body, htmlBody);
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (emailOutboxRepository.insertOpenDigest(recipient, subject, body, htmlBody,
+                    now.plusSeconds(digestWindowSeconds), now) == 1) {
+                return;
+            }
+        }
+        // The open digest keeps being sent between our insert and lock; this mail goes on its own.
+        enqueue(recipient, subject, body, htmlBody);
+    }
+
+    private void appendToDigest(EmailOutbox digest, String subject, String body, String htmlBody) {
+        boolean first = digest.getDigestCount() == 1;
+        String existingHtml = digest.getHtmlBody() != null ? digest.getHtmlBody() : MailTemplate.textToHtml(digest.getBody());
+        String additionHtml = htmlBody != null ? htmlBody : MailTemplate.textToHtml(body);
+        String existingText = first ? "== " + digest.getSubject() + " ==\n\n" + digest.getBody() : digest.getBody();
+        int count = digest.getDigestCount() + 1;
+
+        digest.setBody(existingText + DIGEST_SEPARATOR + "== " + subject + " ==\n\n" + body);
+        digest.setHtmlBody(MailTemplate.mergeHtml(existingHtml, first ? digest.getSubject() : null, additionHtml, subject));
+        digest.setSubject("Your Krashi Events updates (" + count + ")");
+        digest.setDigestCount(count);
+        // A full digest closes so the next mail opens a fresh one.
+        digest.setDigest(count < digestMaxMessages);
+        emailOutboxRepository.saveAndFlush(digest);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    public void dispatchPending() {
+        // While the relay circuit is open, rows stay parked as PENDING instead of burning retries.
+        if (!mailTransport.isAvailable()) {
+            return;
+        }
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            deliver(batch);
+        } while (batch.size() == batchSize && mailTransport.isAvailable());
+    }
+
+    // Rows are moved to SENDING with a lease so other nodes skip them while SMTP runs outside
+    // the transaction; a crashed node's rows become due again once the lease lapses.
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.lockDueMessages(now, batchSize);
+            for (EmailOutbox message : due) {
+                message.setStatus(STATUS_SENDING);
+                message.setDigest(false);
+                message.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return due;
+        });
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<ChunkOutcome>> results = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += transportBatchSize) {
+            List<EmailOutbox> chunk = batch.subList(from, Math.min(batch.size(), from + transportBatchSize));
+            throttle(chunk.size());
+            results.add(sendChunk(chunk));
+        }
+
+        Map<EmailOutbox, String> failures = new HashMap<>();
+        Set<EmailOutbox> parked = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CompletableFuture<ChunkOutcome> result : results) {
+            ChunkOutcome outcome = result.join();
+            failures.putAll(outcome.failures());
+            parked.addAll(outcome.parked());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime parkedUntil = now.plus(Math.max(1000, mailTransport.retryAfterMillis()), ChronoUnit.MILLIS);
+        int dead = 0;
+        for (EmailOutbox message : batch) {
+            String error = failures.get(message);
+            if (parked.contains(message)) {
+                message.setStatus(STATUS_PENDING);
+                message.setNextAttemptAt(parkedUntil);
+            } else if (error == null) {
+                message.setStatus(STATUS_SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+            } else if (markFailed(message, error, now)) {
+                dead++;
+            }
+        }
+        emailOutboxRepository.saveAll(batch);
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        int sent = batch.size() - failures.size() - parked.size();
+        double perSecond = sent * 1_000_000_000d / Math.max(elapsedNanos, 1);
+        batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        sentCounter.increment(sent);
+        failedCounter.increment(failures.size());
+        deadCounter.increment(dead);
+        parkedCounter.increment(parked.size());
+        throughputSummary.record(perSecond);
+        log.info("Email outbox batch: {} sent, {} failed, {} dead, {} parked in {} ms ({} msg/s)",
+                sent, failures.size(), dead, parked.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.1f", perSecond));
+    }
+
+    // One send(MimeMessage...) call per chunk: JavaMailSenderImpl opens a single SMTP
+    // connection for the whole array instead of a connect/TLS/auth handshake per message.
+    private CompletableFuture<ChunkOutcome> sendChunk(List<EmailOutbox> chunk) {
+        Map<EmailOutbox, String> failures = new HashMap<>();
+        Map<MimeMessage, EmailOutbox> byMimeMessage = new IdentityHashMap<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>(chunk.size());
+        for (EmailOutbox message : chunk) {
+            try {
+                MimeMessage mimeMessage = toMimeMessage(message);
+                mimeMessages.add(mimeMessage);
+                byMimeMessage.put(mimeMessage, message);
+            } catch (MessagingException e) {
+                failures.put(message, describe(e));
+            }
+        }
+        if (mimeMessages.isEmpty()) {
+            return CompletableFuture.completedFuture(new ChunkOutcome(failures, List.of()));
+        }
+
+        return mailTransport.sendAsync(mimeMessages.toArray(new MimeMessage[0])).handle((ignored, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof MailTransportUnavailableException) {
+                return new ChunkOutcome(failures, List.copyOf(byMimeMessage.values()));
+            }
+            if (cause instanceof MailSendException sendException && !sendException.getFailedMessages().isEmpty()) {
+                sendException.getFailedMessages().forEach((mimeMessage, failure) -> {
+                    EmailOutbox message = byMimeMessage.get(mimeMessage);
+                    if (message != null) {
+                        failures.put(message, describe(failure));
+                    }
+                });
+            } else if (cause != null) {
+                byMimeMessage.values().forEach(message -> failures.put(message, describe(cause)));
+            }
+            return new ChunkOutcome(failures, List.of());
+        });
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox message) throws MessagingException {
+        MimeMessage mimeMessage = mailTransport.createMimeMessage();
+        boolean multipart = message.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, multipart, "UTF-8");
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        if (multipart) {
+            helper.setText(message.getBody(), message.getHtmlBody());
+        } else {
+            helper.setText(message.getBody());
+        }
+        return mimeMessage;
+    }
+
+    private void throttle(int permits) {
+        if (maxPerSecond <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (throttleLock) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextPermitNanos);
+            nextPermitNanos = start + permits * 1_000_000_000L / maxPerSecond;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    private boolean markFailed(EmailOutbox message, String error, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= maxAttempts) {
+            message.setStatus(STATUS_DEAD);
+            log.error("Email {} to {} moved to dead letter after {} attempts: {}",
+                    message.getId(), message.getRecipient(), attempts, error);
+            return true;
+        }
+        long delay = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(attempts - 1, 20));
+        message.setStatus(STATUS_PENDING);
+        message.setNextAttemptAt(now.plusSeconds(delay));
+        log.warn("Email {} to {} failed (attempt {}), retrying in {}s: {}",
+                message.getId(), message.getRecipient(), attempts, delay, error);
+        return false;
+    }
+
+    private String describe(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private record ChunkOutcome(Map<EmailOutbox, String> failures, List<EmailOutbox> parked) {
+    }
+}
@@ -1,11 +1,13 @@
 package krashi.server.service.serviceImpl;
 
 import krashi.server.exception.EmailSendingException;
+import krashi.server.exception.MailTransportUnavailableException;
 import krashi.server.service.EmailService;
+import krashi.server.service.MailTransport;
+import krashi.server.util.NotificationTemplates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,7 +15,7 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class EmailServiceImpl implements EmailService {
     
-    private final JavaMailSender mailSender;
+    private final MailTransport mailTransport;
     
     @Override
     public void sendOtpEmail(String toEmail, String otp) {
@@ -23,8 +25,11 @@ public class EmailServiceImpl implements EmailService {
             message.setSubject("Password Reset OTP - Krashi Event Booking");
             message.setText(buildOtpEmailContent(otp));
             
-            mailSender.send(message);
+            mailTransport.send(message);
             log.info("OTP email sent successfully to: {}", toEmail);
+        } catch (MailTransportUnavailableException e) {
+            log.warn("OTP email to {} not sent, mail relay unavailable", toEmail);
+            throw e;
         } catch (Exception e) {
             log.error("Failed to send OTP email to: {}", toEmail, e);
             throw new EmailSendingException("Failed to send OTP email. Please try again later.");
@@ -32,15 +37,6 @@ public class EmailServiceImpl implements EmailService {
     }
     
     private String buildOtpEmailContent(String otp) {
-        return String.format(
-            "Dear User,\n\n" +
-            "You have requested to reset your password for Krashi Event Booking.\n\n" +
-            "Your OTP is: %s\n\n" +
-            "This OTP is valid for 5 minutes only. Please do not share this OTP with anyone.\n\n" +
-            "If you did not request this password reset, please ignore this email.\n\n" +
-            "Best regards,\n" +
-            "Krashi Event Booking Team",
-            otp
-        );
+        return NotificationTemplates.PASSWORD_RESET_OTP.renderText(otp);
     }
 }
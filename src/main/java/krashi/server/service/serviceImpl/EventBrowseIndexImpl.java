@@ -0,0 +1,319 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import krashi.server.dto.EventBrowseRequestDto;
+import krashi.server.dto.EventBrowseResultDto;
+import krashi.server.dto.EventResponseDto;
+import krashi.server.exception.BadRequestException;
+import krashi.server.mapping.EventToDto;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.projection.EventView;
+import krashi.server.service.EventBrowseIndex;
+import krashi.server.util.EventCursor;
+import krashi.server.util.TextTokens;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Faceted browsing over upcoming published events from an immutable in-memory snapshot. Events
+ * are laid out in (dateTime, id) order, so a date range is a contiguous run of positions, and
+ * each category, location token, price bucket and the has-seats flag is a BitSet over those
+ * positions. Filters and facet counts are bitwise ANDs and cardinalities; only the rows on the
+ * returned page are read from Postgres, by id. The snapshot is rebuilt from the narrow
+ * idx_event_browse rows when an admin change arrives on the catalog channel, and every
+ * refresh-ms so that seat availability stays close to current.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventBrowseIndexImpl implements EventBrowseIndex {
+
+    // Upper bounds of the paid price buckets; free events get a bucket of their own.
+    private static final double[] PRICE_EDGES = {500, 1000, 2500, 5000};
+    private static final String[] PRICE_BUCKETS = {"0", "0-500", "500-1000", "1000-2500", "2500-5000", "5000+"};
+
+    private final EventRepository eventRepository;
+
+    @Value("${event.browse.refresh-ms:30000}")
+    private long refreshMillis;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+    private volatile boolean dirty = true;
+    private volatile long builtAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        refreshIfStale();
+    }
+
+    @Override
+    public EventBrowseResultDto browse(EventBrowseRequestDto request) {
+        LocalDateTime from = parseDate(request.getFrom(), "from");
+        LocalDateTime to = parseDate(request.getTo(), "to");
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        Double minPrice = request.getMinPrice();
+        Double maxPrice = request.getMaxPrice();
+        if ((minPrice != null && minPrice < 0) || (maxPrice != null && maxPrice < 0)) {
+            throw new BadRequestException("Price filters must not be negative");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        EventCursor after = EventCursor.decode(request.getCursor());
+        int pageSize = EventCursor.pageSize(request.getSize());
+
+        Snapshot snap = snapshot;
+
+        // Events that have started since the snapshot was built are skipped.
+        LocalDateTime now = LocalDateTime.now();
+        int lo = snap.firstAfter(from != null && from.isAfter(now) ? from.minusNanos(1) : now, Long.MAX_VALUE);
+        int hi = to != null ? snap.firstAfter(to.plusDays(1).minusNanos(1), Long.MAX_VALUE) : snap.size;
+
+        BitSet base = new BitSet(snap.size);
+        if (lo < hi) {
+            base.set(lo, hi);
+        }
+        for (String token : TextTokens.tokenize(request.getLocation())) {
+            BitSet bits = snap.byLocationToken.get(token);
+            if (bits == null) {
+                base.clear();
+                break;
+            }
+            base.and(bits);
+        }
+        if (Boolean.TRUE.equals(request.getHasSeats())) {
+            base.and(snap.withSeats);
+        }
+
+        BitSet categoryMask = null;
+        if (request.getCategory() != null && !request.getCategory().isBlank()) {
+            categoryMask = snap.byCategory.getOrDefault(request.getCategory().trim().toUpperCase(Locale.ROOT), new BitSet());
+        }
+        BitSet priceMask = minPrice != null || maxPrice != null
+                ? snap.priceMask(minPrice != null ? minPrice : 0, maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY)
+                : null;
+
+        BitSet basePriced = and(base, priceMask);
+        BitSet baseCategorized = and(base, categoryMask);
+        BitSet matches = and(basePriced, categoryMask);
+
+        Map<String, Integer> categoryFacets = new LinkedHashMap<>();
+        snap.byCategory.forEach((category, bits) -> categoryFacets.put(category, countBoth(basePriced, bits)));
+        Map<String, Integer> priceFacets = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < PRICE_BUCKETS.length; bucket++) {
+            priceFacets.put(PRICE_BUCKETS[bucket], countBoth(baseCategorized, snap.byPriceBucket[bucket]));
+        }
+
+        int start = after != null ? snap.firstAfter(after.dateTime(), after.id()) : 0;
+        List<Long> pageIds = new ArrayList<>(pageSize + 1);
+        for (int pos = matches.nextSetBit(start); pos >= 0 && pageIds.size() <= pageSize; pos = matches.nextSetBit(pos + 1)) {
+            pageIds.add(snap.eventIds[pos]);
+        }
+        boolean hasMore = pageIds.size() > pageSize;
+        if (hasMore) {
+            pageIds = pageIds.subList(0, pageSize);
+        }
+
+        List<EventResponseDto> items = new ArrayList<>(pageIds.size());
+        if (!pageIds.isEmpty()) {
+            Map<Long, EventView> views = eventRepository.findViewsByIds(pageIds).stream()
+                    .collect(Collectors.toMap(EventView::getId, Function.identity()));
+            for (Long id : pageIds) {
+                EventView view = views.get(id);
+                if (view != null) {
+                    items.add(EventToDto.mapToResponseDto(view));
+                }
+            }
+        }
+
+        EventBrowseResultDto result = new EventBrowseResultDto();
+        result.setItems(items);
+        result.setHasMore(hasMore);
+        if (hasMore) {
+            int last = snap.positionOf(pageIds.get(pageIds.size() - 1));
+            result.setNextCursor(new EventCursor(snap.dateTimes[last], snap.eventIds[last]).encode());
+        }
+        result.setTotal(matches.cardinality());
+        result.setCategoryFacets(categoryFacets);
+        result.setPriceFacets(priceFacets);
+        return result;
+    }
+
+    @Override
+    public void markDirty() {
+        dirty = true;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${event.browse.check-interval-ms:1000}")
+    public void refreshIfStale() {
+        if (!dirty && System.currentTimeMillis() - builtAt < refreshMillis) {
+            return;
+        }
+        dirty = false;
+        try {
+            snapshot = Snapshot.build(eventRepository.findBrowseRows(LocalDateTime.now()));
+            builtAt = System.currentTimeMillis();
+        } catch (Exception e) {
+            dirty = true;
+            log.error("Failed to rebuild event browse index. Error: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime parseDate(String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim()).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("'" + name + "' must be a date in yyyy-MM-dd format");
+        }
+    }
+
+    private static BitSet and(BitSet bits, BitSet mask) {
+        if (mask == null) {
+            return bits;
+        }
+        BitSet result = (BitSet) bits.clone();
+        result.and(mask);
+        return result;
+    }
+
+    private static int countBoth(BitSet a, BitSet b) {
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    private static int priceBucket(double price) {
+        if (price <= 0) {
+            return 0;
+        }
+        for (int i = 0; i < PRICE_EDGES.length; i++) {
+            if (price < PRICE_EDGES[i]) {
+                return i + 1;
+            }
+        }
+        return PRICE_EDGES.length + 1;
+    }
+
+    private static final class Snapshot {
+        final int size;
+        final long[] eventIds;
+        final LocalDateTime[] dateTimes;
+        final double[] prices;
+        final BitSet withSeats;
+        final Map<String, BitSet> byCategory;
+        final Map<String, BitSet> byLocationToken;
+        final BitSet[] byPriceBucket;
+        final Map<Long, Integer> positions;
+
+        private Snapshot(int size) {
+            this.size = size;
+            eventIds = new long[size];
+            dateTimes = new LocalDateTime[size];
+            prices = new double[size];
+            withSeats = new BitSet(size);
+            byCategory = new TreeMap<>();
+            byLocationToken = new HashMap<>();
+            byPriceBucket = new BitSet[PRICE_BUCKETS.length];
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                byPriceBucket[i] = new BitSet(size);
+            }
+            positions = new HashMap<>(size * 2);
+        }
+
+        // Rows come ordered by (dateTime, id): id, dateTime, category, location, price, availableSeats.
+        static Snapshot build(List<Object[]> rows) {
+            Snapshot snap = new Snapshot(rows.size());
+            for (int pos = 0; pos < rows.size(); pos++) {
+                Object[] row = rows.get(pos);
+                long id = ((Number) row[0]).longValue();
+                snap.eventIds[pos] = id;
+                snap.dateTimes[pos] = (LocalDateTime) row[1];
+                snap.positions.put(id, pos);
+                if (row[2] != null) {
+                    snap.byCategory.computeIfAbsent(((String) row[2]).toUpperCase(Locale.ROOT), key -> new BitSet()).set(pos);
+                }
+                for (String token : TextTokens.tokenize((String) row[3])) {
+                    snap.byLocationToken.computeIfAbsent(token, key -> new BitSet()).set(pos);
+                }
+                double price = ((Number) row[4]).doubleValue();
+                snap.prices[pos] = price;
+                snap.byPriceBucket[priceBucket(price)].set(pos);
+                if (((Number) row[5]).intValue() > 0) {
+                    snap.withSeats.set(pos);
+                }
+            }
+            return snap;
+        }
+
+        // First position ordered strictly after (dateTime, id).
+        int firstAfter(LocalDateTime dateTime, long id) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = dateTimes[mid].compareTo(dateTime);
+                if (cmp < 0 || (cmp == 0 && eventIds[mid] <= id)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        int positionOf(long eventId) {
+            return positions.get(eventId);
+        }
+
+        // Whole buckets inside [min, max] are taken as they are; only boundary buckets check prices.
+        BitSet priceMask(double min, double max) {
+            BitSet mask = new BitSet(size);
+            for (int bucket = 0; bucket < byPriceBucket.length; bucket++) {
+                double bucketMin = bucket == 0 ? 0 : (bucket == 1 ? 0 : PRICE_EDGES[bucket - 2]);
+                double bucketMax = bucket == 0 ? 0 : (bucket <= PRICE_EDGES.length ? PRICE_EDGES[bucket - 1] : Double.POSITIVE_INFINITY);
+                boolean inside = bucket == 0
+                        ? min <= 0 && max >= 0
+                        : bucketMin >= min && bucketMax <= max;
+                if (inside) {
+                    mask.or(byPriceBucket[bucket]);
+                    continue;
+                }
+                if (bucketMax < min || bucketMin > max) {
+                    continue;
+                }
+                BitSet bits = byPriceBucket[bucket];
+                for (int pos = bits.nextSetBit(0); pos >= 0; pos = bits.nextSetBit(pos + 1)) {
+                    if (prices[pos] >= min && prices[pos] <= max) {
+                        mask.set(pos);
+                    }
+                }
+            }
+            return mask;
+        }
+    }
+}
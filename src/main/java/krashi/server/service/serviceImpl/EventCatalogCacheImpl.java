@@ -0,0 +1,229 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import krashi.server.dto.CursorPageDto;
+import krashi.server.dto.EventResponseDto;
+import krashi.server.mapping.EventToDto;
+import krashi.server.repository.EventRepository;
+import krashi.server.service.EventBrowseIndex;
+import krashi.server.service.EventCatalogCache;
+import krashi.server.service.EventDetailCache;
+import krashi.server.service.EventSuggestIndex;
+import krashi.server.util.EventCursor;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Two-tier cache for the public catalog lists. L1 is a short-lived Caffeine cache per node,
+ * which also collapses concurrent misses for a key into one load. L2 is Redis, shared by all
+ * nodes and stored with the binary EventPageSerializer. L2 keys carry a generation number; an
+ * admin change bumps the generation and broadcasts the event id on a pub/sub channel, so every
+ * node drops its L1 and stops reading the old keys, which then age out. On an L2 miss one node
+ * takes a short Redis lock and loads from Postgres while the others wait for its result.
+ * Only first pages are cached; later pages are a keyset seek on the (date_time, id) indexes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventCatalogCacheImpl implements EventCatalogCache, MessageListener {
+
+    private static final String CHANNEL = "catalog:invalidate";
+    private static final String GENERATION_KEY = "catalog:generation";
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0",
+            Long.class);
+
+    private final EventRepository eventRepository;
+    private final EventDetailCache eventDetailCache;
+    private final EventSuggestIndex eventSuggestIndex;
+    private final EventBrowseIndex eventBrowseIndex;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisTemplate<String, CursorPageDto<EventResponseDto>> catalogRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${catalog.cache.local-ttl-seconds:10}")
+    private long localTtlSeconds;
+
+    @Value("${catalog.cache.local-max-size:1000}")
+    private long localMaxSize;
+
+    @Value("${catalog.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${catalog.cache.lock-ms:5000}")
+    private long lockMillis;
+
+    @Value("${catalog.cache.lock-wait-ms:2000}")
+    private long lockWaitMillis;
+
+    private Cache<String, CursorPageDto<EventResponseDto>> local;
+    private Counter sharedHits;
+    private Counter sharedMisses;
+
+    @PostConstruct
+    public void start() {
+        local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "event.catalog.local");
+        sharedHits = meterRegistry.counter("event.catalog.shared", "result", "hit");
+        sharedMisses = meterRegistry.counter("event.catalog.shared", "result", "miss");
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    // Upcoming pages never start before now, whatever the cursor says.
+    @Override
+    public CursorPageDto<EventResponseDto> getUpcomingEvents(EventCursor cursor, int size) {
+        return get("upcoming", cursor, size, () -> {
+            EventCursor now = new EventCursor(LocalDateTime.now(), Long.MAX_VALUE);
+            EventCursor after = cursor != null && cursor.dateTime().isAfter(now.dateTime()) ? cursor : now;
+            return EventToDto.mapToResponsePage(eventRepository.findPageByStatusAfter(
+                    "PUBLISHED", after.dateTime(), after.id(), PageRequest.of(0, size + 1)), size);
+        });
+    }
+
+    @Override
+    public CursorPageDto<EventResponseDto> getPublishedEvents(EventCursor cursor, int size) {
+        return get("published", cursor, size, () -> {
+            EventCursor after = cursor != null ? cursor : EventCursor.FIRST;
+            return EventToDto.mapToResponsePage(eventRepository.findPageByStatusAfter(
+                    "PUBLISHED", after.dateTime(), after.id(), PageRequest.of(0, size + 1)), size);
+        });
+    }
+
+    @Override
+    public CursorPageDto<EventResponseDto> getEventsByCategory(String category, EventCursor cursor, int size) {
+        return get("category:" + category, cursor, size, () -> {
+            EventCursor after = cursor != null ? cursor : EventCursor.FIRST;
+            return EventToDto.mapToResponsePage(eventRepository.findPageByCategoryAndStatusAfter(
+                    category, "PUBLISHED", after.dateTime(), after.id(), PageRequest.of(0, size + 1)), size);
+        });
+    }
+
+    @Override
+    public void invalidate(Long eventId) {
+        TransactionHooks.afterCommit(() -> {
+            local.invalidateAll();
+            eventBrowseIndex.markDirty();
+            try {
+                redisTemplate.opsForValue().increment(GENERATION_KEY);
+                redisTemplate.convertAndSend(CHANNEL, String.valueOf(eventId));
+            } catch (Exception e) {
+                log.error("Failed to broadcast catalog invalidation for event {}. Error: {}", eventId, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        local.invalidateAll();
+        eventBrowseIndex.markDirty();
+        try {
+            Long eventId = Long.valueOf(new String(message.getBody()));
+            eventDetailCache.invalidate(eventId);
+            eventSuggestIndex.refresh(eventId);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed catalog invalidation message");
+        }
+    }
+
+    private CursorPageDto<EventResponseDto> get(String name, EventCursor cursor, int size,
+                                                Supplier<CursorPageDto<EventResponseDto>> loader) {
+        if (cursor != null) {
+            return loader.get();
+        }
+        return local.get(name + ":" + size, key -> loadShared(key, loader));
+    }
+
+    // Any Redis failure degrades to reading Postgres directly rather than failing the request.
+    private CursorPageDto<EventResponseDto> loadShared(String name, Supplier<CursorPageDto<EventResponseDto>> loader) {
+        String key;
+        try {
+            String generation = redisTemplate.opsForValue().get(GENERATION_KEY);
+            key = "catalog:" + (generation != null ? generation : "0") + ":" + name;
+            CursorPageDto<EventResponseDto> cached = catalogRedisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                sharedHits.increment();
+                return cached;
+            }
+        } catch (Exception e) {
+            log.error("Failed to read catalog {} from Redis. Error: {}", name, e.getMessage());
+            return loader.get();
+        }
+        sharedMisses.increment();
+
+        String lockKey = key + ":lock";
+        boolean locked;
+        try {
+            locked = Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, nodeId, Duration.ofMillis(lockMillis)));
+        } catch (Exception e) {
+            log.error("Failed to lock catalog {} in Redis. Error: {}", name, e.getMessage());
+            return loader.get();
+        }
+
+        if (locked) {
+            try {
+                CursorPageDto<EventResponseDto> loaded = loader.get();
+                try {
+                    catalogRedisTemplate.opsForValue().set(key, loaded, Duration.ofSeconds(ttlSeconds));
+                    redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), nodeId);
+                } catch (Exception e) {
+                    log.error("Failed to store catalog {} in Redis. Error: {}", name, e.getMessage());
+                }
+                return loaded;
+            } catch (RuntimeException e) {
+                redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), nodeId);
+                throw e;
+            }
+        }
+
+        // Another node is loading this key; wait for its result before falling back to Postgres.
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lockWaitMillis);
+        try {
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                CursorPageDto<EventResponseDto> cached = catalogRedisTemplate.opsForValue().get(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to read catalog {} from Redis. Error: {}", name, e.getMessage());
+        }
+        return loader.get();
+    }
+}
@@ -0,0 +1,189 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import krashi.server.dto.UserEventDetailDto;
+import krashi.server.entity.Event;
+import krashi.server.repository.EventFeedbackRepository;
+import krashi.server.repository.EventRepository;
+import krashi.server.service.EventDetailCache;
+import krashi.server.service.SeatInventoryService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Caches the assembled public event detail in two parts. The descriptive part (event fields,
+ * rating, recent feedback) lives for ttl-seconds and is dropped when an admin edits the event
+ * or feedback is submitted. Seat and waitlist counts are a separate, much shorter-lived entry
+ * that bookings and cancellations drop, and are laid over a copy of the cached detail.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventDetailCacheImpl implements EventDetailCache {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final EventRepository eventRepository;
+    private final EventFeedbackRepository eventFeedbackRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final WaitlistCache waitlistCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${event.details.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${event.details.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${event.details.cache.seat-ttl-seconds:5}")
+    private long seatTtlSeconds;
+
+    private Cache<Long, CachedDetails> details;
+    private Cache<Long, SeatSnapshot> seats;
+
+    private record CachedDetails(Event event, UserEventDetailDto details) {
+    }
+
+    private record SeatSnapshot(int availableSeats, int waitlistCount) {
+    }
+
+    @PostConstruct
+    public void start() {
+        details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        seats = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(seatTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "event.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, seats, "event.details.seats");
+    }
+
+    // Null when the event does not exist or is not published; misses are not cached.
+    @Override
+    public UserEventDetailDto getEventDetails(Long eventId) {
+        CachedDetails cached = details.get(eventId, this::load);
+        if (cached == null) {
+            return null;
+        }
+        SeatSnapshot snapshot = seats.get(eventId, id -> new SeatSnapshot(
+                seatInventoryService.getAvailableSeats(cached.event()), waitlistCache.waitingCount(id)));
+        return withSeats(cached.details(), snapshot);
+    }
+
+    @Override
+    public void invalidate(Long eventId) {
+        TransactionHooks.afterCommit(() -> {
+            details.invalidate(eventId);
+            seats.invalidate(eventId);
+        });
+    }
+
+    @Override
+    public void seatsChanged(Long eventId) {
+        TransactionHooks.afterCommit(() -> seats.invalidate(eventId));
+    }
+
+    private CachedDetails load(Long eventId) {
+        Event event = eventRepository.findById(eventId).orElse(null);
+        if (event == null || !"PUBLISHED".equals(event.getStatus())) {
+            return null;
+        }
+
+        UserEventDetailDto details = new UserEventDetailDto();
+
+        details.setId(event.getId());
+        details.setTitle(event.getTitle());
+        details.setDescription(event.getDescription());
+
+        if (event.getDateTime() != null) {
+            details.setDate(event.getDateTime().toLocalDate().format(DATE_FORMATTER));
+            details.setTime(event.getDateTime().toLocalTime().format(TIME_FORMATTER));
+        }
+
+        if (event.getEndDateTime() != null) {
+            details.setEndDate(event.getEndDateTime().toLocalDate().format(DATE_FORMATTER));
+            details.setEndTime(event.getEndDateTime().toLocalTime().format(TIME_FORMATTER));
+        }
+
+        details.setLocation(event.getLocation());
+        details.setTotalSeats(event.getTotalSeats());
+        details.setCategory(event.getCategory());
+        details.setImageUrl(event.getImageUrl());
+        details.setPrice(event.getPrice());
+        details.setOrganizerName(event.getOrganizerName());
+        details.setOrganizerEmail(event.getOrganizerEmail());
+        details.setStatus(event.getStatus());
+
+        Double averageRating = eventFeedbackRepository.getAverageRatingByEventId(eventId);
+
+        details.setAverageRating(averageRating != null ? averageRating : 0.0);
+        details.setTotalFeedbacks((int) eventFeedbackRepository.countByEvent_Id(eventId));
+
+        List<UserEventDetailDto.PublicFeedbackDto> recentFeedbacks = eventFeedbackRepository
+                .findRecentViewsByEventId(eventId, PageRequest.of(0, 5))
+                .stream()
+                .map(f -> {
+                    UserEventDetailDto.PublicFeedbackDto dto = new UserEventDetailDto.PublicFeedbackDto();
+                    dto.setUserName(f.getUserName());
+                    dto.setRating(f.getRating());
+                    dto.setComment(f.getComment());
+                    dto.setWouldRecommend(f.isWouldRecommend());
+                    dto.setSubmittedAt(f.getSubmittedAt());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        details.setRecentFeedbacks(recentFeedbacks);
+
+        return new CachedDetails(event, details);
+    }
+
+    // The cached DTO is shared between requests, so seat figures go on a fresh copy.
+    private static UserEventDetailDto withSeats(UserEventDetailDto cached, SeatSnapshot snapshot) {
+        UserEventDetailDto details = new UserEventDetailDto();
+        details.setId(cached.getId());
+        details.setTitle(cached.getTitle());
+        details.setDescription(cached.getDescription());
+        details.setDate(cached.getDate());
+        details.setTime(cached.getTime());
+        details.setEndDate(cached.getEndDate());
+        details.setEndTime(cached.getEndTime());
+        details.setLocation(cached.getLocation());
+        details.setTotalSeats(cached.getTotalSeats());
+        details.setCategory(cached.getCategory());
+        details.setImageUrl(cached.getImageUrl());
+        details.setPrice(cached.getPrice());
+        details.setOrganizerName(cached.getOrganizerName());
+        details.setOrganizerEmail(cached.getOrganizerEmail());
+        details.setStatus(cached.getStatus());
+        details.setAverageRating(cached.getAverageRating());
+        details.setTotalFeedbacks(cached.getTotalFeedbacks());
+        details.setRecentFeedbacks(cached.getRecentFeedbacks());
+
+        details.setAvailableSeats(snapshot.availableSeats());
+        details.setBookedSeats(cached.getTotalSeats() - snapshot.availableSeats());
+        details.setAvailable(snapshot.availableSeats() > 0);
+        details.setWaitlistCount(snapshot.waitlistCount());
+        details.setHasWaitlist(snapshot.waitlistCount() > 0);
+        return details;
+    }
+}
@@ -0,0 +1,190 @@
+package krashi.server.service.serviceImpl;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import krashi.server.dto.CursorPageDto;
+import krashi.server.dto.EventSearchResultDto;
+import krashi.server.exception.BadRequestException;
+import krashi.server.exception.ServiceBusyException;
+import krashi.server.repository.EventRepository;
+import krashi.server.service.EventSearchService;
+import krashi.server.util.EventCursor;
+import krashi.server.util.SearchCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Event search on Postgres full-text search. search_vector is a stored generated column
+ * (title A, organizer B, location C, description D), so Postgres keeps it current on every
+ * write, and a GIN index serves the @@ match. When a first page finds nothing, the query falls
+ * back to trigram word similarity on the title, which tolerates typos. Both orders are keyset
+ * paged on (rank DESC, id). Search answers 503 while the search_vector column is missing, and the
+ * fuzzy fallback is skipped while pg_trgm is not installed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventSearchServiceImpl implements EventSearchService {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    // Idempotent; Hibernate manages the rest of the table and leaves these alone.
+    private static final List<String> SCHEMA = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "ALTER TABLE event ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+            "setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+            "setweight(to_tsvector('english', coalesce(organizer_name, '')), 'B') || " +
+            "setweight(to_tsvector('english', coalesce(location, '')), 'C') || " +
+            "setweight(to_tsvector('english', coalesce(description, '')), 'D')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_event_search_vector ON event USING GIN (search_vector)",
+            "CREATE INDEX IF NOT EXISTS idx_event_title_trgm ON event USING GIN (title gin_trgm_ops)");
+
+    private final EventRepository eventRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${event.search.schema-init:true}")
+    private boolean schemaInit;
+
+    @Value("${event.search.fuzzy-threshold:0.4}")
+    private String fuzzyThreshold;
+
+    private volatile boolean searchAvailable;
+    private volatile boolean fuzzyAvailable;
+
+    // Each statement runs on its own so that, say, a missing pg_trgm privilege still leaves
+    // full-text search in place. What actually exists afterwards decides what search may use.
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchSchema() {
+        if (schemaInit) {
+            for (String statement : SCHEMA) {
+                try {
+                    jdbcTemplate.execute(statement);
+                } catch (Exception e) {
+                    log.error("Failed to run event search DDL [{}]. Error: {}", statement, e.getMessage());
+                }
+            }
+        }
+        searchAvailable = exists("SELECT count(*) FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = 'event' AND column_name = 'search_vector'");
+        fuzzyAvailable = exists("SELECT count(*) FROM pg_extension WHERE extname = 'pg_trgm'");
+        if (!searchAvailable) {
+            log.error("Column event.search_vector is missing; event search is disabled");
+        } else if (!fuzzyAvailable) {
+            log.warn("Extension pg_trgm is missing; event search runs without the fuzzy fallback");
+        }
+    }
+
+    private boolean exists(String countQuery) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(countQuery, Integer.class);
+            return count != null && count > 0;
+        } catch (Exception e) {
+            log.error("Failed to check the event search schema. Error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<EventSearchResultDto> search(String query, String cursor, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (!searchAvailable) {
+            throw new ServiceBusyException("Event search is unavailable");
+        }
+        String text = query.trim();
+        SearchCursor after = SearchCursor.decode(cursor);
+        int pageSize = EventCursor.pageSize(size);
+
+        if (after == null) {
+            List<Object[]> rows = eventRepository.searchFullText(text, Float.MAX_VALUE, 0L, pageSize + 1);
+            if (!rows.isEmpty()) {
+                return toPage(rows, pageSize, false);
+            }
+            return toPage(searchFuzzy(text, new SearchCursor(true, Float.MAX_VALUE, 0L), pageSize), pageSize, true);
+        }
+        if (after.fuzzy()) {
+            return toPage(searchFuzzy(text, after, pageSize), pageSize, true);
+        }
+        return toPage(eventRepository.searchFullText(text, after.rank(), after.id(), pageSize + 1), pageSize, false);
+    }
+
+    private List<Object[]> searchFuzzy(String text, SearchCursor after, int pageSize) {
+        if (!fuzzyAvailable) {
+            return List.of();
+        }
+        eventRepository.setWordSimilarityThreshold(fuzzyThreshold);
+        return eventRepository.searchFuzzy(text, after.rank(), after.id(), pageSize + 1);
+    }
+
+    // Rows are fetched with a limit of size + 1; the extra row only signals that another page exists.
+    private static CursorPageDto<EventSearchResultDto> toPage(List<Object[]> rows, int size, boolean fuzzy) {
+        boolean hasMore = rows.size() > size;
+        List<Object[]> page = hasMore ? rows.subList(0, size) : rows;
+
+        List<EventSearchResultDto> items = page.stream()
+                .map(EventSearchServiceImpl::toResult)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            EventSearchResultDto last = items.get(items.size() - 1);
+            nextCursor = new SearchCursor(fuzzy, last.getScore(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(items, nextCursor, hasMore);
+    }
+
+    private static EventSearchResultDto toResult(Object[] row) {
+        EventSearchResultDto dto = new EventSearchResultDto();
+        dto.setId(((Number) row[0]).longValue());
+        dto.setTitle((String) row[1]);
+
+        // Native queries hand back timestamp columns as java.sql.Timestamp.
+        if (row[2] != null) {
+            LocalDateTime dateTime = ((Timestamp) row[2]).toLocalDateTime();
+            dto.setDate(dateTime.toLocalDate().format(DATE_FORMATTER));
+            dto.setTime(dateTime.toLocalTime().format(TIME_FORMATTER));
+        }
+
+        dto.setLocation((String) row[3]);
+        dto.setCategory((String) row[4]);
+        dto.setPrice(row[5] != null ? ((Number) row[5]).doubleValue() : 0.0);
+        dto.setOrganizerName((String) row[6]);
+        dto.setAvailableSeats(row[7] != null ? ((Number) row[7]).intValue() : 0);
+        dto.setImageUrl((String) row[8]);
+        dto.setScore(((Number) row[9]).floatValue());
+        dto.setTitleHighlight(toHighlightHtml((String) row[10]));
+        dto.setSnippet(toHighlightHtml((String) row[11]));
+        return dto;
+    }
+
+    // ts_headline copies event text verbatim, so the headline is escaped here and only the
+    // sentinel markers it inserted around matched terms become <mark> tags.
+    private static String toHighlightHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(EventRepository.HIGHLIGHT_START, "<mark>")
+                .replace(EventRepository.HIGHLIGHT_STOP, "</mark>");
+    }
+}
@@ -0,0 +1,327 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import krashi.server.dto.EventSuggestionDto;
+import krashi.server.entity.Event;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.projection.EventView;
+import krashi.server.service.EventSuggestIndex;
+import krashi.server.util.LongLongHashMap;
+import krashi.server.util.PrefixTrie;
+import krashi.server.util.TextTokens;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index over upcoming published events for search-as-you-type. Titles,
+ * categories and locations are tokenized into a PrefixTrie; each term's postings are a sorted
+ * int array of dense document ids. Every query token but the last must match a term exactly and
+ * the last is a prefix; on its own it is expanded through the trie to its closest completions.
+ * Documents are added in (dateTime, id) order on a rebuild, so the first matches found are the
+ * soonest events; an edited event is re-added as a new document and its old one is tombstoned.
+ * Admin changes update the index directly, other nodes pick them up from the catalog
+ * invalidation channel, and a periodic rebuild drops past events and tombstones.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventSuggestIndexImpl implements EventSuggestIndex {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int MAX_LIMIT = 20;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final EventRepository eventRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Events changed while a rebuild was reading; replayed onto the new index once it is swapped in.
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private Index index = new Index(16);
+    private volatile boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Override
+    public List<EventSuggestionDto> suggest(String query, int limit) {
+        if (query == null || query.length() > MAX_QUERY_LENGTH) {
+            return List.of();
+        }
+        List<String> tokens = TextTokens.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        lock.readLock().lock();
+        try {
+            return index.search(tokens, max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void eventChanged(Event event) {
+        TransactionHooks.afterCommit(() -> apply(event.getId(), "PUBLISHED".equals(event.getStatus())
+                ? toSuggestion(event.getId(), event.getTitle(), event.getCategory(), event.getLocation(), event.getDateTime())
+                : null));
+    }
+
+    @Override
+    public void eventRemoved(Long eventId) {
+        TransactionHooks.afterCommit(() -> apply(eventId, null));
+    }
+
+    // Reloads one event from Postgres, for changes made on other nodes.
+    @Override
+    public void refresh(Long eventId) {
+        try {
+            EventView event = eventRepository.findViewById(eventId).orElse(null);
+            apply(eventId, event != null && "PUBLISHED".equals(event.getStatus())
+                    ? toSuggestion(event.getId(), event.getTitle(), event.getCategory(), event.getLocation(), event.getDateTime())
+                    : null);
+        } catch (Exception e) {
+            log.error("Failed to refresh suggestions for event {}. Error: {}", eventId, e.getMessage());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${event.suggest.rebuild-interval-ms:600000}",
+               initialDelayString = "${event.suggest.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            Index rebuilt = new Index(1024);
+            LocalDateTime afterDateTime = LocalDateTime.now();
+            long afterId = Long.MAX_VALUE;
+            List<EventView> batch;
+            do {
+                batch = eventRepository.findPageByStatusAfter(
+                        "PUBLISHED", afterDateTime, afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (EventView event : batch) {
+                    EventSuggestionDto suggestion = toSuggestion(event.getId(), event.getTitle(),
+                            event.getCategory(), event.getLocation(), event.getDateTime());
+                    if (suggestion != null) {
+                        rebuilt.add(event.getId(), suggestion);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    EventView last = batch.get(batch.size() - 1);
+                    afterDateTime = last.getDateTime();
+                    afterId = last.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                index = rebuilt;
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            changedDuringRebuild.forEach(this::refresh);
+            log.info("Rebuilt event suggestions: {} events, {} terms", rebuilt.liveCount, rebuilt.trie.termCount());
+        } catch (Exception e) {
+            rebuilding = false;
+            log.error("Failed to rebuild event suggestions. Error: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Long eventId, EventSuggestionDto suggestion) {
+        if (rebuilding) {
+            changedDuringRebuild.add(eventId);
+        }
+        lock.writeLock().lock();
+        try {
+            index.remove(eventId);
+            if (suggestion != null) {
+                index.add(eventId, suggestion);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static EventSuggestionDto toSuggestion(Long id, String title, String category, String location,
+                                                   LocalDateTime dateTime) {
+        if (dateTime == null || dateTime.isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        return new EventSuggestionDto(id, title, category, location, dateTime.toLocalDate().format(DATE_FORMATTER));
+    }
+
+    private static final class Index {
+        final PrefixTrie trie;
+        final LongLongHashMap docByEvent;
+        int[][] postings;
+        int[] postingSizes;
+        String[] terms;
+        EventSuggestionDto[] docs;
+        int[][] docTerms;
+        int docCount;
+        int liveCount;
+
+        Index(int expectedDocs) {
+            trie = new PrefixTrie(expectedDocs * 8);
+            docByEvent = new LongLongHashMap(expectedDocs);
+            postings = new int[expectedDocs][];
+            postingSizes = new int[expectedDocs];
+            terms = new String[expectedDocs];
+            docs = new EventSuggestionDto[expectedDocs];
+            docTerms = new int[expectedDocs][];
+        }
+
+        void add(long eventId, EventSuggestionDto suggestion) {
+            if (docCount == docs.length) {
+                docs = Arrays.copyOf(docs, docCount * 2);
+                docTerms = Arrays.copyOf(docTerms, docCount * 2);
+            }
+            int doc = docCount++;
+            docs[doc] = suggestion;
+            docByEvent.put(eventId, doc);
+            liveCount++;
+
+            List<String> tokens = TextTokens.tokenize(suggestion.getTitle());
+            tokens.addAll(TextTokens.tokenize(suggestion.getCategory()));
+            tokens.addAll(TextTokens.tokenize(suggestion.getLocation()));
+            int[] termIds = new int[tokens.size()];
+            int distinct = 0;
+            for (String token : tokens) {
+                int termId = trie.add(token);
+                if (append(termId, token, doc)) {
+                    termIds[distinct++] = termId;
+                }
+            }
+            docTerms[doc] = Arrays.copyOf(termIds, distinct);
+        }
+
+        void remove(long eventId) {
+            long doc = docByEvent.get(eventId, -1);
+            if (doc >= 0) {
+                docs[(int) doc] = null;
+                docByEvent.remove(eventId);
+                liveCount--;
+            }
+        }
+
+        // Documents only ever get larger ids, so appending keeps each list sorted. Returns false
+        // when the document already has this term.
+        private boolean append(int termId, String term, int doc) {
+            if (termId == postings.length) {
+                postings = Arrays.copyOf(postings, termId * 2);
+                postingSizes = Arrays.copyOf(postingSizes, termId * 2);
+                terms = Arrays.copyOf(terms, termId * 2);
+            }
+            int[] list = postings[termId];
+            int size = postingSizes[termId];
+            if (list == null) {
+                list = postings[termId] = new int[4];
+                terms[termId] = term;
+            } else if (list[size - 1] == doc) {
+                return false;
+            } else if (size == list.length) {
+                list = postings[termId] = Arrays.copyOf(list, size * 2);
+            }
+            list[size] = doc;
+            postingSizes[termId] = size + 1;
+            return true;
+        }
+
+        List<EventSuggestionDto> search(List<String> tokens, int limit) {
+            int exactCount = tokens.size() - 1;
+            int[] exact = new int[exactCount];
+            for (int i = 0; i < exactCount; i++) {
+                exact[i] = trie.get(tokens.get(i));
+                if (exact[i] < 0) {
+                    return List.of();
+                }
+            }
+            String prefix = tokens.get(exactCount);
+            List<EventSuggestionDto> results = new ArrayList<>(limit);
+            if (exactCount > 0) {
+                // Walk the shortest exact list and probe the others.
+                int driver = exact[0];
+                for (int termId : exact) {
+                    if (postingSizes[termId] < postingSizes[driver]) {
+                        driver = termId;
+                    }
+                }
+                int[] list = postings[driver];
+                for (int i = 0; i < postingSizes[driver] && results.size() < limit; i++) {
+                    int doc = list[i];
+                    if (docs[doc] != null && containsAll(exact, doc) && hasTermWithPrefix(doc, prefix)) {
+                        results.add(docs[doc]);
+                    }
+                }
+                return results;
+            }
+
+            // Merge the closest completion lists in document order, stopping once the page is full.
+            int[] expansions = new int[MAX_PREFIX_EXPANSIONS];
+            int expansionCount = trie.collect(prefix, expansions);
+            int[] cursors = new int[expansionCount];
+            int previous = -1;
+            while (results.size() < limit) {
+                int next = Integer.MAX_VALUE;
+                for (int i = 0; i < expansionCount; i++) {
+                    int termId = expansions[i];
+                    while (cursors[i] < postingSizes[termId] && postings[termId][cursors[i]] <= previous) {
+                        cursors[i]++;
+                    }
+                    if (cursors[i] < postingSizes[termId]) {
+                        next = Math.min(next, postings[termId][cursors[i]]);
+                    }
+                }
+                if (next == Integer.MAX_VALUE) {
+                    break;
+                }
+                if (docs[next] != null) {
+                    results.add(docs[next]);
+                }
+                previous = next;
+            }
+            return results;
+        }
+
+        private boolean containsAll(int[] termIds, int doc) {
+            for (int termId : termIds) {
+                if (Arrays.binarySearch(postings[termId], 0, postingSizes[termId], doc) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean hasTermWithPrefix(int doc, String prefix) {
+            for (int termId : docTerms[doc]) {
+                if (terms[termId].startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
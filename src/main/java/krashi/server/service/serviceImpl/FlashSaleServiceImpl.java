@@ -0,0 +1,347 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import krashi.server.entity.Booking;
+import krashi.server.entity.Event;
+import krashi.server.entity.UserInfo;
+import krashi.server.exception.BadRequestException;
+import krashi.server.exception.ResourceNotFoundException;
+import krashi.server.repository.BookingRepository;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.UserInfoRepository;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.WaitlistPromotionWorker;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlashSaleServiceImpl implements FlashSaleService {
+
+    private static final String ACTIVE_EVENTS_KEY = "flash:events";
+
+    private static final long ALREADY_RESERVED = -1;
+    private static final long INSUFFICIENT_SEATS = -2;
+    private static final long INACTIVE = -3;
+
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('SISMEMBER', KEYS[2], ARGV[1]) == 1 then return -1 end " +
+            "local available = tonumber(redis.call('GET', KEYS[1]) or '-1') " +
+            "if available < 0 then return -3 end " +
+            "local seats = tonumber(ARGV[2]) " +
+            "if available < seats then return -2 end " +
+            "redis.call('DECRBY', KEYS[1], seats) " +
+            "redis.call('SADD', KEYS[2], ARGV[1]) " +
+            "redis.call('RPUSH', KEYS[3], ARGV[3]) " +
+            "return available - seats",
+            Long.class);
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local available = tonumber(redis.call('GET', KEYS[1]) or '-1') " +
+            "if available < 0 then return -3 end " +
+            "local seats = tonumber(ARGV[1]) " +
+            "if available < seats then return -2 end " +
+            "return redis.call('DECRBY', KEYS[1], seats)",
+            Long.class);
+
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -3 end " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1])",
+            Long.class);
+
+    // Only marks users while the sale is live, so a disabled sale does not leave a users set behind.
+    private static final RedisScript<Long> ADD_USER_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -3 end " +
+            "return redis.call('SADD', KEYS[2], ARGV[1])",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final EventRepository eventRepository;
+    private final BookingRepository bookingRepository;
+    private final UserInfoRepository userInfoRepository;
+    private final EmailNotificationService emailNotificationService;
+    private final TransactionTemplate transactionTemplate;
+    // The worker reaches this service through seat inventory, so it is resolved lazily.
+    private final ObjectProvider<WaitlistPromotionWorker> waitlistPromotionWorker;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${booking.flash.commit-batch-size:200}")
+    private int commitBatchSize;
+
+    @Value("${booking.flash.commit-lease-ms:10000}")
+    private long commitLeaseMillis;
+
+    @Override
+    public boolean reserve(UserInfo user, Event event, int seats) {
+        String payload = user.getId() + ":" + seats + ":" + System.currentTimeMillis() + ":" + UUID.randomUUID();
+        Long result = redisTemplate.execute(RESERVE_SCRIPT,
+                List.of(seatsKey(event.getId()), usersKey(event.getId()), queueKey(event.getId())),
+                String.valueOf(user.getId()), String.valueOf(seats), payload);
+
+        if (result == null || result == INACTIVE) {
+            throw new BadRequestException("Flash sale booking is temporarily unavailable for this event. Please try again shortly");
+        }
+        if (result == ALREADY_RESERVED) {
+            throw new BadRequestException("You already have a booking for this event");
+        }
+        if (result == INSUFFICIENT_SEATS) {
+            return false;
+        }
+
+        log.info("Flash sale reservation accepted for user {} on event {} - {} seats, {} left",
+                user.getId(), event.getId(), seats, result);
+        return true;
+    }
+
+    @Override
+    public boolean tryAcquire(Long eventId, int seats) {
+        Long result = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(seatsKey(eventId)), String.valueOf(seats));
+        if (result == null || result < 0) {
+            return false;
+        }
+
+        eventRepository.adjustAvailableSeats(eventId, -seats);
+        TransactionHooks.onRollback(() -> redisTemplate.execute(ADJUST_SCRIPT, List.of(seatsKey(eventId)), String.valueOf(seats)));
+        return true;
+    }
+
+    @Override
+    public void release(Long eventId, int seats) {
+        eventRepository.adjustAvailableSeats(eventId, seats);
+        redisTemplate.execute(ADJUST_SCRIPT, List.of(seatsKey(eventId)), String.valueOf(seats));
+        TransactionHooks.onRollback(() -> redisTemplate.execute(ADJUST_SCRIPT, List.of(seatsKey(eventId)), String.valueOf(-seats)));
+    }
+
+    // Bookings made outside reserve() (holds, offers, promotions) still count towards the
+    // one-booking-per-user check in the reserve script.
+    @Override
+    public void bookingAdded(Long eventId, Long userId) {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                redisTemplate.execute(ADD_USER_SCRIPT, List.of(seatsKey(eventId), usersKey(eventId)), String.valueOf(userId));
+            } catch (Exception e) {
+                log.error("Failed to mark user {} as booked for flash sale event {}. Error: {}", userId, eventId, e.getMessage());
+            }
+        });
+    }
+
+    // A cancelled booking lets the user reserve again.
+    @Override
+    public void bookingCancelled(Long eventId, Long userId) {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                redisTemplate.opsForSet().remove(usersKey(eventId), String.valueOf(userId));
+            } catch (Exception e) {
+                log.error("Failed to unmark user {} for flash sale event {}. Error: {}", userId, eventId, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public int getAvailableSeats(Long eventId) {
+        String seats = redisTemplate.opsForValue().get(seatsKey(eventId));
+        if (seats != null) {
+            return Math.max(Integer.parseInt(seats), 0);
+        }
+        Integer availableSeats = eventRepository.findAvailableSeatsById(eventId);
+        return availableSeats != null ? availableSeats : 0;
+    }
+
+    @Override
+    public void enable(Event event) {
+        Integer availableSeats = eventRepository.findAvailableSeatsById(event.getId());
+        if (availableSeats == null) {
+            throw new ResourceNotFoundException("Event", "id", event.getId());
+        }
+
+        redisTemplate.opsForValue().setIfAbsent(seatsKey(event.getId()), String.valueOf(availableSeats));
+        redisTemplate.opsForSet().add(ACTIVE_EVENTS_KEY, String.valueOf(event.getId()));
+        log.info("Flash sale mode enabled for event {} with {} seats", event.getId(), availableSeats);
+    }
+
+    @Override
+    public void disable(Event event) {
+        Long eventId = event.getId();
+        redisTemplate.delete(seatsKey(eventId));
+
+        int attempts = 0;
+        while (hasPendingBookings(eventId)) {
+            if (!commitPendingBookings(eventId) && ++attempts > 50) {
+                throw new BadRequestException("Flash sale bookings are still being committed. Please try again shortly");
+            }
+        }
+
+        redisTemplate.delete(usersKey(eventId));
+        redisTemplate.opsForSet().remove(ACTIVE_EVENTS_KEY, String.valueOf(eventId));
+        log.info("Flash sale mode disabled for event {}", eventId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${booking.flash.commit-interval-ms:200}")
+    public void commitPendingBookings() {
+        Set<String> activeEvents;
+        try {
+            activeEvents = redisTemplate.opsForSet().members(ACTIVE_EVENTS_KEY);
+        } catch (Exception e) {
+            log.error("Failed to read active flash sale events. Error: {}", e.getMessage());
+            return;
+        }
+
+        if (activeEvents == null) {
+            return;
+        }
+        for (String eventId : activeEvents) {
+            commitPendingBookings(Long.valueOf(eventId));
+        }
+    }
+
+    private boolean hasPendingBookings(Long eventId) {
+        Long size = redisTemplate.opsForList().size(queueKey(eventId));
+        return size != null && size > 0;
+    }
+
+    private boolean commitPendingBookings(Long eventId) {
+        String leaseKey = leaseKey(eventId);
+        Boolean leased = redisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, Duration.ofMillis(commitLeaseMillis));
+        if (!Boolean.TRUE.equals(leased)) {
+            return false;
+        }
+
+        try {
+            List<String> batch = redisTemplate.opsForList().range(queueKey(eventId), 0, commitBatchSize - 1);
+            if (batch == null || batch.isEmpty()) {
+                return true;
+            }
+
+            CommittedBatch committed = transactionTemplate.execute(status -> persistBookings(eventId, batch));
+            redisTemplate.opsForList().trim(queueKey(eventId), batch.size(), -1);
+
+            // Rejected reservations never reached the database, so only the Redis counter holds their seats.
+            if (committed.rejectedSeats() > 0) {
+                redisTemplate.execute(ADJUST_SCRIPT, List.of(seatsKey(eventId)), String.valueOf(committed.rejectedSeats()));
+                waitlistPromotionWorker.getObject().seatsReleased(eventId, committed.rejectedSeats());
+            }
+
+            log.info("Committed {} flash sale booking(s) for event {}", committed.bookings().size(), eventId);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to commit flash sale bookings for event {}. Error: {}", eventId, e.getMessage());
+            return false;
+        } finally {
+            redisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(leaseKey), nodeId);
+        }
+    }
+
+    private record CommittedBatch(List<Booking> bookings, int rejectedSeats) {
+    }
+
+    // Payloads are userId:seats:reservedAtMillis:reservationId. A batch whose commit succeeded but
+    // whose trim did not (crash, lost lease) is read again; its reservation ids are already on
+    // bookings, so it is skipped without handing its seats back. Confirmation mails are queued in
+    // the same transaction as the bookings.
+    private CommittedBatch persistBookings(Long eventId, List<String> batch) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
+
+        List<Long> userIds = batch.stream()
+                .map(payload -> Long.valueOf(payload.substring(0, payload.indexOf(':'))))
+                .collect(Collectors.toList());
+        Map<Long, UserInfo> users = userInfoRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(UserInfo::getId, Function.identity()));
+
+        List<String> reservationIds = batch.stream()
+                .map(payload -> payload.split(":"))
+                .filter(parts -> parts.length > 3)
+                .map(parts -> parts[3])
+                .collect(Collectors.toList());
+        Set<String> committed = reservationIds.isEmpty()
+                ? Set.of()
+                : Set.copyOf(bookingRepository.findReservationIdsIn(reservationIds));
+
+        List<Booking> bookings = new ArrayList<>();
+        int seatsTaken = 0;
+        int seatsRejected = 0;
+        for (String payload : batch) {
+            String[] parts = payload.split(":");
+            String reservationId = parts.length > 3 ? parts[3] : null;
+            if (reservationId != null && committed.contains(reservationId)) {
+                log.info("Flash sale reservation {} for event {} was already committed", reservationId, eventId);
+                continue;
+            }
+            UserInfo user = users.get(Long.valueOf(parts[0]));
+            int seats = Integer.parseInt(parts[1]);
+
+            if (user == null || bookingRepository.existsByUserIdAndEventIdAndStatus(user.getId(), eventId, "Confirmed")) {
+                log.warn("Rejecting flash sale reservation {} for event {}", payload, eventId);
+                seatsRejected += seats;
+                continue;
+            }
+
+            Booking booking = new Booking();
+            booking.setUser(user);
+            booking.setEvent(event);
+            booking.setNumberOfSeats(seats);
+            booking.setBookingDateTime(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(Long.parseLong(parts[2])), ZoneId.systemDefault()));
+            booking.setStatus("Confirmed");
+            booking.setReservationId(reservationId);
+            bookings.add(booking);
+            seatsTaken += seats;
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        if (seatsTaken > 0) {
+            eventRepository.adjustAvailableSeats(eventId, -seatsTaken);
+        }
+        for (Booking booking : saved) {
+            emailNotificationService.sendBookingConfirmationEmail(
+                    booking.getUser(), booking.getEvent(), booking.getNumberOfSeats(), booking.getId());
+        }
+        return new CommittedBatch(saved, seatsRejected);
+    }
+
+    private static String seatsKey(Long eventId) {
+        return "flash:{" + eventId + "}:seats";
+    }
+
+    private static String usersKey(Long eventId) {
+        return "flash:{" + eventId + "}:users";
+    }
+
+    private static String queueKey(Long eventId) {
+        return "flash:{" + eventId + "}:queue";
+    }
+
+    private static String leaseKey(Long eventId) {
+        return "flash:{" + eventId + "}:committer";
+    }
+}
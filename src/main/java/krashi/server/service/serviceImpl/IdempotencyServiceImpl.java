@@ -0,0 +1,243 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import krashi.server.exception.AccessDeniedException;
+import krashi.server.exception.BadRequestException;
+import krashi.server.exception.InsufficientSeatsException;
+import krashi.server.exception.ResourceNotFoundException;
+import krashi.server.exception.ServiceBusyException;
+import krashi.server.service.AuthenticationService;
+import krashi.server.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final String KEY_PREFIX = "idem:";
+    private static final String PENDING = "PENDING";
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final Duration PENDING_TTL = Duration.ofSeconds(30);
+    private static final String STILL_PROCESSING = "A request with this Idempotency-Key is still being processed";
+
+    private final StringRedisTemplate redisTemplate;
+    private final AuthenticationService authenticationService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, StoredOutcome> localOutcomes;
+
+    @Value("${booking.idempotency.ttl-hours:24}")
+    private long outcomeTtlHours;
+
+    public IdempotencyServiceImpl(StringRedisTemplate redisTemplate, AuthenticationService authenticationService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${booking.idempotency.local-capacity:10000}") int localCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.authenticationService = authenticationService;
+        this.objectMapper = objectMapper;
+        this.localOutcomes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredOutcome> eldest) {
+                return size() > localCapacity;
+            }
+        };
+    }
+
+    @Override
+    public ResponseEntity<?> execute(String idempotencyKey, String operation, Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = KEY_PREFIX + authenticationService.getCurrentUsername() + ":" + idempotencyKey;
+
+        StoredOutcome local = getLocal(key);
+        if (local != null) {
+            return replay(local, operation);
+        }
+
+        String stored = readRemote(key);
+        if (stored != null) {
+            StoredOutcome remote = StoredOutcome.decode(stored);
+            if (remote.isPending()) {
+                checkOperation(remote, operation);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(STILL_PROCESSING);
+            }
+            putLocal(key, remote);
+            return replay(remote, operation);
+        }
+
+        if (!claimRemote(key, operation)) {
+            return execute(idempotencyKey, operation, action);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (ServiceBusyException e) {
+            // The bus may still run the command after giving up on it, so the claim stays until its
+            // TTL runs out and a retry in the meantime cannot book twice.
+            log.warn("Outcome of {} for {} is unknown, keeping the claim. Error: {}", operation, key, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(STILL_PROCESSING);
+        } catch (RuntimeException e) {
+            Integer status = clientErrorStatus(e);
+            if (status != null) {
+                store(key, new StoredOutcome(operation, status, false, e.getMessage() != null ? e.getMessage() : ""));
+            } else {
+                // Anything else either failed before reaching the bus or rolled the command back.
+                deleteRemote(key);
+            }
+            throw e;
+        }
+
+        StoredOutcome outcome = toOutcome(operation, response);
+        if (outcome != null) {
+            store(key, outcome);
+        } else {
+            deleteRemote(key);
+        }
+        return response;
+    }
+
+    // Rejections that a retry with the same key would get again; server errors are retried instead.
+    private static Integer clientErrorStatus(RuntimeException e) {
+        if (e instanceof BadRequestException) {
+            return HttpStatus.BAD_REQUEST.value();
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return HttpStatus.NOT_FOUND.value();
+        }
+        if (e instanceof AccessDeniedException) {
+            return HttpStatus.FORBIDDEN.value();
+        }
+        if (e instanceof InsufficientSeatsException) {
+            return HttpStatus.CONFLICT.value();
+        }
+        return null;
+    }
+
+    private StoredOutcome toOutcome(String operation, ResponseEntity<?> response) {
+        int status = response.getStatusCode().value();
+        if (status >= 500) {
+            return null;
+        }
+        Object body = response.getBody();
+        if (body == null || body instanceof String) {
+            return new StoredOutcome(operation, status, false, body != null ? (String) body : "");
+        }
+        try {
+            return new StoredOutcome(operation, status, true, objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot store idempotent outcome of {}, releasing the claim. Error: {}", operation, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String key, StoredOutcome outcome) {
+        putLocal(key, outcome);
+        writeRemote(key, outcome);
+    }
+
+    private ResponseEntity<?> replay(StoredOutcome outcome, String operation) {
+        checkOperation(outcome, operation);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(outcome.status()).header("Idempotent-Replayed", "true");
+        if (outcome.json()) {
+            builder.contentType(MediaType.APPLICATION_JSON);
+        }
+        return builder.body(outcome.body());
+    }
+
+    private void checkOperation(StoredOutcome outcome, String operation) {
+        if (!outcome.operation().equals(operation)) {
+            throw new BadRequestException("Idempotency-Key has already been used for a different request");
+        }
+    }
+
+    private StoredOutcome getLocal(String key) {
+        synchronized (localOutcomes) {
+            return localOutcomes.get(key);
+        }
+    }
+
+    private void putLocal(String key, StoredOutcome outcome) {
+        synchronized (localOutcomes) {
+            localOutcomes.put(key, outcome);
+        }
+    }
+
+    private String readRemote(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("Idempotency store unavailable, falling back to local cache. Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean claimRemote(String key, String operation) {
+        try {
+            Boolean claimed = redisTemplate.opsForValue().setIfAbsent(key, operation + "\n" + PENDING, PENDING_TTL);
+            return Boolean.TRUE.equals(claimed);
+        } catch (Exception e) {
+            log.warn("Idempotency store unavailable, processing request without a cross-node claim. Error: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void writeRemote(String key, StoredOutcome outcome) {
+        try {
+            redisTemplate.opsForValue().set(key, outcome.encode(), Duration.ofHours(outcomeTtlHours));
+        } catch (Exception e) {
+            log.warn("Failed to store idempotent outcome for {}. Error: {}", key, e.getMessage());
+        }
+    }
+
+    private void deleteRemote(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.warn("Failed to release idempotency claim for {}. Error: {}", key, e.getMessage());
+        }
+    }
+
+    // Encoded as "operation\nstatus[:json]\nbody"; JSON bodies are replayed verbatim as application/json.
+    private record StoredOutcome(String operation, int status, boolean json, String body) {
+
+        private static final String JSON_SUFFIX = ":json";
+
+        boolean isPending() {
+            return status == 0;
+        }
+
+        String encode() {
+            return operation + "\n" + status + (json ? JSON_SUFFIX : "") + "\n" + body;
+        }
+
+        static StoredOutcome decode(String value) {
+            String[] parts = value.split("\n", 3);
+            if (parts.length < 3) {
+                return new StoredOutcome(parts[0], 0, false, "");
+            }
+            boolean json = parts[1].endsWith(JSON_SUFFIX);
+            String status = json ? parts[1].substring(0, parts[1].length() - JSON_SUFFIX.length()) : parts[1];
+            return new StoredOutcome(parts[0], Integer.parseInt(status), json, parts[2]);
+        }
+    }
+}
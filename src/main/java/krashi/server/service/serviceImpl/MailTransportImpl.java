@@ -0,0 +1,203 @@
+package krashi.server.service.serviceImpl;
+
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import krashi.server.exception.EmailSendingException;
+import krashi.server.exception.MailTransportUnavailableException;
+import krashi.server.service.MailTransport;
+import krashi.server.util.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The only caller of JavaMailSender. Sends run on a small bounded pool (the bulkhead) with
+ * socket and call timeouts, behind a circuit breaker that fails fast while the relay is down.
+ * A send that times out is cancelled, but one already talking to the relay cannot be pulled
+ * back and may still be accepted, so callers that retry get at-least-once delivery.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MailTransportImpl implements MailTransport {
+
+    private final JavaMailSender javaMailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.transport.pool-size:4}")
+    private int poolSize;
+
+    @Value("${notification.transport.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${notification.transport.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${notification.transport.read-timeout-ms:10000}")
+    private int readTimeoutMs;
+
+    @Value("${notification.transport.call-timeout-ms:60000}")
+    private long callTimeoutMs;
+
+    @Value("${notification.transport.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${notification.transport.breaker.open-seconds:30}")
+    private long openSeconds;
+
+    private ThreadPoolExecutor pool;
+    private CircuitBreaker circuitBreaker;
+    private Counter rejectedCounter;
+    private Counter timeoutCounter;
+
+    @PostConstruct
+    public void start() {
+        if (javaMailSender instanceof JavaMailSenderImpl sender) {
+            Properties properties = sender.getJavaMailProperties();
+            properties.putIfAbsent("mail.smtp.connectiontimeout", String.valueOf(connectTimeoutMs));
+            properties.putIfAbsent("mail.smtp.timeout", String.valueOf(readTimeoutMs));
+            properties.putIfAbsent("mail.smtp.writetimeout", String.valueOf(readTimeoutMs));
+        }
+        // A call timeout inside the socket timeouts would give up on sends the relay still accepts.
+        long socketBudgetMs = connectTimeoutMs + 2L * readTimeoutMs;
+        if (callTimeoutMs <= socketBudgetMs) {
+            log.warn("Mail call timeout {}ms is within the socket timeouts, raising it to {}ms",
+                    callTimeoutMs, socketBudgetMs + 1000);
+            callTimeoutMs = socketBudgetMs + 1000;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "mail-transport-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        circuitBreaker = new CircuitBreaker("smtp", failureThreshold, TimeUnit.SECONDS.toMillis(openSeconds));
+
+        rejectedCounter = meterRegistry.counter("mail.transport.rejected");
+        timeoutCounter = meterRegistry.counter("mail.transport.timeouts");
+        Gauge.builder("mail.transport.circuit.open", circuitBreaker,
+                breaker -> breaker.getState() == CircuitBreaker.State.OPEN ? 1 : 0)
+                .register(meterRegistry);
+        Gauge.builder("mail.transport.queue.size", pool, executor -> executor.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return javaMailSender.createMimeMessage();
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(MimeMessage... messages) {
+        return submit(() -> javaMailSender.send(messages), messages.length);
+    }
+
+    @Override
+    public void send(SimpleMailMessage message) {
+        try {
+            submit(() -> javaMailSender.send(message), 1).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmailSendingException("Interrupted while sending email", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof EmailSendingException sendingException) {
+                throw sendingException;
+            }
+            throw new EmailSendingException("Failed to send email: " + cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return circuitBreaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    @Override
+    public long retryAfterMillis() {
+        return circuitBreaker.remainingOpenMillis();
+    }
+
+    private CompletableFuture<Void> submit(Runnable send, int messageCount) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(
+                    new MailTransportUnavailableException("Mail relay is unavailable, try again later"));
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                send.run();
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, null);
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.releasePermission();
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(
+                    new MailTransportUnavailableException("Mail transport is saturated, try again later"));
+        }
+        return future.orTimeout(callTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error instanceof TimeoutException) {
+                        // Still queued: it never runs. Already sending: interrupted, bounded by the socket timeouts.
+                        task.cancel(true);
+                    }
+                    recordOutcome(error, messageCount);
+                });
+    }
+
+    private void recordOutcome(Throwable error, int messageCount) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            circuitBreaker.onSuccess();
+            return;
+        }
+        // Some recipients rejected but the relay answered: that says nothing bad about the relay.
+        if (cause instanceof MailSendException sendException
+                && !sendException.getFailedMessages().isEmpty()
+                && sendException.getFailedMessages().size() < messageCount) {
+            circuitBreaker.onSuccess();
+            return;
+        }
+        if (cause instanceof TimeoutException) {
+            timeoutCounter.increment();
+        }
+        if (circuitBreaker.onFailure()) {
+            log.warn("Mail relay circuit opened for {}s after: {}", openSeconds, cause.toString());
+        }
+    }
+}
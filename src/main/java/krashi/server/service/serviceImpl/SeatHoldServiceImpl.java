@@ -0,0 +1,270 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import krashi.server.dto.SeatHoldDto;
+import krashi.server.entity.Booking;
+import krashi.server.entity.Event;
+import krashi.server.entity.SeatHold;
+import krashi.server.entity.UserInfo;
+import krashi.server.exception.AccessDeniedException;
+import krashi.server.exception.BadRequestException;
+import krashi.server.exception.InsufficientSeatsException;
+import krashi.server.exception.ResourceNotFoundException;
+import krashi.server.repository.BookingRepository;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.SeatHoldRepository;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.AuthenticationService;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.SeatHoldService;
+import krashi.server.service.SeatInventoryService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.service.WaitlistPromotionWorker;
+import krashi.server.util.HierarchicalTimingWheel;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private static final int MAX_SEATS_PER_BOOKING = 5;
+
+    private final EventRepository eventRepository;
+    private final BookingRepository bookingRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final AuthenticationService authenticationService;
+    private final SeatInventoryService seatInventoryService;
+    private final FlashSaleService flashSaleService;
+    private final EmailNotificationService emailNotificationService;
+    private final WaitlistPromotionWorker waitlistPromotionWorker;
+    private final WaitlistCache waitlistCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.hold.ttl-seconds:120}")
+    private long holdTtlSeconds;
+
+    @Value("${booking.hold.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private ExecutorService expiryExecutor;
+    private HierarchicalTimingWheel timingWheel;
+
+    @PostConstruct
+    public void start() {
+        expiryExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "seat-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 100ms ticks: level 0 spans 51 seconds and level 1 about 7 hours, well past any hold TTL.
+        timingWheel = new HierarchicalTimingWheel("seat-hold-wheel", 100, TimeUnit.MILLISECONDS, 512, 2, expiryExecutor);
+    }
+
+    @PreDestroy
+    public void stop() {
+        timingWheel.close();
+        expiryExecutor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOutstandingHolds() {
+        List<SeatHold> holds = seatHoldRepository.findAll();
+        for (SeatHold hold : holds) {
+            scheduleExpiry(hold.getId(), hold.getExpiresAt());
+        }
+        if (!holds.isEmpty()) {
+            log.info("Rescheduled expiry for {} outstanding seat hold(s)", holds.size());
+        }
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<?> holdSeats(Long eventId, int numberOfSeats) {
+        UserInfo user = authenticationService.getCurrentUser();
+
+        if (eventId == null) {
+            throw new BadRequestException("Event ID is required");
+        }
+
+        if (numberOfSeats <= 0 || numberOfSeats > MAX_SEATS_PER_BOOKING) {
+            throw new BadRequestException("Number of seats must be between 1 and " + MAX_SEATS_PER_BOOKING);
+        }
+
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
+
+        if (!"PUBLISHED".equals(event.getStatus())) {
+            throw new BadRequestException("Event is not available for booking");
+        }
+
+        if (bookingRepository.existsByUserIdAndEventIdAndStatus(user.getId(), eventId, "Confirmed")) {
+            throw new BadRequestException("You already have a booking for this event");
+        }
+
+        if (waitlistCache.isMember(eventId, user.getId())) {
+            throw new BadRequestException("You are already on the waitlist for this event");
+        }
+
+        if (seatHoldRepository.existsByUser_IdAndEvent_Id(user.getId(), eventId)) {
+            throw new BadRequestException("You already have seats on hold for this event");
+        }
+
+        if (!seatInventoryService.tryAcquire(event, numberOfSeats)) {
+            throw new InsufficientSeatsException("Not enough seats available to hold. Requested: " + numberOfSeats);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        SeatHold hold = new SeatHold();
+        hold.setUser(user);
+        hold.setEvent(event);
+        hold.setSeats(numberOfSeats);
+        hold.setCreatedAt(now);
+        hold.setExpiresAt(now.plusSeconds(holdTtlSeconds));
+
+        SeatHold savedHold;
+        try {
+            savedHold = seatHoldRepository.save(hold);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request from the same user created its hold after the check above.
+            throw new BadRequestException("You already have seats on hold for this event");
+        }
+        scheduleExpiry(savedHold.getId(), savedHold.getExpiresAt());
+
+        return ResponseEntity.ok(new SeatHoldDto(savedHold.getId(), eventId, numberOfSeats, savedHold.getExpiresAt()));
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<?> confirmHold(Long holdId) {
+        UserInfo user = authenticationService.getCurrentUser();
+        SeatHold hold = findOwnedHold(holdId, user);
+
+        if (hold.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadRequestException("Seat hold has expired");
+        }
+
+        Event event = hold.getEvent();
+        if (!"PUBLISHED".equals(event.getStatus())) {
+            // The exception rolls this transaction back, so the hold is released in a new one.
+            TransactionHooks.onRollback(() -> expiryExecutor.execute(() -> expireHold(holdId)));
+            throw new BadRequestException("Event is no longer available for booking. Your held seats have been released");
+        }
+
+        if (bookingRepository.existsByUserIdAndEventIdAndStatus(user.getId(), event.getId(), "Confirmed")) {
+            throw new BadRequestException("You already have a booking for this event");
+        }
+
+        if (seatHoldRepository.deleteHold(holdId) == 0) {
+            throw new BadRequestException("Seat hold has already been confirmed or released");
+        }
+
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setEvent(event);
+        booking.setNumberOfSeats(hold.getSeats());
+        booking.setBookingDateTime(LocalDateTime.now());
+        booking.setStatus("Confirmed");
+
+        Booking savedBooking = bookingRepository.save(booking);
+        if (event.isFlashSale()) {
+            flashSaleService.bookingAdded(event.getId(), user.getId());
+        }
+
+        emailNotificationService.sendBookingConfirmationEmail(user, event, hold.getSeats(), savedBooking.getId());
+
+        return ResponseEntity.ok("Booking successful! Your held seats have been confirmed. Booking ID: " + savedBooking.getId());
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<?> releaseHold(Long holdId) {
+        UserInfo user = authenticationService.getCurrentUser();
+        SeatHold hold = findOwnedHold(holdId, user);
+
+        if (seatHoldRepository.deleteHold(holdId) == 0) {
+            throw new BadRequestException("Seat hold has already been confirmed or released");
+        }
+
+        if (seatInventoryService.release(hold.getEvent(), hold.getSeats())) {
+            waitlistPromotionWorker.seatsReleased(hold.getEvent().getId(), hold.getSeats());
+        }
+        return ResponseEntity.ok("Seat hold released");
+    }
+
+    // Safety net for holds scheduled on a node that has since gone away: an indexed range read
+    // of already-overdue rows only, so it stays cheap no matter how many holds are open.
+    @Override
+    @Scheduled(fixedDelayString = "${booking.hold.sweep-interval-ms:60000}")
+    public void sweepOverdueHolds() {
+        List<Long> overdue;
+        try {
+            overdue = seatHoldRepository.findOverdueHolds(LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+        } catch (Exception e) {
+            log.error("Failed to read overdue seat holds. Error: {}", e.getMessage());
+            return;
+        }
+        for (Long holdId : overdue) {
+            expiryExecutor.execute(() -> expireHold(holdId));
+        }
+    }
+
+    private SeatHold findOwnedHold(Long holdId, UserInfo user) {
+        if (holdId == null) {
+            throw new BadRequestException("Hold ID is required");
+        }
+
+        SeatHold hold = seatHoldRepository.findById(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Seat hold", "id", holdId));
+
+        if (hold.getUser() == null || !hold.getUser().getId().equals(user.getId())) {
+            throw new AccessDeniedException("You can only access your own seat holds");
+        }
+        return hold;
+    }
+
+    private void scheduleExpiry(Long holdId, LocalDateTime expiresAt) {
+        long delayMillis = Math.max(Duration.between(LocalDateTime.now(), expiresAt).toMillis(), 0);
+        timingWheel.schedule(() -> expireHold(holdId), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void expireHold(Long holdId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> seatHoldRepository.findById(holdId).ifPresent(hold -> {
+                if (seatHoldRepository.deleteHold(holdId) == 1) {
+                    if (seatInventoryService.release(hold.getEvent(), hold.getSeats())) {
+                        waitlistPromotionWorker.seatsReleased(hold.getEvent().getId(), hold.getSeats());
+                    }
+                    log.info("Seat hold {} expired, released {} seat(s) for event {}",
+                            holdId, hold.getSeats(), hold.getEvent().getId());
+                }
+            }));
+        } catch (Exception e) {
+            log.error("Failed to expire seat hold {}, retrying shortly. Error: {}", holdId, e.getMessage());
+            timingWheel.schedule(() -> expireHold(holdId), 5, TimeUnit.SECONDS);
+        }
+    }
+}
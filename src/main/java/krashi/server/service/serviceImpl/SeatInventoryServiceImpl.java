@@ -0,0 +1,184 @@
+package krashi.server.service.serviceImpl;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import krashi.server.entity.Event;
+import krashi.server.exception.ResourceNotFoundException;
+import krashi.server.repository.BookingRepository;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.SeatHoldRepository;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.SeatInventoryService;
+import krashi.server.util.SeatCounter;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatInventoryServiceImpl implements SeatInventoryService {
+
+    private final EventRepository eventRepository;
+    private final BookingRepository bookingRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final FlashSaleService flashSaleService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, SeatCounter> ledger = new ConcurrentHashMap<>();
+    private final AtomicLong failedReleases = new AtomicLong();
+
+    @Value("${booking.seat-inventory.enabled:false}")
+    private boolean ledgerEnabled;
+
+    @Override
+    public boolean tryAcquire(Event event, int seats) {
+        if (event.isFlashSale()) {
+            return flashSaleService.tryAcquire(event.getId(), seats);
+        }
+        if (!ledgerEnabled) {
+            return eventRepository.decrementAvailableSeats(event.getId(), seats) == 1;
+        }
+
+        SeatCounter counter = counterFor(event.getId());
+        if (!counter.tryAcquire(seats)) {
+            return false;
+        }
+        TransactionHooks.onRollback(() -> counter.forceRelease(seats));
+        return true;
+    }
+
+    // A release that would push the event past its total seats is refused: the seats were never
+    // taken or have already been given back, so callers must not offer them to anyone else.
+    @Override
+    public boolean release(Event event, int seats) {
+        if (event.isFlashSale()) {
+            flashSaleService.release(event.getId(), seats);
+            return true;
+        }
+        if (!ledgerEnabled) {
+            if (eventRepository.incrementAvailableSeats(event.getId(), seats) == 0) {
+                return releaseFailed(event, seats);
+            }
+            return true;
+        }
+
+        SeatCounter counter = counterFor(event.getId());
+        if (!counter.release(seats, event.getTotalSeats())) {
+            return releaseFailed(event, seats);
+        }
+        TransactionHooks.onRollback(() -> counter.forceAcquire(seats));
+        return true;
+    }
+
+    @Override
+    public int getAvailableSeats(Event event) {
+        if (event.isFlashSale()) {
+            return flashSaleService.getAvailableSeats(event.getId());
+        }
+        if (!ledgerEnabled) {
+            Integer availableSeats = eventRepository.findAvailableSeatsById(event.getId());
+            return availableSeats != null ? availableSeats : 0;
+        }
+        return Math.max(counterFor(event.getId()).available(), 0);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${booking.seat-inventory.flush-interval-ms:500}")
+    public void flush() {
+        if (!ledgerEnabled || ledger.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> pending = new HashMap<>();
+        ledger.forEach((eventId, counter) -> {
+            int taken = counter.drainUnflushed();
+            if (taken != 0) {
+                pending.put(eventId, taken);
+            }
+        });
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    pending.forEach((eventId, taken) -> eventRepository.adjustAvailableSeats(eventId, -taken)));
+            log.debug("Flushed seat inventory for {} event(s)", pending.size());
+        } catch (Exception e) {
+            log.error("Failed to flush seat inventory, will retry. Error: {}", e.getMessage());
+            pending.forEach((eventId, taken) -> ledger.get(eventId).restoreUnflushed(taken));
+        }
+    }
+
+    // Seats stay out of the pool while a booking, a live hold or an open waitlist offer has them;
+    // holds and offers give theirs back when they expire, so counting only bookings would let
+    // those seats be sold twice.
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (!ledgerEnabled) {
+            return;
+        }
+
+        Map<Long, Integer> takenSeats = new HashMap<>();
+        addSeatsByEvent(takenSeats, bookingRepository.sumConfirmedSeatsByEvent());
+        addSeatsByEvent(takenSeats, seatHoldRepository.sumHeldSeatsByEvent());
+        addSeatsByEvent(takenSeats, waitlistRepository.sumOfferedSeatsByEvent());
+
+        List<Event> publishedEvents = eventRepository.findByStatus("PUBLISHED");
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Event event : publishedEvents) {
+                if (event.isFlashSale()) {
+                    continue;
+                }
+                int availableSeats = Math.max(event.getTotalSeats() - takenSeats.getOrDefault(event.getId(), 0), 0);
+                if (availableSeats != event.getAvailableSeats()) {
+                    log.warn("Reconciled available seats for event {}: {} -> {}",
+                            event.getId(), event.getAvailableSeats(), availableSeats);
+                    eventRepository.updateAvailableSeats(event.getId(), availableSeats);
+                }
+                ledger.put(event.getId(), new SeatCounter(availableSeats));
+            }
+        });
+
+        log.info("Seat inventory reconciled for {} published event(s)", publishedEvents.size());
+    }
+
+    private boolean releaseFailed(Event event, int seats) {
+        long failures = failedReleases.incrementAndGet();
+        log.warn("Refused to release {} seat(s) for event {}: it would exceed its {} total seats ({} refused so far)",
+                seats, event.getId(), event.getTotalSeats(), failures);
+        return false;
+    }
+
+    private static void addSeatsByEvent(Map<Long, Integer> seatsByEvent, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            seatsByEvent.merge((Long) row[0], ((Number) row[1]).intValue(), Integer::sum);
+        }
+    }
+
+    private SeatCounter counterFor(Long eventId) {
+        return ledger.computeIfAbsent(eventId, id -> {
+            Integer availableSeats = eventRepository.findAvailableSeatsById(id);
+            if (availableSeats == null) {
+                throw new ResourceNotFoundException("Event", "id", id);
+            }
+            return new SeatCounter(availableSeats);
+        });
+    }
+}
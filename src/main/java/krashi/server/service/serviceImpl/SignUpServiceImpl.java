@@ -2,21 +2,22 @@ package krashi.server.service.serviceImpl;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import java.time.format.DateTimeFormatter;
 
+import krashi.server.dto.EventBrowseRequestDto;
 import krashi.server.dto.UserEventDetailDto;
-import krashi.server.entity.Event;
-import krashi.server.entity.EventFeedback;
 import krashi.server.entity.UserInfo;
-import krashi.server.entity.Waitlist;
 import krashi.server.exception.BadRequestException;
-import krashi.server.repository.EventFeedbackRepository;
+import krashi.server.mapping.EventToDto;
 import krashi.server.repository.EventRepository;
 import krashi.server.repository.UserInfoRepository;
-import krashi.server.repository.WaitlistRepository;
+import krashi.server.repository.projection.EventView;
+import krashi.server.service.EventBrowseIndex;
+import krashi.server.service.EventCatalogCache;
+import krashi.server.service.EventDetailCache;
+import krashi.server.service.EventSuggestIndex;
 import krashi.server.service.SignUpService;
+import krashi.server.util.EventCursor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -26,18 +27,23 @@ public class SignUpServiceImpl implements SignUpService {
 
     UserInfoRepository userInfoRepository;
     EventRepository eventRepository;
-    EventFeedbackRepository eventFeedbackRepository;
-    WaitlistRepository waitlistRepository;
+    EventDetailCache eventDetailCache;
+    EventCatalogCache eventCatalogCache;
+    EventSuggestIndex eventSuggestIndex;
+    EventBrowseIndex eventBrowseIndex;
     PasswordEncoder passwordEncoder;
 
     public SignUpServiceImpl(UserInfoRepository userInfoRepository, PasswordEncoder passwordEncoder, 
-                           EventRepository eventRepository, EventFeedbackRepository eventFeedbackRepository,
-                           WaitlistRepository waitlistRepository) {
+                           EventRepository eventRepository, EventDetailCache eventDetailCache,
+                           EventCatalogCache eventCatalogCache, EventSuggestIndex eventSuggestIndex,
+                           EventBrowseIndex eventBrowseIndex) {
         this.userInfoRepository = userInfoRepository;
         this.passwordEncoder = passwordEncoder;
         this.eventRepository = eventRepository;
-        this.eventFeedbackRepository = eventFeedbackRepository;
-        this.waitlistRepository = waitlistRepository;
+        this.eventDetailCache = eventDetailCache;
+        this.eventCatalogCache = eventCatalogCache;
+        this.eventSuggestIndex = eventSuggestIndex;
+        this.eventBrowseIndex = eventBrowseIndex;
     }
 
     @Override
@@ -63,87 +69,37 @@ public class SignUpServiceImpl implements SignUpService {
     }
 
     @Override
-    public ResponseEntity<?> getAllEvents() {
-        return ResponseEntity.ok(eventRepository.findAll());
+    public ResponseEntity<?> getAllEvents(String cursor, Integer size) {
+        EventCursor after = EventCursor.decode(cursor);
+        if (after == null) {
+            after = EventCursor.FIRST;
+        }
+        int pageSize = EventCursor.pageSize(size);
+        List<EventView> rows = eventRepository.findPageAfter(after.dateTime(), after.id(), PageRequest.of(0, pageSize + 1));
+        return ResponseEntity.ok(EventToDto.mapToResponsePage(rows, pageSize));
+    }
+
+    @Override
+    public ResponseEntity<?> getPublishedEvents(String cursor, Integer size) {
+        return ResponseEntity.ok(eventCatalogCache.getPublishedEvents(EventCursor.decode(cursor), EventCursor.pageSize(size)));
+    }
+
+    @Override
+    public ResponseEntity<?> suggestEvents(String query, Integer limit) {
+        return ResponseEntity.ok(eventSuggestIndex.suggest(query, limit != null ? limit : 8));
     }
 
     @Override
-    public ResponseEntity<?> getPublishedEvents() {
-        List<Event> events = eventRepository.findByStatus("PUBLISHED");
-        return ResponseEntity.ok(events);
+    public ResponseEntity<?> browseEvents(EventBrowseRequestDto request) {
+        return ResponseEntity.ok(eventBrowseIndex.browse(request));
     }
 
     @Override
     public ResponseEntity<?> getEventDetails(Long eventId) {
-        Optional<Event> eventOpt = eventRepository.findById(eventId);
-        if (eventOpt.isEmpty()) {
+        UserEventDetailDto details = eventDetailCache.getEventDetails(eventId);
+        if (details == null) {
             return ResponseEntity.notFound().build();
         }
-        
-        Event event = eventOpt.get();
-        
-        if (!"PUBLISHED".equals(event.getStatus())) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-        
-        UserEventDetailDto details = new UserEventDetailDto();
-        
-        details.setId(event.getId());
-        details.setTitle(event.getTitle());
-        details.setDescription(event.getDescription());
-        
-        if (event.getDateTime() != null) {
-            details.setDate(event.getDateTime().toLocalDate().format(dateFormatter));
-            details.setTime(event.getDateTime().toLocalTime().format(timeFormatter));
-        }
-        
-        if (event.getEndDateTime() != null) {
-            details.setEndDate(event.getEndDateTime().toLocalDate().format(dateFormatter));
-            details.setEndTime(event.getEndDateTime().toLocalTime().format(timeFormatter));
-        }
-        
-        details.setLocation(event.getLocation());
-        details.setTotalSeats(event.getTotalSeats());
-        details.setAvailableSeats(event.getAvailableSeats());
-        details.setCategory(event.getCategory());
-        details.setImageUrl(event.getImageUrl());
-        details.setPrice(event.getPrice());
-        details.setOrganizerName(event.getOrganizerName());
-        details.setOrganizerEmail(event.getOrganizerEmail());
-        details.setStatus(event.getStatus());
-        
-        details.setBookedSeats(event.getTotalSeats() - event.getAvailableSeats());
-        details.setAvailable(event.getAvailableSeats() > 0);
-        
-        List<Waitlist> waitlist = waitlistRepository.findByEventIdAndStatus(eventId, "WAITING");
-        List<EventFeedback> feedbacks = eventFeedbackRepository.findByEventId(eventId);
-        Double averageRating = eventFeedbackRepository.getAverageRatingByEventId(eventId);
-        
-        long totalFeedbacks = eventFeedbackRepository.countByEvent_Id(eventId);
-        
-        details.setWaitlistCount(waitlist.size());
-        details.setHasWaitlist(waitlist.size() > 0);
-        details.setAverageRating(averageRating != null ? averageRating : 0.0);
-        details.setTotalFeedbacks((int)totalFeedbacks);
-        
-        List<UserEventDetailDto.PublicFeedbackDto> recentFeedbacks = feedbacks.stream()
-                .sorted((f1, f2) -> f2.getSubmittedAt().compareTo(f1.getSubmittedAt()))
-                .limit(5)
-                .map(f -> {
-                    UserEventDetailDto.PublicFeedbackDto dto = new UserEventDetailDto.PublicFeedbackDto();
-                    dto.setUserName(f.getUser().getUserName());
-                    dto.setRating(f.getRating());
-                    dto.setComment(f.getComment());
-                    dto.setWouldRecommend(f.isWouldRecommend());
-                    dto.setSubmittedAt(f.getSubmittedAt());
-                    return dto;
-                })
-                .collect(Collectors.toList());
-        details.setRecentFeedbacks(recentFeedbacks);
-        
         return ResponseEntity.ok(details);
     }
 
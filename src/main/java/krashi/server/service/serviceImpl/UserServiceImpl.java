@@ -4,13 +4,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import krashi.server.dto.BookingDto;
 import krashi.server.dto.EventFeedbackDto;
-import krashi.server.dto.EventResponseDto;
-import krashi.server.dto.PromotionResultDto;
 import krashi.server.dto.UserFeedbackResponseDto;
 import krashi.server.exception.AccessDeniedException;
 import krashi.server.exception.BadRequestException;
@@ -22,15 +22,26 @@ import krashi.server.entity.UserInfo;
 import krashi.server.entity.Waitlist;
 import krashi.server.mapping.BookingToDto;
 import krashi.server.mapping.EventFeedbackToDto;
-import krashi.server.mapping.EventToDto;
 import krashi.server.repository.BookingRepository;
 import krashi.server.repository.EventFeedbackRepository;
 import krashi.server.repository.EventRepository;
 import krashi.server.repository.WaitlistRepository;
+import krashi.server.repository.projection.BookingView;
+import krashi.server.repository.projection.UserFeedbackView;
 import krashi.server.service.AuthenticationService;
+import krashi.server.service.BookingCommandBus;
 import krashi.server.service.EmailNotificationService;
+import krashi.server.service.EventCatalogCache;
+import krashi.server.service.EventDetailCache;
+import krashi.server.service.EventSearchService;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.SeatInventoryService;
 import krashi.server.service.UserService;
-import krashi.server.service.WaitlistPromotionService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.service.WaitlistOfferService;
+import krashi.server.service.WaitlistPositionService;
+import krashi.server.service.WaitlistPromotionWorker;
+import krashi.server.util.EventCursor;
 import lombok.AllArgsConstructor;
 
 @Service
@@ -43,11 +54,25 @@ public class UserServiceImpl implements UserService {
     private final WaitlistRepository waitlistRepository;
     private final EventFeedbackRepository eventFeedbackRepository;
     private final AuthenticationService authenticationService;
-    private final WaitlistPromotionService waitlistPromotionService;
+    private final WaitlistPromotionWorker waitlistPromotionWorker;
+    private final WaitlistPositionService waitlistPositionService;
+    private final WaitlistOfferService waitlistOfferService;
+    private final WaitlistCache waitlistCache;
+    private final EventDetailCache eventDetailCache;
+    private final EventCatalogCache eventCatalogCache;
+    private final EventSearchService eventSearchService;
     private final EmailNotificationService emailNotificationService;
+    private final SeatInventoryService seatInventoryService;
+    private final FlashSaleService flashSaleService;
+    private final BookingCommandBus bookingCommandBus;
+    private final TransactionTemplate transactionTemplate;
 
     private void verifyBookingOwnership(Booking booking, UserInfo user) {
-        if (booking.getUser() == null) {
+        verifyBookingOwnership(booking.getUser() != null ? booking.getUser().getId() : null, user);
+    }
+
+    private void verifyBookingOwnership(Long bookingUserId, UserInfo user) {
+        if (bookingUserId == null) {
             throw new BadRequestException("Booking has no user assigned");
         }
         
@@ -55,7 +80,7 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Invalid user");
         }
         
-        if (!booking.getUser().getId().equals(user.getId())) {
+        if (!bookingUserId.equals(user.getId())) {
             throw new AccessDeniedException("You can only access your own bookings");
         }
     }
@@ -75,12 +100,7 @@ public class UserServiceImpl implements UserService {
     }
 
     private void verifyFeedbackEligibility(Long eventId, UserInfo user) {
-        List<Booking> userBookings = bookingRepository.findByUser_Id(user.getId());
-        boolean hasConfirmedBooking = userBookings.stream()
-            .anyMatch(booking -> booking.getEvent().getId().equals(eventId) && 
-                                "Confirmed".equals(booking.getStatus()));
-        
-        if (!hasConfirmedBooking) {
+        if (!bookingRepository.existsByUserIdAndEventIdAndStatus(user.getId(), eventId, "Confirmed")) {
             throw new AccessDeniedException("You can only submit feedback for events you have booked");
         }
     }
@@ -97,6 +117,11 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Number of seats must be between 1 and " + MAX_SEATS_PER_BOOKING);
         }
 
+        return bookingCommandBus.execute(eventId,
+                () -> transactionTemplate.execute(status -> placeBooking(user, eventId, numberOfSeats)));
+    }
+
+    private ResponseEntity<?> placeBooking(UserInfo user, Long eventId, int numberOfSeats) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
         
@@ -104,17 +129,23 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Event is not available for booking");
         }
 
-        boolean hasExistingBooking = bookingRepository.existsByUserIdAndEventId(user.getId(), eventId);
+        boolean hasExistingBooking = bookingRepository.existsByUserIdAndEventIdAndStatus(user.getId(), eventId, "Confirmed");
         if (hasExistingBooking) {
             throw new BadRequestException("You already have a booking for this event");
         }
         
-        boolean isOnWaitlist = waitlistRepository.existsByUserIdAndEventId(user.getId(), eventId);
+        boolean isOnWaitlist = waitlistCache.isMember(eventId, user.getId());
         if (isOnWaitlist) {
             throw new BadRequestException("You are already on the waitlist for this event");
         }
         
-        if (event.getAvailableSeats() >= numberOfSeats) {
+        eventDetailCache.seatsChanged(eventId);
+
+        if (event.isFlashSale()) {
+            if (flashSaleService.reserve(user, event, numberOfSeats)) {
+                return ResponseEntity.ok("Booking received! Your seats are reserved and your confirmation will be emailed shortly.");
+            }
+        } else if (seatInventoryService.tryAcquire(event, numberOfSeats)) {
             Booking booking = new Booking();
             booking.setUser(user);
             booking.setEvent(event);
@@ -122,29 +153,35 @@ public class UserServiceImpl implements UserService {
             booking.setBookingDateTime(LocalDateTime.now());
             booking.setStatus("Confirmed");
 
-            event.setAvailableSeats(event.getAvailableSeats() - numberOfSeats);
-            eventRepository.save(event);
             Booking savedBooking = bookingRepository.save(booking);
 
             emailNotificationService.sendBookingConfirmationEmail(user, event, numberOfSeats, savedBooking.getId());
 
             return ResponseEntity.ok("Booking successful! Your seats have been confirmed.");
-        } else {
-            Waitlist waitlist = new Waitlist();
-            waitlist.setUser(user);
-            waitlist.setEvent(event);
-            waitlist.setRequestedSeats(numberOfSeats);
-            waitlist.setStatus("WAITING");
-            waitlist.setJoinedAt(LocalDateTime.now());
-
-            waitlistRepository.save(waitlist);
-            
-            emailNotificationService.sendWaitlistConfirmationEmail(user, event, numberOfSeats);
-            
-            return ResponseEntity.ok("Event is currently full. You have been automatically added to the waitlist. " +
-                    "Available seats: " + event.getAvailableSeats() + ", Requested: " + numberOfSeats + 
-                    ". You will be notified when seats become available.");
         }
+
+        Waitlist waitlist = new Waitlist();
+        waitlist.setUser(user);
+        waitlist.setEvent(event);
+        waitlist.setRequestedSeats(numberOfSeats);
+        waitlist.setStatus("WAITING");
+        waitlist.setJoinedAt(LocalDateTime.now());
+
+        Waitlist savedWaitlist;
+        try {
+            savedWaitlist = waitlistRepository.save(waitlist);
+        } catch (DataIntegrityViolationException e) {
+            // The waitlist cache on this node had not seen the user's entry from another node yet.
+            throw new BadRequestException("You are already on the waitlist for this event");
+        }
+        waitlistPositionService.onJoined(savedWaitlist);
+        waitlistCache.onJoined(savedWaitlist);
+        
+        emailNotificationService.sendWaitlistConfirmationEmail(user, event, numberOfSeats);
+        
+        return ResponseEntity.ok("Event is currently full. You have been automatically added to the waitlist. " +
+                "Available seats: " + seatInventoryService.getAvailableSeats(event) + ", Requested: " + numberOfSeats + 
+                ". You will be notified when seats become available.");
     }
 
     @Override
@@ -160,28 +197,28 @@ public class UserServiceImpl implements UserService {
 
         verifyBookingOwnership(booking, currentUser);
 
-        if ("Cancelled".equals(booking.getStatus())) {
+        return bookingCommandBus.execute(booking.getEvent().getId(),
+                () -> transactionTemplate.execute(status -> cancelOwnedBooking(booking, currentUser)));
+    }
+
+    private ResponseEntity<?> cancelOwnedBooking(Booking booking, UserInfo currentUser) {
+        if (bookingRepository.cancelIfActive(booking.getId()) == 0) {
             throw new BadRequestException("Booking is already cancelled");
         }
 
         Event event = booking.getEvent();
         int releasedSeats = booking.getNumberOfSeats();
         
-        event.setAvailableSeats(event.getAvailableSeats() + releasedSeats);
-        eventRepository.save(event);
-
-        booking.setStatus("Cancelled");
-        bookingRepository.save(booking);
+        boolean seatsFreed = seatInventoryService.release(event, releasedSeats);
+        if (event.isFlashSale()) {
+            flashSaleService.bookingCancelled(event.getId(), currentUser.getId());
+        }
+        eventDetailCache.seatsChanged(event.getId());
         
         emailNotificationService.sendBookingCancellationEmail(currentUser, event, releasedSeats, booking.getId());
         
-        
-        PromotionResultDto promotionResult = waitlistPromotionService.processWaitlistPromotions(event, releasedSeats);
-        
-        if (promotionResult.isHasPromotions()) {
-            emailNotificationService.sendPromotionNotificationEmails(promotionResult.getPromotedUsers());
-            
-            return ResponseEntity.ok("Booking cancelled successfully. " + promotionResult.getMessage());
+        if (seatsFreed) {
+            waitlistPromotionWorker.seatsReleased(event.getId(), releasedSeats);
         }
         
         return ResponseEntity.ok("Booking cancelled successfully");
@@ -195,10 +232,10 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Booking ID is required");
         }
 
-        Booking booking = bookingRepository.findById(bookingId)
+        BookingView booking = bookingRepository.findViewById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
-        verifyBookingOwnership(booking, currentUser);
+        verifyBookingOwnership(booking.getUserId(), currentUser);
 
         BookingDto bookingDto = BookingToDto.mapToDto(booking);
         return ResponseEntity.ok(bookingDto);
@@ -208,7 +245,7 @@ public class UserServiceImpl implements UserService {
     public ResponseEntity<?> getUserBookings() {
         UserInfo currentUser = authenticationService.getCurrentUser();
         
-        List<Booking> bookings = bookingRepository.findByUser_Id(currentUser.getId());
+        List<BookingView> bookings = bookingRepository.findViewsByUserId(currentUser.getId());
         List<BookingDto> bookingDtos = bookings.stream()
                 .map(BookingToDto::mapToDto)
                 .collect(Collectors.toList());
@@ -220,7 +257,7 @@ public class UserServiceImpl implements UserService {
     public ResponseEntity<?> getUserWaitlist() {
         UserInfo currentUser = authenticationService.getCurrentUser();
         
-        List<Waitlist> waitlist = waitlistRepository.findByUserIdAndStatus(currentUser.getId(), "WAITING");
+        List<Waitlist> waitlist = waitlistRepository.findByUserIdAndStatusIn(currentUser.getId(), List.of("WAITING", "OFFERED"));
         return ResponseEntity.ok(waitlist);
     }
 
@@ -237,7 +274,16 @@ public class UserServiceImpl implements UserService {
 
         verifyWaitlistOwnership(waitlist, currentUser);
 
+        if ("OFFERED".equals(waitlist.getStatus())) {
+            if (!waitlistOfferService.withdrawOffer(waitlist)) {
+                throw new BadRequestException("Waitlist offer has already been accepted or has expired");
+            }
+            return ResponseEntity.ok("Removed from waitlist. Your offered seats have been released");
+        }
+
         waitlistRepository.delete(waitlist);
+        waitlistPositionService.onRemoved(waitlist.getEvent().getId(), List.of(waitlist.getId()));
+        waitlistCache.onRemoved(waitlist.getEvent().getId(), List.of(waitlist.getId()));
         return ResponseEntity.ok("Removed from waitlist");
     }
 
@@ -277,6 +323,7 @@ public class UserServiceImpl implements UserService {
         feedback.setSubmittedAt(LocalDateTime.now());
 
         eventFeedbackRepository.save(feedback);
+        eventDetailCache.invalidate(feedbackDto.getEventId());
         return ResponseEntity.ok("Feedback submitted successfully");
     }
 
@@ -284,7 +331,7 @@ public class UserServiceImpl implements UserService {
     public ResponseEntity<?> getUserFeedback() {
         UserInfo currentUser = authenticationService.getCurrentUser();
         
-        List<EventFeedback> feedback = eventFeedbackRepository.findByUserId(currentUser.getId());
+        List<UserFeedbackView> feedback = eventFeedbackRepository.findViewsByUserId(currentUser.getId());
         List<UserFeedbackResponseDto> feedbackDtos = feedback.stream()
                 .map(EventFeedbackToDto::mapToUserResponseDto)
                 .collect(Collectors.toList());
@@ -293,34 +340,23 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public ResponseEntity<?> getUpcomingEvents() {
-        List<Event> events = eventRepository.findUpcomingPublicEvents(LocalDateTime.now());
-        List<EventResponseDto> eventDtos = events.stream()
-                .map(EventToDto::mapToResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(eventDtos);
+    public ResponseEntity<?> getUpcomingEvents(String cursor, Integer size) {
+        return ResponseEntity.ok(eventCatalogCache.getUpcomingEvents(EventCursor.decode(cursor), EventCursor.pageSize(size)));
     }
 
     @Override
-    public ResponseEntity<?> getEventsByCategory(String category) {
+    public ResponseEntity<?> getEventsByCategory(String category, String cursor, Integer size) {
         if (category == null || category.trim().isEmpty()) {
             throw new BadRequestException("Category is required");
         }
 
-        List<Event> events = eventRepository.findByCategoryAndStatus(category, "PUBLISHED");
-        List<EventResponseDto> eventDtos = events.stream()
-                .map(EventToDto::mapToResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(eventDtos);
+        return ResponseEntity.ok(eventCatalogCache.getEventsByCategory(
+                category, EventCursor.decode(cursor), EventCursor.pageSize(size)));
     }
 
     @Override
-    public ResponseEntity<?> searchEvents(String keyword) {
-        List<Event> events = eventRepository.findByTitleContainingIgnoreCaseAndStatus(keyword, "PUBLISHED");
-        List<EventResponseDto> eventDtos = events.stream()
-                .map(EventToDto::mapToResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(eventDtos);
+    public ResponseEntity<?> searchEvents(String keyword, String cursor, Integer size) {
+        return ResponseEntity.ok(eventSearchService.search(keyword, cursor, size));
     }
     
 }
@@ -0,0 +1,300 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import krashi.server.entity.Waitlist;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.WaitlistCache;
+import krashi.server.util.LongLongHashMap;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-event copy of the waitlist held in primitive arrays: the WAITING queue sorted by
+ * (joinedAt, id) plus hash indexes of members by user id and waitlist id. Postgres stays the
+ * source of truth; an event is loaded on first use, reloaded after refresh-seconds so changes
+ * made on other nodes show up, and updated by after-commit hooks from every waitlist mutation
+ * on this node. Membership checks and head-of-queue reads do not allocate. A member who joined
+ * on another node within the refresh window reads as absent here, so a partial unique index on
+ * active entries stops the second join at the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistCacheImpl implements WaitlistCache {
+
+    private static final long NONE = -1;
+
+    private final WaitlistRepository waitlistRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+
+    @Value("${booking.waitlist.cache.max-events:10000}")
+    private int maxEvents;
+
+    @Value("${booking.waitlist.cache.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMembershipIndex() {
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uq_waitlist_active_member " +
+                    "ON waitlist (user_id, event_id) WHERE status IN ('WAITING', 'OFFERED')");
+        } catch (Exception e) {
+            log.error("Failed to create waitlist membership index. Error: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isMember(Long eventId, Long userId) {
+        EventQueue queue = loadedQueue(eventId);
+        synchronized (queue) {
+            return queue.waitlistIdByUser.containsKey(userId);
+        }
+    }
+
+    @Override
+    public int waitingCount(Long eventId) {
+        EventQueue queue = loadedQueue(eventId);
+        synchronized (queue) {
+            return queue.tail - queue.head;
+        }
+    }
+
+    // Number of entries at the front of the queue that fit, in order, into availableSeats.
+    @Override
+    public int countFittingHead(Long eventId, int availableSeats) {
+        EventQueue queue = loadedQueue(eventId);
+        synchronized (queue) {
+            int remaining = availableSeats;
+            int count = 0;
+            for (int i = queue.head; i < queue.tail && queue.seats[i] <= remaining; i++) {
+                remaining -= queue.seats[i];
+                count++;
+            }
+            return count;
+        }
+    }
+
+    @Override
+    public void onJoined(Waitlist waitlist) {
+        Long eventId = waitlist.getEvent().getId();
+        long waitlistId = waitlist.getId();
+        long userId = waitlist.getUser().getId();
+        long score = toScore(waitlist.getJoinedAt());
+        int seats = waitlist.getRequestedSeats();
+        TransactionHooks.afterCommit(() -> withLoadedQueue(eventId, queue -> {
+            if (!queue.userByWaitlistId.containsKey(waitlistId)) {
+                queue.addMember(waitlistId, userId);
+                queue.enqueue(score, waitlistId, seats);
+            }
+        }));
+    }
+
+    @Override
+    public void onLeftQueue(Long eventId, Collection<Long> waitlistIds) {
+        TransactionHooks.afterCommit(() -> withLoadedQueue(eventId, queue -> {
+            for (Long waitlistId : waitlistIds) {
+                queue.dequeue(waitlistId);
+            }
+        }));
+    }
+
+    @Override
+    public void onRemoved(Long eventId, Collection<Long> waitlistIds) {
+        TransactionHooks.afterCommit(() -> withLoadedQueue(eventId, queue -> {
+            for (Long waitlistId : waitlistIds) {
+                queue.dequeue(waitlistId);
+                queue.removeMember(waitlistId);
+            }
+        }));
+    }
+
+    private EventQueue loadedQueue(Long eventId) {
+        EventQueue queue = queues.get(eventId);
+        if (queue == null) {
+            if (queues.size() >= maxEvents) {
+                queues.clear();
+            }
+            queue = queues.computeIfAbsent(eventId, id -> new EventQueue());
+        }
+        synchronized (queue) {
+            if (!queue.loaded || System.nanoTime() - queue.loadedAt > TimeUnit.SECONDS.toNanos(refreshSeconds)) {
+                load(eventId, queue);
+            }
+        }
+        return queue;
+    }
+
+    private void load(Long eventId, EventQueue queue) {
+        List<Object[]> rows = waitlistRepository.findActiveEntries(eventId);
+        queue.reset(rows.size());
+        for (Object[] row : rows) {
+            long waitlistId = ((Number) row[0]).longValue();
+            queue.addMember(waitlistId, ((Number) row[1]).longValue());
+            if ("WAITING".equals(row[4])) {
+                queue.enqueue(toScore((LocalDateTime) row[2]), waitlistId, ((Number) row[3]).intValue());
+            }
+        }
+        queue.loaded = true;
+        queue.loadedAt = System.nanoTime();
+        log.debug("Loaded waitlist cache for event {} with {} member(s)", eventId, rows.size());
+    }
+
+    // Hooks only patch queues that are already loaded; anything else is read fresh on first use.
+    private void withLoadedQueue(Long eventId, Consumer<EventQueue> action) {
+        EventQueue queue = queues.get(eventId);
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            if (queue.loaded) {
+                action.accept(queue);
+            }
+        }
+    }
+
+    private static long toScore(LocalDateTime joinedAt) {
+        return joinedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + joinedAt.getNano() / 1_000;
+    }
+
+    // WAITING entries live in [head, tail) of parallel arrays sorted by (score, id). New joiners
+    // almost always append at the tail and promotions take from the head, so both are O(1);
+    // a user leaving from the middle costs one arraycopy.
+    private static final class EventQueue {
+        private long[] scores = new long[16];
+        private long[] ids = new long[16];
+        private int[] seats = new int[16];
+        private int head;
+        private int tail;
+        private LongLongHashMap scoreByWaitlistId = new LongLongHashMap(16);
+        private LongLongHashMap userByWaitlistId = new LongLongHashMap(16);
+        private LongLongHashMap waitlistIdByUser = new LongLongHashMap(16);
+        private boolean loaded;
+        private long loadedAt;
+
+        void reset(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            scores = new long[capacity];
+            ids = new long[capacity];
+            seats = new int[capacity];
+            head = 0;
+            tail = 0;
+            scoreByWaitlistId = new LongLongHashMap(expectedSize);
+            userByWaitlistId = new LongLongHashMap(expectedSize);
+            waitlistIdByUser = new LongLongHashMap(expectedSize);
+        }
+
+        void addMember(long waitlistId, long userId) {
+            userByWaitlistId.put(waitlistId, userId);
+            waitlistIdByUser.put(userId, waitlistId);
+        }
+
+        void removeMember(long waitlistId) {
+            long userId = userByWaitlistId.get(waitlistId, NONE);
+            if (userId != NONE) {
+                userByWaitlistId.remove(waitlistId);
+                if (waitlistIdByUser.get(userId, NONE) == waitlistId) {
+                    waitlistIdByUser.remove(userId);
+                }
+            }
+        }
+
+        void enqueue(long score, long waitlistId, int seatCount) {
+            if (tail == scores.length) {
+                makeRoom();
+            }
+            int index = search(score, waitlistId);
+            if (index < 0) {
+                index = -index - 1;
+                System.arraycopy(scores, index, scores, index + 1, tail - index);
+                System.arraycopy(ids, index, ids, index + 1, tail - index);
+                System.arraycopy(seats, index, seats, index + 1, tail - index);
+                scores[index] = score;
+                ids[index] = waitlistId;
+                seats[index] = seatCount;
+                tail++;
+                scoreByWaitlistId.put(waitlistId, score);
+            }
+        }
+
+        void dequeue(long waitlistId) {
+            long score = scoreByWaitlistId.get(waitlistId, NONE);
+            if (score == NONE) {
+                return;
+            }
+            scoreByWaitlistId.remove(waitlistId);
+            int index = search(score, waitlistId);
+            if (index < 0) {
+                return;
+            }
+            if (index == head) {
+                head++;
+            } else {
+                System.arraycopy(scores, index + 1, scores, index, tail - index - 1);
+                System.arraycopy(ids, index + 1, ids, index, tail - index - 1);
+                System.arraycopy(seats, index + 1, seats, index, tail - index - 1);
+                tail--;
+            }
+            if (head == tail) {
+                head = 0;
+                tail = 0;
+            }
+        }
+
+        private int search(long score, long waitlistId) {
+            int low = head;
+            int high = tail - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = scores[mid] != score ? Long.compare(scores[mid], score) : Long.compare(ids[mid], waitlistId);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        // Slides the live range back to index 0, growing only when it is more than half full.
+        private void makeRoom() {
+            int size = tail - head;
+            int capacity = size * 2 > scores.length ? scores.length * 2 : scores.length;
+            if (capacity != scores.length) {
+                long[] newScores = new long[capacity];
+                long[] newIds = new long[capacity];
+                int[] newSeats = new int[capacity];
+                System.arraycopy(scores, head, newScores, 0, size);
+                System.arraycopy(ids, head, newIds, 0, size);
+                System.arraycopy(seats, head, newSeats, 0, size);
+                scores = newScores;
+                ids = newIds;
+                seats = newSeats;
+            } else {
+                System.arraycopy(scores, head, scores, 0, size);
+                System.arraycopy(ids, head, ids, 0, size);
+                System.arraycopy(seats, head, seats, 0, size);
+            }
+            head = 0;
+            tail = size;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import krashi.server.entity.Booking;
+import krashi.server.entity.Event;
+import krashi.server.entity.UserInfo;
+import krashi.server.entity.Waitlist;
+import krashi.server.exception.AccessDeniedException;
+import krashi.server.exception.BadRequestException;
+import krashi.server.exception.ResourceNotFoundException;
+import krashi.server.repository.BookingRepository;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.AuthenticationService;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.SeatInventoryService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.service.WaitlistOfferService;
+import krashi.server.service.WaitlistPositionService;
+import krashi.server.service.WaitlistPromotionWorker;
+import krashi.server.util.HierarchicalTimingWheel;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Promoted waitlist entries hold their seats as an offer that must be accepted before
+ * offer_expires_at. Deadlines live in a hierarchical timing wheel and are re-read from the
+ * status/offer_expires_at index on startup; an expired offer releases its seats to the
+ * promotion worker, which offers them to the next entries in the queue.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistOfferServiceImpl implements WaitlistOfferService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final BookingRepository bookingRepository;
+    private final AuthenticationService authenticationService;
+    private final SeatInventoryService seatInventoryService;
+    private final FlashSaleService flashSaleService;
+    private final EmailNotificationService emailNotificationService;
+    private final WaitlistPositionService waitlistPositionService;
+    private final WaitlistCache waitlistCache;
+    // The worker drives promotions, which create offers, so it is resolved lazily.
+    private final ObjectProvider<WaitlistPromotionWorker> waitlistPromotionWorker;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.waitlist.offer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${booking.waitlist.offer.ttl-minutes:15}")
+    private long offerTtlMinutes;
+
+    @Value("${booking.waitlist.offer.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    private ExecutorService expiryExecutor;
+    private HierarchicalTimingWheel timingWheel;
+
+    @PostConstruct
+    public void start() {
+        expiryExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "waitlist-offer-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // One-second ticks, 64 slots per level, 4 levels: deadlines up to ~194 days out.
+        timingWheel = new HierarchicalTimingWheel("waitlist-offer-wheel", 1, TimeUnit.SECONDS, 64, 4, expiryExecutor);
+    }
+
+    @PreDestroy
+    public void stop() {
+        timingWheel.close();
+        expiryExecutor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOutstandingOffers() {
+        List<Object[]> deadlines = waitlistRepository.findOpenOfferDeadlines();
+        for (Object[] row : deadlines) {
+            scheduleExpiry(((Number) row[0]).longValue(), (LocalDateTime) row[1]);
+        }
+        if (!deadlines.isEmpty()) {
+            log.info("Rescheduled expiry for {} outstanding waitlist offer(s)", deadlines.size());
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Runs inside the promotion pass, after the seats for all entries have been acquired.
+    // Entries that stopped waiting in the meantime give their seats back.
+    @Override
+    @Transactional
+    public int createOffers(Event event, List<Waitlist> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(offerTtlMinutes);
+        List<Long> waitlistIds = entries.stream().map(Waitlist::getId).toList();
+        Set<Long> offeredIds = new HashSet<>(waitlistRepository.markOffered(waitlistIds, now, expiresAt));
+
+        int offeredSeats = 0;
+        int staleSeats = 0;
+        for (Waitlist entry : entries) {
+            if (offeredIds.contains(entry.getId())) {
+                offeredSeats += entry.getRequestedSeats();
+                emailNotificationService.sendWaitlistOfferEmail(
+                        entry.getUser(), event, entry.getId(), entry.getRequestedSeats(), expiresAt);
+            } else {
+                staleSeats += entry.getRequestedSeats();
+            }
+        }
+        if (staleSeats > 0 && seatInventoryService.release(event, staleSeats)) {
+            waitlistPromotionWorker.getObject().seatsReleased(event.getId(), staleSeats);
+        }
+
+        waitlistPositionService.onRemoved(event.getId(), offeredIds);
+        waitlistCache.onLeftQueue(event.getId(), offeredIds);
+        TransactionHooks.afterCommit(() -> offeredIds.forEach(waitlistId -> scheduleExpiry(waitlistId, expiresAt)));
+        log.info("Offered {} seat(s) to {} waitlist entries for event {} until {}",
+                offeredSeats, offeredIds.size(), event.getId(), expiresAt);
+        return offeredSeats;
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<?> acceptOffer(Long waitlistId) {
+        UserInfo user = authenticationService.getCurrentUser();
+        Waitlist waitlist = findOwnedEntry(waitlistId, user);
+
+        if (!"OFFERED".equals(waitlist.getStatus())) {
+            throw new BadRequestException("There is no open offer for this waitlist entry");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!waitlist.getOfferExpiresAt().isAfter(now)) {
+            throw new BadRequestException("Waitlist offer has expired");
+        }
+
+        if (waitlistRepository.claimOffer(waitlistId, now) == 0) {
+            throw new BadRequestException("Waitlist offer has already been accepted or has expired");
+        }
+
+        Event event = waitlist.getEvent();
+        waitlistCache.onRemoved(event.getId(), List.of(waitlistId));
+
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setEvent(event);
+        booking.setNumberOfSeats(waitlist.getRequestedSeats());
+        booking.setBookingDateTime(now);
+        booking.setStatus("Confirmed");
+
+        Booking savedBooking = bookingRepository.save(booking);
+        if (event.isFlashSale()) {
+            flashSaleService.bookingAdded(event.getId(), user.getId());
+        }
+
+        emailNotificationService.sendBookingConfirmationEmail(user, event, waitlist.getRequestedSeats(), savedBooking.getId());
+
+        return ResponseEntity.ok("Offer accepted! Your booking is confirmed. Booking ID: " + savedBooking.getId());
+    }
+
+    // A user leaving the waitlist with an open offer hands the seats straight back.
+    @Override
+    @Transactional
+    public boolean withdrawOffer(Waitlist waitlist) {
+        if (waitlistRepository.withdrawOffer(waitlist.getId()) == 0) {
+            return false;
+        }
+        waitlistCache.onRemoved(waitlist.getEvent().getId(), List.of(waitlist.getId()));
+        if (seatInventoryService.release(waitlist.getEvent(), waitlist.getRequestedSeats())) {
+            waitlistPromotionWorker.getObject().seatsReleased(waitlist.getEvent().getId(), waitlist.getRequestedSeats());
+        }
+        return true;
+    }
+
+    // Safety net for offers scheduled on a node that has since gone away: an indexed range read
+    // of already-overdue rows only, so it stays cheap no matter how many offers are open.
+    @Override
+    @Scheduled(fixedDelayString = "${booking.waitlist.offer.sweep-interval-ms:300000}")
+    public void sweepOverdueOffers() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> overdue;
+        try {
+            overdue = waitlistRepository.findOverdueOffers(LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+        } catch (Exception e) {
+            log.error("Failed to read overdue waitlist offers. Error: {}", e.getMessage());
+            return;
+        }
+        for (Long waitlistId : overdue) {
+            expiryExecutor.execute(() -> expireOffer(waitlistId));
+        }
+    }
+
+    private Waitlist findOwnedEntry(Long waitlistId, UserInfo user) {
+        if (waitlistId == null) {
+            throw new BadRequestException("Waitlist ID is required");
+        }
+
+        Waitlist waitlist = waitlistRepository.findById(waitlistId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry", "id", waitlistId));
+
+        if (waitlist.getUser() == null || !waitlist.getUser().getId().equals(user.getId())) {
+            throw new AccessDeniedException("You can only access your own waitlist entries");
+        }
+        return waitlist;
+    }
+
+    private void scheduleExpiry(Long waitlistId, LocalDateTime expiresAt) {
+        long delayMillis = Math.max(Duration.between(LocalDateTime.now(), expiresAt).toMillis(), 0);
+        timingWheel.schedule(() -> expireOffer(waitlistId), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void expireOffer(Long waitlistId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> waitlistRepository.findById(waitlistId).ifPresent(waitlist -> {
+                if (!"OFFERED".equals(waitlist.getStatus())) {
+                    return;
+                }
+                if (waitlistRepository.expireOffer(waitlistId, LocalDateTime.now()) == 1) {
+                    Long eventId = waitlist.getEvent().getId();
+                    waitlistCache.onRemoved(eventId, List.of(waitlistId));
+                    if (seatInventoryService.release(waitlist.getEvent(), waitlist.getRequestedSeats())) {
+                        waitlistPromotionWorker.getObject().seatsReleased(eventId, waitlist.getRequestedSeats());
+                    }
+                    log.info("Waitlist offer {} expired, rolled {} seat(s) over for event {}",
+                            waitlistId, waitlist.getRequestedSeats(), eventId);
+                } else {
+                    scheduleExpiry(waitlistId, waitlist.getOfferExpiresAt());
+                }
+            }));
+        } catch (Exception e) {
+            log.error("Failed to expire waitlist offer {}, retrying shortly. Error: {}", waitlistId, e.getMessage());
+            timingWheel.schedule(() -> expireOffer(waitlistId), 5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import krashi.server.dto.WaitlistPositionDto;
+import krashi.server.entity.Waitlist;
+import krashi.server.exception.AccessDeniedException;
+import krashi.server.exception.BadRequestException;
+import krashi.server.exception.ResourceNotFoundException;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.AuthenticationService;
+import krashi.server.service.WaitlistPositionService;
+import krashi.server.util.IndexedSkipList;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps each event's WAITING queue in an indexed skip list ordered by joinedAt and weighted by
+ * requested seats, so a position lookup is O(log n) and does not touch Postgres. An event's
+ * queue is loaded from the database the first time it is asked about, reloaded after
+ * refresh-seconds so joins and removals made on other nodes show up, and kept in sync in
+ * between by after-commit hooks from booking, waitlist removal and promotion on this node.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistPositionServiceImpl implements WaitlistPositionService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final AuthenticationService authenticationService;
+
+    private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+    private final Map<Long, Long> eventIdByWaitlistId = new ConcurrentHashMap<>();
+
+    @Value("${booking.waitlist.position.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    private record Entry(long score, String username) {
+    }
+
+    private static final class EventQueue {
+        private IndexedSkipList list = new IndexedSkipList();
+        private Map<Long, Entry> entries = new HashMap<>();
+        private final Set<Long> removedWhileLoading = new HashSet<>();
+        private boolean loaded;
+        private long loadedAt;
+    }
+
+    @Override
+    public ResponseEntity<?> getWaitlistPosition(Long waitlistId) {
+        if (waitlistId == null) {
+            throw new BadRequestException("Waitlist ID is required");
+        }
+
+        Long eventId = eventIdByWaitlistId.get(waitlistId);
+        boolean indexed = eventId != null;
+        if (!indexed) {
+            eventId = findWaitingEventId(waitlistId);
+        }
+
+        // An entry Postgres has but this node has not indexed joined on another node: reload now.
+        EventQueue queue = loadedQueue(eventId, indexed ? null : waitlistId);
+        IndexedSkipList.Rank rank;
+        int totalWaiting;
+        synchronized (queue) {
+            Entry entry = queue.entries.get(waitlistId);
+            if (entry == null) {
+                throw new ResourceNotFoundException("Waitlist entry", "id", waitlistId);
+            }
+            if (!entry.username().equals(authenticationService.getCurrentUsername())) {
+                throw new AccessDeniedException("You can only view your own waitlist entries");
+            }
+            rank = queue.list.rank(entry.score(), waitlistId);
+            totalWaiting = queue.list.size();
+        }
+
+        return ResponseEntity.ok(new WaitlistPositionDto(
+                waitlistId, eventId, rank.position(), rank.weightAhead(), totalWaiting));
+    }
+
+    @Override
+    public void onJoined(Waitlist waitlist) {
+        Long eventId = waitlist.getEvent().getId();
+        TransactionHooks.afterCommit(() -> {
+            EventQueue queue = queues.get(eventId);
+            if (queue == null) {
+                return;
+            }
+            synchronized (queue) {
+                add(queue, eventId, waitlist.getId(), waitlist.getJoinedAt(),
+                        waitlist.getRequestedSeats(), waitlist.getUser().getUserName());
+            }
+        });
+    }
+
+    @Override
+    public void onRemoved(Long eventId, Collection<Long> waitlistIds) {
+        TransactionHooks.afterCommit(() -> {
+            waitlistIds.forEach(eventIdByWaitlistId::remove);
+            EventQueue queue = queues.get(eventId);
+            if (queue == null) {
+                return;
+            }
+            synchronized (queue) {
+                for (Long waitlistId : waitlistIds) {
+                    Entry entry = queue.entries.remove(waitlistId);
+                    if (entry != null) {
+                        queue.list.remove(entry.score(), waitlistId);
+                    }
+                    if (!queue.loaded) {
+                        queue.removedWhileLoading.add(waitlistId);
+                    }
+                }
+            }
+        });
+    }
+
+    // Cold path: an entry this node has not indexed yet is looked up once by id.
+    private Long findWaitingEventId(Long waitlistId) {
+        Waitlist waitlist = waitlistRepository.findById(waitlistId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry", "id", waitlistId));
+        if (!"WAITING".equals(waitlist.getStatus())) {
+            throw new BadRequestException("Waitlist entry is no longer waiting");
+        }
+        return waitlist.getEvent().getId();
+    }
+
+    private EventQueue loadedQueue(Long eventId, Long requiredWaitlistId) {
+        EventQueue queue = queues.computeIfAbsent(eventId, id -> new EventQueue());
+        synchronized (queue) {
+            if (!queue.loaded
+                    || System.nanoTime() - queue.loadedAt > TimeUnit.SECONDS.toNanos(refreshSeconds)
+                    || (requiredWaitlistId != null && !queue.entries.containsKey(requiredWaitlistId))) {
+                load(eventId, queue);
+            }
+        }
+        return queue;
+    }
+
+    private void load(Long eventId, EventQueue queue) {
+        queue.entries.keySet().forEach(eventIdByWaitlistId::remove);
+        queue.list = new IndexedSkipList();
+        queue.entries = new HashMap<>();
+        for (Waitlist waiting : waitlistRepository.findWaitingQueueHead(eventId, Pageable.unpaged())) {
+            if (!queue.removedWhileLoading.contains(waiting.getId())) {
+                add(queue, eventId, waiting.getId(), waiting.getJoinedAt(),
+                        waiting.getRequestedSeats(), waiting.getUser().getUserName());
+            }
+        }
+        queue.removedWhileLoading.clear();
+        queue.loaded = true;
+        queue.loadedAt = System.nanoTime();
+        log.debug("Loaded waitlist position index for event {} with {} entries", eventId, queue.list.size());
+    }
+
+    private void add(EventQueue queue, Long eventId, Long waitlistId, LocalDateTime joinedAt, int seats, String username) {
+        long score = toScore(joinedAt);
+        if (queue.list.insert(score, waitlistId, seats)) {
+            queue.entries.put(waitlistId, new Entry(score, username));
+            eventIdByWaitlistId.put(waitlistId, eventId);
+        }
+    }
+
+    private static long toScore(LocalDateTime joinedAt) {
+        return joinedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + joinedAt.getNano() / 1_000;
+    }
+}
@@ -2,18 +2,24 @@ package krashi.server.service.serviceImpl;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import krashi.server.dto.PromotedUserDto;
 import krashi.server.dto.PromotionResultDto;
-import krashi.server.entity.Booking;
 import krashi.server.entity.Event;
 import krashi.server.entity.Waitlist;
 import krashi.server.repository.BookingRepository;
-import krashi.server.repository.EventRepository;
 import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.SeatInventoryService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.service.WaitlistOfferService;
+import krashi.server.service.WaitlistPositionService;
 import krashi.server.service.WaitlistPromotionService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,56 +31,102 @@ public class WaitlistPromotionServiceImpl implements WaitlistPromotionService {
 
     private final WaitlistRepository waitlistRepository;
     private final BookingRepository bookingRepository;
-    private final EventRepository eventRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final FlashSaleService flashSaleService;
+    private final WaitlistPositionService waitlistPositionService;
+    private final WaitlistOfferService waitlistOfferService;
+    private final WaitlistCache waitlistCache;
 
+    // Reads only the head of the queue that could possibly fit (each entry wants at least one
+    // seat, so never more than availableSeats rows), then promotes it with one INSERT ... SELECT
+    // and one DELETE instead of a save/delete round trip per entry.
     @Override
+    @Transactional
     public PromotionResultDto processWaitlistPromotions(Event event, int availableSeats) {
         log.info("Processing waitlist promotions for event: {} with {} available seats", 
                 event.getId(), availableSeats);
-        
-        List<Waitlist> waitingUsers = waitlistRepository.findByEventIdAndStatus(event.getId(), "WAITING");
-        
-        if (waitingUsers.isEmpty()) {
+
+        if (availableSeats <= 0) {
+            return createEmptyPromotionResult();
+        }
+
+        // The cached queue says how many head entries fit, so a fitting head is fetched with an
+        // exact limit. The cache can lag joins made on other nodes, so when it sees nothing that
+        // fits the head is read from the database instead; at most availableSeats entries can fit.
+        // The rows stay locked until this transaction ends, so nobody leaves mid-promotion.
+        int fitting = waitlistCache.countFittingHead(event.getId(), availableSeats);
+        List<Long> headIds = waitlistRepository.lockWaitingQueueHeadIds(
+                event.getId(), fitting > 0 ? fitting : availableSeats);
+
+        if (headIds.isEmpty()) {
             log.info("No users on waitlist for event: {}", event.getId());
             return createEmptyPromotionResult();
         }
-        
-        waitingUsers.sort((w1, w2) -> w1.getJoinedAt().compareTo(w2.getJoinedAt()));
-        
-        List<PromotedUserDto> promotedUsers = new ArrayList<>();
-        int remainingSeats = availableSeats;
-        int totalPromotedUsers = 0;
+        List<Waitlist> queueHead = waitlistRepository.findWithUserByIdIn(headIds);
+
+        List<Waitlist> promotable = new ArrayList<>();
         int totalSeatsPromoted = 0;
-        
-        for (Waitlist waitlistEntry : waitingUsers) {
-            if (remainingSeats >= waitlistEntry.getRequestedSeats()) {
-                Booking newBooking = createBookingFromWaitlist(waitlistEntry);
-                Booking savedBooking = bookingRepository.save(newBooking);
-                
-                remainingSeats -= waitlistEntry.getRequestedSeats();
-                totalSeatsPromoted += waitlistEntry.getRequestedSeats();
-                totalPromotedUsers++;
-                
-                PromotedUserDto promotedUser = createPromotedUserDto(waitlistEntry, savedBooking);
-                promotedUsers.add(promotedUser);
-                
-                waitlistRepository.delete(waitlistEntry);
-                
-                log.info("Promoted user {} for event {} - {} seats", 
-                        waitlistEntry.getUser().getUserName(), 
-                        event.getId(), 
-                        waitlistEntry.getRequestedSeats());
-            } else {
+        for (Waitlist waitlistEntry : queueHead) {
+            if (totalSeatsPromoted + waitlistEntry.getRequestedSeats() > availableSeats) {
                 log.info("Insufficient seats for remaining waitlist users. Remaining: {}, Required: {}", 
-                        remainingSeats, waitlistEntry.getRequestedSeats());
+                        availableSeats - totalSeatsPromoted, waitlistEntry.getRequestedSeats());
                 break;
             }
+            promotable.add(waitlistEntry);
+            totalSeatsPromoted += waitlistEntry.getRequestedSeats();
         }
-        
-        event.setAvailableSeats(remainingSeats);
-        eventRepository.save(event);
-        
-        return createPromotionResult(promotedUsers, totalPromotedUsers, totalSeatsPromoted);
+
+        // Claim the whole prefix at once; if a concurrent booking took some seats, shorten it.
+        while (!promotable.isEmpty() && !seatInventoryService.tryAcquire(event, totalSeatsPromoted)) {
+            totalSeatsPromoted -= promotable.remove(promotable.size() - 1).getRequestedSeats();
+        }
+
+        if (promotable.isEmpty()) {
+            return createEmptyPromotionResult();
+        }
+
+        if (waitlistOfferService.isEnabled()) {
+            int offeredSeats = waitlistOfferService.createOffers(event, promotable);
+            return new PromotionResultDto(false, 0, 0, new ArrayList<>(),
+                    "Offered " + offeredSeats + " seat(s) to the head of the waitlist");
+        }
+
+        Map<Long, Long> bookingIdByUser = new HashMap<>();
+        int seatsBooked = 0;
+        List<Long> candidateIds = promotable.stream().map(Waitlist::getId).toList();
+        for (Object[] row : bookingRepository.insertFromWaitlist(candidateIds, LocalDateTime.now())) {
+            bookingIdByUser.put(((Number) row[1]).longValue(), ((Number) row[0]).longValue());
+            seatsBooked += ((Number) row[2]).intValue();
+        }
+        // Seats acquired for entries that stopped waiting before the insert go back to the pool.
+        if (seatsBooked < totalSeatsPromoted) {
+            log.warn("{} waitlist entries for event {} stopped waiting during promotion; returning {} seat(s)",
+                    promotable.size() - bookingIdByUser.size(), event.getId(), totalSeatsPromoted - seatsBooked);
+            seatInventoryService.release(event, totalSeatsPromoted - seatsBooked);
+        }
+        if (bookingIdByUser.isEmpty()) {
+            return createEmptyPromotionResult();
+        }
+        if (event.isFlashSale()) {
+            bookingIdByUser.keySet().forEach(userId -> flashSaleService.bookingAdded(event.getId(), userId));
+        }
+
+        List<Waitlist> promoted = promotable.stream()
+                .filter(waitlistEntry -> bookingIdByUser.containsKey(waitlistEntry.getUser().getId()))
+                .toList();
+        List<Long> waitlistIds = promoted.stream().map(Waitlist::getId).toList();
+        waitlistRepository.deleteByIdIn(waitlistIds);
+        waitlistPositionService.onRemoved(event.getId(), waitlistIds);
+        waitlistCache.onRemoved(event.getId(), waitlistIds);
+
+        List<PromotedUserDto> promotedUsers = new ArrayList<>(promoted.size());
+        for (Waitlist waitlistEntry : promoted) {
+            promotedUsers.add(createPromotedUserDto(waitlistEntry, bookingIdByUser.get(waitlistEntry.getUser().getId())));
+        }
+        log.info("Promoted {} waitlist entries for event {} - {} seats",
+                promotedUsers.size(), event.getId(), seatsBooked);
+
+        return createPromotionResult(promotedUsers, promotedUsers.size(), seatsBooked);
     }
     
     @Override
@@ -84,20 +136,10 @@ public class WaitlistPromotionServiceImpl implements WaitlistPromotionService {
     
     @Override
     public long getWaitlistCount(Long eventId) {
-        return waitlistRepository.countByEvent_IdAndStatus(eventId, "WAITING");
-    }
-    
-    private Booking createBookingFromWaitlist(Waitlist waitlistEntry) {
-        Booking booking = new Booking();
-        booking.setUser(waitlistEntry.getUser());
-        booking.setEvent(waitlistEntry.getEvent());
-        booking.setNumberOfSeats(waitlistEntry.getRequestedSeats());
-        booking.setBookingDateTime(LocalDateTime.now());
-        booking.setStatus("Confirmed");
-        return booking;
+        return waitlistCache.waitingCount(eventId);
     }
     
-    private PromotedUserDto createPromotedUserDto(Waitlist waitlistEntry, Booking newBooking) {
+    private PromotedUserDto createPromotedUserDto(Waitlist waitlistEntry, Long newBookingId) {
         return new PromotedUserDto(
                 waitlistEntry.getUser().getId(),
                 waitlistEntry.getUser().getUserName(),
@@ -105,7 +147,7 @@ public class WaitlistPromotionServiceImpl implements WaitlistPromotionService {
                 waitlistEntry.getEvent().getId(),
                 waitlistEntry.getEvent().getTitle(),
                 waitlistEntry.getRequestedSeats(),
-                newBooking.getId()
+                newBookingId
         );
     }
     
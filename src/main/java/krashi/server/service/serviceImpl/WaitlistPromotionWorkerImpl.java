@@ -0,0 +1,247 @@
+package krashi.server.service.serviceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import krashi.server.dto.PromotionResultDto;
+import krashi.server.entity.Event;
+import krashi.server.repository.EventRepository;
+import krashi.server.service.BookingCommandBus;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.WaitlistPromotionService;
+import krashi.server.service.WaitlistPromotionWorker;
+import krashi.server.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Released seats are added to a per-event counter in Redis, so any number of cancellations
+ * between two passes collapse into one promotion run with the summed seats. Each event has a
+ * single promoter across nodes, chosen by a Redis lease. A pass moves the counter into an
+ * in-flight field tagged with its lease token and clears it only once the promotion commits,
+ * so seats taken by a node that dies mid-pass are handed back when its lease expires.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistPromotionWorkerImpl implements WaitlistPromotionWorker {
+
+    private static final String PENDING_KEY = "promotion:pending";
+    private static final String IN_FLIGHT_KEY = "promotion:inflight";
+
+    // KEYS: pending, in-flight. ARGV: eventId, lease token. In-flight values are "token:seats".
+    private static final RedisScript<Long> TAKE_PENDING_SCRIPT = new DefaultRedisScript<>(
+            "local seats = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if not seats then return 0 end " +
+            "redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "redis.call('HSET', KEYS[2], ARGV[1], ARGV[2] .. ':' .. seats) " +
+            "return tonumber(seats)",
+            Long.class);
+
+    // KEYS: in-flight. ARGV: eventId, expected in-flight value.
+    private static final RedisScript<Long> FINISH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HGET', KEYS[1], ARGV[1]) == ARGV[2] then return redis.call('HDEL', KEYS[1], ARGV[1]) end " +
+            "return 0",
+            Long.class);
+
+    // KEYS: in-flight, pending. ARGV: eventId, expected in-flight value.
+    private static final RedisScript<Long> REQUEUE_SCRIPT = new DefaultRedisScript<>(
+            "local value = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if value ~= ARGV[2] then return 0 end " +
+            "local seats = tonumber(string.match(value, ':(%d+)$')) " +
+            "redis.call('HINCRBY', KEYS[2], ARGV[1], seats) " +
+            "redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "return seats",
+            Long.class);
+
+    // KEYS: in-flight, pending, lease. ARGV: eventId. Only hands seats back once no one holds the lease.
+    private static final RedisScript<Long> RECOVER_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[3]) == 1 then return 0 end " +
+            "local value = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if not value then return 0 end " +
+            "local seats = tonumber(string.match(value, ':(%d+)$')) " +
+            "redis.call('HINCRBY', KEYS[2], ARGV[1], seats) " +
+            "redis.call('HDEL', KEYS[1], ARGV[1]) " +
+            "return seats",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final EventRepository eventRepository;
+    private final WaitlistPromotionService waitlistPromotionService;
+    private final EmailNotificationService emailNotificationService;
+    private final BookingCommandBus bookingCommandBus;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    // Released seats that could not be published while Redis was down, flushed by the sweep.
+    private final Map<Long, Integer> unpublished = new ConcurrentHashMap<>();
+
+    @Value("${booking.promotion.workers:2}")
+    private int workers;
+
+    @Value("${booking.promotion.lease-ms:30000}")
+    private long leaseMillis;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "waitlist-promoter-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    // Published after the releasing transaction commits, so the promoter sees the freed seats.
+    @Override
+    public void seatsReleased(Long eventId, int seats) {
+        if (seats <= 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> publish(eventId, seats));
+    }
+
+    // Flushes signals that could not reach Redis, hands back seats whose promoter lost its lease
+    // mid-pass, and picks up signals whose wake-up raced with another node releasing its lease.
+    @Override
+    @Scheduled(fixedDelayString = "${booking.promotion.sweep-interval-ms:5000}")
+    public void sweepPendingPromotions() {
+        Set<Object> eventIds;
+        try {
+            flushUnpublished();
+            recoverInFlight();
+            eventIds = redisTemplate.opsForHash().keys(PENDING_KEY);
+        } catch (Exception e) {
+            log.error("Failed to read pending waitlist promotions. Error: {}", e.getMessage());
+            return;
+        }
+        for (Object eventId : eventIds) {
+            schedule(Long.valueOf(eventId.toString()));
+        }
+    }
+
+    private void publish(Long eventId, int seats) {
+        try {
+            redisTemplate.opsForHash().increment(PENDING_KEY, eventId.toString(), seats);
+        } catch (Exception e) {
+            unpublished.merge(eventId, seats, Integer::sum);
+            log.error("Failed to publish {} released seat(s) for event {}, will retry on the next sweep. Error: {}",
+                    seats, eventId, e.getMessage());
+            return;
+        }
+        schedule(eventId);
+    }
+
+    private void flushUnpublished() {
+        for (Long eventId : List.copyOf(unpublished.keySet())) {
+            Integer seats = unpublished.remove(eventId);
+            if (seats == null) {
+                continue;
+            }
+            try {
+                redisTemplate.opsForHash().increment(PENDING_KEY, eventId.toString(), seats);
+            } catch (Exception e) {
+                unpublished.merge(eventId, seats, Integer::sum);
+                throw e;
+            }
+        }
+    }
+
+    private void recoverInFlight() {
+        for (Object eventId : redisTemplate.opsForHash().keys(IN_FLIGHT_KEY)) {
+            Long seats = redisTemplate.execute(RECOVER_SCRIPT,
+                    List.of(IN_FLIGHT_KEY, PENDING_KEY, leaseKey(eventId)), eventId.toString());
+            if (seats != null && seats > 0) {
+                log.warn("Recovered {} in-flight seat(s) for event {} from an expired promotion lease", seats, eventId);
+            }
+        }
+    }
+
+    private void schedule(Long eventId) {
+        if (scheduled.add(eventId)) {
+            executor.execute(() -> {
+                scheduled.remove(eventId);
+                drain(eventId);
+            });
+        }
+    }
+
+    private void drain(Long eventId) {
+        String leaseKey = leaseKey(eventId);
+        String token = UUID.randomUUID().toString();
+        Boolean leased = redisTemplate.opsForValue().setIfAbsent(leaseKey, token, Duration.ofMillis(leaseMillis));
+        if (!Boolean.TRUE.equals(leased)) {
+            return;
+        }
+        try {
+            while (true) {
+                Long seats = redisTemplate.execute(TAKE_PENDING_SCRIPT,
+                        List.of(PENDING_KEY, IN_FLIGHT_KEY), eventId.toString(), token);
+                if (seats == null || seats <= 0) {
+                    return;
+                }
+                String inFlight = token + ":" + seats;
+                try {
+                    promote(eventId, seats.intValue());
+                } catch (Exception e) {
+                    redisTemplate.execute(REQUEUE_SCRIPT, List.of(IN_FLIGHT_KEY, PENDING_KEY), eventId.toString(), inFlight);
+                    log.error("Waitlist promotion for event {} failed, {} seat(s) requeued. Error: {}",
+                            eventId, seats, e.getMessage());
+                    return;
+                }
+                redisTemplate.execute(FINISH_SCRIPT, List.of(IN_FLIGHT_KEY), eventId.toString(), inFlight);
+            }
+        } finally {
+            redisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(leaseKey), token);
+        }
+    }
+
+    private static String leaseKey(Object eventId) {
+        return "promotion:" + eventId + ":lease";
+    }
+
+    private void promote(Long eventId, int seats) {
+        bookingCommandBus.execute(eventId, () -> transactionTemplate.execute(status -> {
+            Event event = eventRepository.findById(eventId).orElse(null);
+            if (event == null || !"PUBLISHED".equals(event.getStatus())) {
+                return null;
+            }
+            PromotionResultDto result = waitlistPromotionService.processWaitlistPromotions(event, seats);
+            if (result.isHasPromotions()) {
+                emailNotificationService.sendPromotionNotificationEmails(result.getPromotedUsers());
+            }
+            log.info("Waitlist promotion pass for event {} with {} released seat(s): {}",
+                    eventId, seats, result.getMessage());
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,98 @@
+package krashi.server.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker. After failureThreshold failures it opens for
+ * openDurationMillis, then lets a single probe through; the probe's outcome closes or
+ * re-opens the circuit.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis) {
+        this(name, failureThreshold, openDurationMillis, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMillis, LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.clock = clock;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    // Returns a permission that produced no verdict on the remote side (e.g. a local rejection).
+    public synchronized void releasePermission() {
+        probeInFlight = false;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    // Returns true when this failure tripped the circuit open.
+    public synchronized boolean onFailure() {
+        probeInFlight = false;
+        if (state == State.OPEN) {
+            return false;
+        }
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntil = clock.getAsLong() + openDurationMillis;
+            consecutiveFailures = 0;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() >= openUntil) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized long remainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, openUntil - clock.getAsLong()) : 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
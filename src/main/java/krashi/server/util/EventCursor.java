@@ -0,0 +1,51 @@
+package krashi.server.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import krashi.server.exception.BadRequestException;
+
+/**
+ * Opaque keyset cursor over (dateTime, id), the order every event listing is sorted by. A page
+ * continues strictly after the cursor, so paging cost does not grow with how deep the client is.
+ */
+public record EventCursor(LocalDateTime dateTime, long id) {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Sorts before every real event.
+    public static final EventCursor FIRST = new EventCursor(LocalDateTime.of(1, 1, 1, 0, 0), 0);
+
+    public String encode() {
+        String raw = dateTime.toEpochSecond(ZoneOffset.UTC) + ":" + dateTime.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null or blank means the first page.
+    public static EventCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(
+                    Long.parseLong(parts[0]), Integer.parseInt(parts[1]), ZoneOffset.UTC);
+            return new EventCursor(dateTime, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+
+    public static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (requested <= 0) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,156 @@
+package krashi.server.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import krashi.server.dto.CursorPageDto;
+import krashi.server.dto.EventResponseDto;
+
+/**
+ * Field-by-field binary encoding of catalog pages: a format byte, the page cursor and hasMore
+ * flag, the element count, then each DTO's fields in declaration order with a presence flag for nullable ones. No class names or
+ * field names are written, so entries are a fraction of their JSON size and cheap to decode.
+ * Bump FORMAT when the field list changes; entries in an unknown format read as a cache miss.
+ */
+public class EventPageSerializer implements RedisSerializer<CursorPageDto<EventResponseDto>> {
+
+    private static final byte FORMAT = 2;
+
+    @Override
+    public byte[] serialize(CursorPageDto<EventResponseDto> page) {
+        if (page == null) {
+            return null;
+        }
+        List<EventResponseDto> events = page.getItems();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + events.size() * 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            writeString(out, page.getNextCursor());
+            out.writeBoolean(page.isHasMore());
+            out.writeInt(events.size());
+            for (EventResponseDto event : events) {
+                writeLong(out, event.getId());
+                writeString(out, event.getTitle());
+                writeString(out, event.getDescription());
+                writeString(out, event.getDate());
+                writeString(out, event.getTime());
+                writeString(out, event.getEndDate());
+                writeString(out, event.getEndTime());
+                writeString(out, event.getLocation());
+                out.writeInt(event.getTotalSeats());
+                out.writeInt(event.getAvailableSeats());
+                writeString(out, event.getCategory());
+                writeString(out, event.getImageUrl());
+                out.writeDouble(event.getPrice());
+                writeString(out, event.getOrganizerName());
+                writeString(out, event.getOrganizerEmail());
+                writeString(out, event.getStatus());
+                writeDateTime(out, event.getCreatedAt());
+                writeDateTime(out, event.getUpdatedAt());
+                writeLong(out, event.getCreatedById());
+                writeString(out, event.getCreatedByName());
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize event page", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public CursorPageDto<EventResponseDto> deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes[0] != FORMAT) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            String nextCursor = readString(in);
+            boolean hasMore = in.readBoolean();
+            int size = in.readInt();
+            List<EventResponseDto> events = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                EventResponseDto event = new EventResponseDto();
+                event.setId(readLong(in));
+                event.setTitle(readString(in));
+                event.setDescription(readString(in));
+                event.setDate(readString(in));
+                event.setTime(readString(in));
+                event.setEndDate(readString(in));
+                event.setEndTime(readString(in));
+                event.setLocation(readString(in));
+                event.setTotalSeats(in.readInt());
+                event.setAvailableSeats(in.readInt());
+                event.setCategory(readString(in));
+                event.setImageUrl(readString(in));
+                event.setPrice(in.readDouble());
+                event.setOrganizerName(readString(in));
+                event.setOrganizerEmail(readString(in));
+                event.setStatus(readString(in));
+                event.setCreatedAt(readDateTime(in));
+                event.setUpdatedAt(readDateTime(in));
+                event.setCreatedById(readLong(in));
+                event.setCreatedByName(readString(in));
+                events.add(event);
+            }
+            return new CursorPageDto<>(events, nextCursor, hasMore);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to deserialize event page", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochSecond = in.readLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+    }
+}
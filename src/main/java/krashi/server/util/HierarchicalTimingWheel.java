@@ -0,0 +1,218 @@
+package krashi.server.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Multi-level timing wheel for long, numerous deadlines. Level 0 has one bucket per tick;
+ * each higher level's buckets span a full revolution of the level below. A timeout is filed
+ * in the lowest level whose range covers it and cascades down as its bucket comes due, so
+ * scheduling and cancelling are O(1) regardless of how far out the deadline is and each
+ * timeout is touched at most once per level. Timeouts beyond the top level are re-filed
+ * there until they come into range, so a single level is a plain hashed wheel.
+ */
+@Slf4j
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final int bits;
+    private final int mask;
+    private final Bucket[][] levels;
+    private final Executor executor;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startTime;
+
+    private volatile boolean running = true;
+    private long tick;
+
+    public HierarchicalTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize, int levelCount,
+                                   Executor executor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.bits = Integer.numberOfTrailingZeros(size);
+        if ((long) bits * levelCount >= 62) {
+            throw new IllegalArgumentException("Wheel size and level count exceed the tick range");
+        }
+        this.mask = size - 1;
+        this.levels = new Bucket[levelCount][size];
+        for (Bucket[] level : levels) {
+            for (int i = 0; i < size; i++) {
+                level[i] = new Bucket();
+            }
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.executor = executor;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel has been stopped");
+        }
+        long deadline = System.nanoTime() - startTime + Math.max(unit.toNanos(delay), 0);
+        Timeout timeout = new Timeout(task, deadline / tickNanos);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            transferPending();
+            if ((tick & mask) == 0) {
+                cascade(1);
+            }
+            expire(levels[0][(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (!timeout.cancelled) {
+                file(timeout);
+            }
+        }
+    }
+
+    private void file(Timeout timeout) {
+        long expiresAt = Math.max(timeout.deadlineTick, tick);
+        long delta = expiresAt - tick;
+        for (int level = 0; level < levels.length; level++) {
+            if (delta < 1L << (bits * (level + 1)) || level == levels.length - 1) {
+                long slotTick = level == levels.length - 1 && delta >= 1L << (bits * (level + 1))
+                        ? tick + (1L << (bits * (level + 1))) - 1
+                        : expiresAt;
+                levels[level][(int) ((slotTick >>> (bits * level)) & mask)].add(timeout);
+                return;
+            }
+        }
+    }
+
+    // Called when every lower level has completed a revolution: re-files the level's current
+    // bucket, which moves its timeouts down (or keeps far-future ones at the top).
+    private void cascade(int level) {
+        if (level >= levels.length) {
+            return;
+        }
+        int index = (int) ((tick >>> (bits * level)) & mask);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+        Bucket bucket = levels[level][index];
+        Timeout timeout = bucket.head;
+        bucket.head = null;
+        bucket.tail = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+            if (!timeout.cancelled) {
+                file(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.cancelled) {
+                bucket.remove(timeout);
+            } else if (timeout.deadlineTick <= tick) {
+                bucket.remove(timeout);
+                try {
+                    executor.execute(timeout.task);
+                } catch (RuntimeException e) {
+                    log.error("Failed to dispatch expired timeout. Error: {}", e.getMessage());
+                }
+            } else {
+                // Parked beyond the range of a single-level wheel; file it one revolution further.
+                bucket.remove(timeout);
+                file(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+        }
+    }
+}
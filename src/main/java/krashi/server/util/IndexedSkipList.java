@@ -0,0 +1,164 @@
+package krashi.server.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Skip list ordered by (score, id) whose links carry both the number of nodes and the total
+ * weight they skip. Rank and the weight of everything ahead of an element are therefore
+ * O(log n), as are inserts and removals. Not thread-safe.
+ */
+public final class IndexedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(Long.MIN_VALUE, Long.MIN_VALUE, 0, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+    private long totalWeight;
+
+    private static final class Node {
+        final long score;
+        final long id;
+        final int weight;
+        final Node[] next;
+        final int[] span;
+        final long[] weightSpan;
+
+        Node(long score, long id, int weight, int levels) {
+            this.score = score;
+            this.id = id;
+            this.weight = weight;
+            this.next = new Node[levels];
+            this.span = new int[levels];
+            this.weightSpan = new long[levels];
+        }
+    }
+
+    public record Rank(int position, long weightAhead) {
+    }
+
+    public boolean insert(long score, long id, int weight) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        long[] weightRank = new long[MAX_LEVEL];
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            weightRank[i] = i == level - 1 ? 0 : weightRank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], score, id) < 0) {
+                rank[i] += x.span[i];
+                weightRank[i] += x.weightSpan[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        if (x.next[0] != null && compare(x.next[0], score, id) == 0) {
+            return false;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                weightRank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+                head.weightSpan[i] = totalWeight;
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(score, id, weight, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+
+            node.weightSpan[i] = update[i].weightSpan[i] - (weightRank[0] - weightRank[i]);
+            update[i].weightSpan[i] = weightRank[0] - weightRank[i] + weight;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+            update[i].weightSpan[i] += weight;
+        }
+        size++;
+        totalWeight += weight;
+        return true;
+    }
+
+    public boolean remove(long score, long id) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, id) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node target = x.next[0];
+        if (target == null || compare(target, score, id) != 0) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].weightSpan[i] += target.weightSpan[i] - target.weight;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+                update[i].weightSpan[i] -= target.weight;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        totalWeight -= target.weight;
+        return true;
+    }
+
+    // 1-based position and the summed weight of all elements ordered before (score, id).
+    public Rank rank(long score, long id) {
+        int position = 0;
+        long weight = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], score, id) <= 0) {
+                position += x.span[i];
+                weight += x.weightSpan[i];
+                x = x.next[i];
+            }
+            if (x != head && x.score == score && x.id == id) {
+                return new Rank(position, weight - x.weight);
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long totalWeight() {
+        return totalWeight;
+    }
+
+    private static int compare(Node node, long score, long id) {
+        int byScore = Long.compare(node.score, score);
+        return byScore != 0 ? byScore : Long.compare(node.id, id);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
@@ -0,0 +1,143 @@
+package krashi.server.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mail body parsed once into literal segments and variable slots. Placeholders are written
+ * as {{name}} and bound, in declaration order, to the values passed to render. The same
+ * template renders a plain-text body and an HTML body with escaped values.
+ */
+public final class MailTemplate {
+
+    private static final String HTML_PREFIX =
+            "<html><body style=\"font-family:Arial,sans-serif;font-size:14px;line-height:1.5\">";
+    private static final String HTML_SUFFIX = "</body></html>";
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String[] textLiterals;
+    private final String[] htmlLiterals;
+    private final int[] slots;
+    private final int variableCount;
+
+    private MailTemplate(String[] textLiterals, int[] slots, int variableCount) {
+        this.textLiterals = textLiterals;
+        this.slots = slots;
+        this.variableCount = variableCount;
+        this.htmlLiterals = new String[textLiterals.length];
+        for (int i = 0; i < textLiterals.length; i++) {
+            htmlLiterals[i] = escapeHtml(textLiterals[i]).replace("\n", "<br>\n");
+        }
+    }
+
+    public static MailTemplate compile(String source, String... variables) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(open + 2, close).trim();
+            int slot = Arrays.asList(variables).indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Undeclared template variable: " + name);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            position = close + 2;
+        }
+        return new MailTemplate(literals.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray(), variables.length);
+    }
+
+    public String renderText(String... values) {
+        StringBuilder out = buffer();
+        renderInto(out, textLiterals, values, false);
+        return out.toString();
+    }
+
+    public String renderHtml(String... values) {
+        StringBuilder out = buffer();
+        out.append(HTML_PREFIX);
+        renderInto(out, htmlLiterals, values, true);
+        out.append(HTML_SUFFIX);
+        return out.toString();
+    }
+
+    private void renderInto(StringBuilder out, String[] literals, String[] values, boolean html) {
+        if (values.length != variableCount) {
+            throw new IllegalArgumentException("Expected " + variableCount + " values but got " + values.length);
+        }
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = values[slots[i]];
+            if (html) {
+                appendEscaped(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        return out;
+    }
+
+    // Joins two rendered HTML bodies into one document, each section headed by its subject.
+    public static String mergeHtml(String existing, String existingSubject, String addition, String additionSubject) {
+        String head = existing;
+        if (existingSubject != null) {
+            head = HTML_PREFIX + "<h3>" + escapeHtml(existingSubject) + "</h3>" + stripHtmlDocument(existing) + HTML_SUFFIX;
+        }
+        return head.substring(0, head.length() - HTML_SUFFIX.length())
+                + "<hr><h3>" + escapeHtml(additionSubject) + "</h3>"
+                + stripHtmlDocument(addition)
+                + HTML_SUFFIX;
+    }
+
+    public static String textToHtml(String text) {
+        return HTML_PREFIX + escapeHtml(text).replace("\n", "<br>\n") + HTML_SUFFIX;
+    }
+
+    private static String stripHtmlDocument(String html) {
+        if (html.startsWith(HTML_PREFIX) && html.endsWith(HTML_SUFFIX)) {
+            return html.substring(HTML_PREFIX.length(), html.length() - HTML_SUFFIX.length());
+        }
+        return html;
+    }
+
+    public static String escapeHtml(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        appendEscaped(out, value);
+        return out.toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
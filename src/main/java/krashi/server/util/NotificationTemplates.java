@@ -0,0 +1,102 @@
+package krashi.server.util;
+
+public final class NotificationTemplates {
+
+    private NotificationTemplates() {
+    }
+
+    public static final MailTemplate BOOKING_CONFIRMATION = MailTemplate.compile(
+            "Dear {{userName}},\n\n" +
+            "Your booking has been confirmed!\n\n" +
+            "Event Details:\n" +
+            "- Event: {{eventTitle}}\n" +
+            "- Date: {{eventDate}}\n" +
+            "- Time: {{eventTime}}\n" +
+            "- Location: {{eventLocation}}\n" +
+            "- Number of Seats: {{seats}}\n" +
+            "- Booking ID: {{bookingId}}\n\n" +
+            "We look forward to seeing you at the event!\n\n" +
+            "Best regards,\n" +
+            "Krashi Events Team",
+            "userName", "eventTitle", "eventDate", "eventTime", "eventLocation", "seats", "bookingId");
+
+    public static final MailTemplate WAITLIST_CONFIRMATION = MailTemplate.compile(
+            "Dear {{userName}},\n\n" +
+            "You have been added to the waitlist for the following event:\n\n" +
+            "Event Details:\n" +
+            "- Event: {{eventTitle}}\n" +
+            "- Date: {{eventDate}}\n" +
+            "- Time: {{eventTime}}\n" +
+            "- Location: {{eventLocation}}\n" +
+            "- Requested Seats: {{seats}}\n\n" +
+            "The event is currently full, but don't worry! You're now on our waitlist and will be automatically notified if seats become available.\n\n" +
+            "Best regards,\n" +
+            "Krashi Events Team",
+            "userName", "eventTitle", "eventDate", "eventTime", "eventLocation", "seats");
+
+    public static final MailTemplate PROMOTION_NOTIFICATION = MailTemplate.compile(
+            "Dear {{userName}},\n\n" +
+            "Excellent news! A seat has become available and you've been automatically moved from the waitlist to confirmed booking!\n\n" +
+            "Event Details:\n" +
+            "- Event: {{eventTitle}}\n" +
+            "- Confirmed Seats: {{seats}}\n" +
+            "- Booking ID: {{bookingId}}\n\n" +
+            "Your booking is now confirmed and you're all set to attend the event.\n\n" +
+            "Best regards,\n" +
+            "Krashi Events Team",
+            "userName", "eventTitle", "seats", "bookingId");
+
+    public static final MailTemplate WAITLIST_NOTICE = MailTemplate.compile(
+            "Dear {{userName}},\n\n" +
+            "There is an update for the waitlist you joined. Seats may now be available for the following event:\n\n" +
+            "Event Details:\n" +
+            "- Event: {{eventTitle}}\n" +
+            "- Date: {{eventDate}}\n" +
+            "- Time: {{eventTime}}\n" +
+            "- Location: {{eventLocation}}\n" +
+            "- Requested Seats: {{seats}}\n\n" +
+            "Please visit Krashi Events to check availability and complete your booking.\n\n" +
+            "Best regards,\n" +
+            "Krashi Events Team",
+            "userName", "eventTitle", "eventDate", "eventTime", "eventLocation", "seats");
+
+    public static final MailTemplate WAITLIST_OFFER = MailTemplate.compile(
+            "Dear {{userName}},\n\n" +
+            "Seats have opened up and are being held for you from the waitlist!\n\n" +
+            "Event Details:\n" +
+            "- Event: {{eventTitle}}\n" +
+            "- Date: {{eventDate}}\n" +
+            "- Time: {{eventTime}}\n" +
+            "- Location: {{eventLocation}}\n" +
+            "- Offered Seats: {{seats}}\n" +
+            "- Waitlist ID: {{waitlistId}}\n\n" +
+            "Please accept this offer by {{offerExpiresAt}}. If it is not accepted in time, the seats will be offered to the next person on the waitlist.\n\n" +
+            "Best regards,\n" +
+            "Krashi Events Team",
+            "userName", "eventTitle", "eventDate", "eventTime", "eventLocation", "seats", "waitlistId", "offerExpiresAt");
+
+    public static final MailTemplate BOOKING_CANCELLATION = MailTemplate.compile(
+            "Dear {{userName}},\n\n" +
+            "Your booking cancellation has been confirmed.\n\n" +
+            "Cancelled Booking Details:\n" +
+            "- Event: {{eventTitle}}\n" +
+            "- Date: {{eventDate}}\n" +
+            "- Time: {{eventTime}}\n" +
+            "- Location: {{eventLocation}}\n" +
+            "- Cancelled Seats: {{seats}}\n" +
+            "- Booking ID: {{bookingId}}\n\n" +
+            "Thank you for using Krashi Events.\n\n" +
+            "Best regards,\n" +
+            "Krashi Events Team",
+            "userName", "eventTitle", "eventDate", "eventTime", "eventLocation", "seats", "bookingId");
+
+    public static final MailTemplate PASSWORD_RESET_OTP = MailTemplate.compile(
+            "Dear User,\n\n" +
+            "You have requested to reset your password for Krashi Event Booking.\n\n" +
+            "Your OTP is: {{otp}}\n\n" +
+            "This OTP is valid for 5 minutes only. Please do not share this OTP with anyone.\n\n" +
+            "If you did not request this password reset, please ignore this email.\n\n" +
+            "Best regards,\n" +
+            "Krashi Event Booking Team",
+            "otp");
+}
@@ -0,0 +1,124 @@
+package krashi.server.util;
+
+import java.util.Arrays;
+
+/**
+ * Character trie over index terms, stored as parallel primitive arrays (label, first child, next
+ * sibling, term id) rather than node objects. Each distinct term gets a dense id in insertion
+ * order, which callers use to index their own per-term data. Not thread-safe.
+ */
+public final class PrefixTrie {
+
+    private static final int NONE = -1;
+
+    private char[] labels;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] termIds;
+    private int nodeCount;
+    private int termCount;
+
+    public PrefixTrie(int expectedNodes) {
+        int capacity = Math.max(expectedNodes, 16);
+        labels = new char[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        termIds = new int[capacity];
+        nodeCount = 1;
+        firstChild[0] = NONE;
+        nextSibling[0] = NONE;
+        termIds[0] = NONE;
+    }
+
+    public int termCount() {
+        return termCount;
+    }
+
+    // Returns the term's id, adding the term if it is new.
+    public int add(String term) {
+        int node = 0;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            int child = child(node, c);
+            if (child == NONE) {
+                child = newNode(c);
+                nextSibling[child] = firstChild[node];
+                firstChild[node] = child;
+            }
+            node = child;
+        }
+        if (termIds[node] == NONE) {
+            termIds[node] = termCount++;
+        }
+        return termIds[node];
+    }
+
+    // Id of an exact term, or -1.
+    public int get(String term) {
+        int node = find(term);
+        return node == NONE ? NONE : termIds[node];
+    }
+
+    /**
+     * Writes the ids of up to out.length terms starting with prefix into out and returns how
+     * many were written. Shorter terms come first, so the closest completions survive the cap.
+     */
+    public int collect(String prefix, int[] out) {
+        int start = find(prefix);
+        if (start == NONE || out.length == 0) {
+            return 0;
+        }
+        // Breadth-first over the subtree; each node is queued at most once.
+        int[] queue = new int[Math.min(nodeCount, 1024)];
+        int head = 0;
+        int tail = 0;
+        int written = 0;
+        queue[tail++] = start;
+        while (head < tail && written < out.length) {
+            int node = queue[head++];
+            if (termIds[node] != NONE) {
+                out[written++] = termIds[node];
+            }
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, queue.length * 2);
+                }
+                queue[tail++] = child;
+            }
+        }
+        return written;
+    }
+
+    private int find(String term) {
+        int node = 0;
+        for (int i = 0; i < term.length() && node != NONE; i++) {
+            node = child(node, term.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (labels[child] == c) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int newNode(char c) {
+        if (nodeCount == labels.length) {
+            int capacity = labels.length * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            termIds = Arrays.copyOf(termIds, capacity);
+        }
+        int node = nodeCount++;
+        labels[node] = c;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        termIds[node] = NONE;
+        return node;
+    }
+}
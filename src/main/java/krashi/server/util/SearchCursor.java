@@ -0,0 +1,36 @@
+package krashi.server.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import krashi.server.exception.BadRequestException;
+
+/**
+ * Opaque keyset cursor over (rank DESC, id) for relevance-ordered search results. The fuzzy flag
+ * records whether the first page fell back to trigram matching, so later pages stay on the same
+ * ranking. Ranks are Postgres reals and are carried as their exact bit pattern.
+ */
+public record SearchCursor(boolean fuzzy, float rank, long id) {
+
+    public String encode() {
+        String raw = (fuzzy ? "t" : "f") + ":" + Float.floatToIntBits(rank) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null or blank means the first page.
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (!parts[0].equals("t") && !parts[0].equals("f")) {
+                throw new IllegalArgumentException(parts[0]);
+            }
+            return new SearchCursor(parts[0].equals("t"),
+                    Float.intBitsToFloat(Integer.parseInt(parts[1])), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package krashi.server.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free in-memory seat count for one event. Bookings for an event all run
+ * on that event's booking partition thread, so a single atomic word is enough:
+ * the only other writers are hold and offer expiries handing seats back, and
+ * they rarely collide with the partition.
+ *
+ * The counter also tracks the net number of seats taken since the last
+ * {@link #drainUnflushed()} so the owner can write the change behind to the
+ * database in batches.
+ */
+public class SeatCounter {
+
+    private final AtomicInteger available;
+    private final AtomicInteger unflushed = new AtomicInteger();
+
+    public SeatCounter(int initialSeats) {
+        this.available = new AtomicInteger(initialSeats);
+    }
+
+    public boolean tryAcquire(int seats) {
+        while (true) {
+            int current = available.get();
+            if (current < seats) {
+                return false;
+            }
+            if (available.compareAndSet(current, current - seats)) {
+                unflushed.addAndGet(seats);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives seats back unless that would leave more than {@code capacity}
+     * available, which means the seats were never taken or were already
+     * returned.
+     */
+    public boolean release(int seats, int capacity) {
+        while (true) {
+            int current = available.get();
+            if (current + seats > capacity) {
+                return false;
+            }
+            if (available.compareAndSet(current, current + seats)) {
+                unflushed.addAndGet(-seats);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives seats back unconditionally. Only used to undo an acquire whose
+     * transaction rolled back.
+     */
+    public void forceRelease(int seats) {
+        available.addAndGet(seats);
+        unflushed.addAndGet(-seats);
+    }
+
+    /**
+     * Takes seats back unconditionally, letting the count go negative.
+     * Only used to undo a release whose transaction rolled back.
+     */
+    public void forceAcquire(int seats) {
+        available.addAndGet(-seats);
+        unflushed.addAndGet(seats);
+    }
+
+    public int available() {
+        return available.get();
+    }
+
+    public int drainUnflushed() {
+        return unflushed.getAndSet(0);
+    }
+
+    public void restoreUnflushed(int seats) {
+        unflushed.addAndGet(seats);
+    }
+}
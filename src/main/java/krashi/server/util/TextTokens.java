@@ -0,0 +1,34 @@
+package krashi.server.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits event text into the terms the in-memory indexes key on, so that browse filters and
+ * suggestions agree on what a word is.
+ */
+public final class TextTokens {
+
+    private TextTokens() {
+    }
+
+    // Lower-cased runs of letters and digits; null yields no tokens. The list is mutable.
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
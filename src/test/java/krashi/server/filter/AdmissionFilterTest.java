@@ -0,0 +1,113 @@
+package krashi.server.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import krashi.server.service.AdmissionService;
+
+class AdmissionFilterTest {
+
+    private static final long EVENT_ID = 4L;
+
+    private AdmissionService admissionService;
+    private AdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        admissionService = mock(AdmissionService.class);
+        when(admissionService.isWaitingRoomOpen(EVENT_ID)).thenReturn(true);
+        filter = new AdmissionFilter(admissionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void anonymousRequestsAreLeftToTheSecurityChain() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bookRequest(), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        verify(admissionService, never()).checkAdmission(anyLong(), any(), any());
+    }
+
+    @Test
+    void admittedBookingSpendsTheTicket() throws Exception {
+        signIn();
+        when(admissionService.checkAdmission(EVENT_ID, "alice", "t1")).thenReturn(AdmissionService.ADMITTED);
+
+        filter.doFilter(bookRequest(), new MockHttpServletResponse(), respondingWith(200));
+
+        verify(admissionService).ticketUsed(EVENT_ID, "alice", "t1", true);
+    }
+
+    @Test
+    void failedBookingHandsTheTicketBack() throws Exception {
+        signIn();
+        when(admissionService.checkAdmission(EVENT_ID, "alice", "t1")).thenReturn(AdmissionService.ADMITTED);
+
+        filter.doFilter(bookRequest(), new MockHttpServletResponse(), respondingWith(400));
+
+        verify(admissionService).ticketUsed(EVENT_ID, "alice", "t1", false);
+    }
+
+    @Test
+    void spentTicketIsTurnedAway() throws Exception {
+        signIn();
+        when(admissionService.checkAdmission(EVENT_ID, "alice", "t1")).thenReturn(AdmissionService.SPENT_TICKET);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(bookRequest(), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertNull(chain.getRequest());
+        verify(admissionService, never()).ticketUsed(anyLong(), anyString(), anyString(), anyBoolean());
+    }
+
+    private static MockHttpServletRequest bookRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/user/book/" + EVENT_ID + "/2");
+        request.addHeader(AdmissionFilter.TICKET_HEADER, "t1");
+        return request;
+    }
+
+    private static void signIn() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+    }
+
+    private static MockFilterChain respondingWith(int status) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                response.setStatus(status);
+            }
+        });
+    }
+}
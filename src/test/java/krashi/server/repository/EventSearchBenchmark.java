@@ -0,0 +1,176 @@
+package krashi.server.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the old title LIKE scan with the full-text and trigram searches in EventRepository,
+ * first page of 20, on a synthetic table of one million published events. The table is built
+ * once (several minutes) in the database named by -Dbench.url and reused by later runs. Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=krashi.server.repository.EventSearchBenchmark
+ * -Dbench.url=jdbc:postgresql://localhost:5432/bench -Dbench.user=postgres -Dbench.password=postgres
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    // Same shape as the production schema, on its own table so the benchmark never touches event.
+    private static final String[] SCHEMA = {
+        "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+        "CREATE TABLE IF NOT EXISTS event_search_bench (id bigint PRIMARY KEY, title varchar(255), " +
+        "description varchar(255), location varchar(255), organizer_name varchar(255), " +
+        "status varchar(255), date_time timestamp)",
+        "ALTER TABLE event_search_bench ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+        "setweight(to_tsvector('english', coalesce(title, '')), 'A') || " +
+        "setweight(to_tsvector('english', coalesce(organizer_name, '')), 'B') || " +
+        "setweight(to_tsvector('english', coalesce(location, '')), 'C') || " +
+        "setweight(to_tsvector('english', coalesce(description, '')), 'D')) STORED",
+    };
+
+    private static final String[] INDEXES = {
+        "CREATE INDEX IF NOT EXISTS idx_bench_search_vector ON event_search_bench USING GIN (search_vector)",
+        "CREATE INDEX IF NOT EXISTS idx_bench_title_trgm ON event_search_bench USING GIN (title gin_trgm_ops)",
+        "ANALYZE event_search_bench",
+    };
+
+    // Titles and descriptions are drawn from small word lists so that terms repeat at realistic rates.
+    private static final String SEED =
+        "WITH words AS (SELECT ARRAY['spring','kotlin','cloud','data','security','design','startup','rust'," +
+        "'python','devops','mobile','react','graph','machine','learning','product','growth','quantum'," +
+        "'blockchain','robotics'] AS w, ARRAY['workshop','conference','hackathon','meetup','webinar'," +
+        "'seminar','summit','bootcamp'] AS k, ARRAY['Bengaluru','Pune','Hyderabad','Chennai','Mumbai'," +
+        "'Delhi','Kolkata','Jaipur'] AS c) " +
+        "INSERT INTO event_search_bench (id, title, description, location, organizer_name, status, date_time) " +
+        "SELECT g, initcap(w[1 + g % 20] || ' ' || w[1 + (g / 20) % 20] || ' ' || k[1 + g % 8]) || ' ' || g, " +
+        "'A hands-on ' || k[1 + (g / 7) % 8] || ' about ' || w[1 + (g / 3) % 20] || ' and ' || " +
+        "w[1 + (g / 11) % 20] || ' for practitioners', " +
+        "'Hall ' || (g % 12) || ', ' || c[1 + g % 8], 'Organizer ' || (g % 5000), " +
+        "CASE WHEN g % 10 = 0 THEN 'DRAFT' ELSE 'PUBLISHED' END, " +
+        "timestamp '2026-01-01' + (g % 100000) * interval '5 minutes' " +
+        "FROM words, generate_series(1, " + ROWS + ") g ON CONFLICT (id) DO NOTHING";
+
+    private static final String LIKE_SCAN =
+        "SELECT id, title FROM event_search_bench WHERE status = 'PUBLISHED' " +
+        "AND lower(title) LIKE lower('%' || ? || '%') ORDER BY date_time, id LIMIT 20";
+
+    private static final String FULL_TEXT =
+        "WITH q AS (SELECT websearch_to_tsquery('english', ?) AS tsq), " +
+        "page AS (SELECT e.id, ts_rank_cd(e.search_vector, q.tsq) AS rank FROM event_search_bench e CROSS JOIN q " +
+        "WHERE e.status = 'PUBLISHED' AND e.search_vector @@ q.tsq ORDER BY rank DESC, e.id LIMIT 21) " +
+        "SELECT e.id, p.rank, ts_headline('english', e.title, q.tsq, 'StartSel=<mark>, StopSel=</mark>, HighlightAll=true'), " +
+        "ts_headline('english', coalesce(e.description, ''), q.tsq, " +
+        "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5') " +
+        "FROM page p JOIN event_search_bench e ON e.id = p.id CROSS JOIN q ORDER BY p.rank DESC, p.id";
+
+    private static final String FUZZY =
+        "SELECT e.id, word_similarity(?, e.title) AS rank FROM event_search_bench e " +
+        "WHERE e.status = 'PUBLISHED' AND ? <% e.title ORDER BY rank DESC, e.id LIMIT 21";
+
+    @Param({"kotlin workshop", "quantum"})
+    private String query;
+
+    @Param({"qantum robotcs"})
+    private String misspelled;
+
+    private Connection connection;
+    private PreparedStatement likeScan;
+    private PreparedStatement fullText;
+    private PreparedStatement fuzzy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.url", "jdbc:postgresql://localhost:5432/bench"),
+                System.getProperty("bench.user", "postgres"),
+                System.getProperty("bench.password", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+            try (ResultSet count = statement.executeQuery("SELECT count(*) FROM event_search_bench")) {
+                count.next();
+                if (count.getLong(1) < ROWS) {
+                    statement.execute(SEED);
+                }
+            }
+            for (String ddl : INDEXES) {
+                statement.execute(ddl);
+            }
+            statement.execute("SET pg_trgm.word_similarity_threshold = 0.4");
+        }
+        likeScan = connection.prepareStatement(LIKE_SCAN);
+        fullText = connection.prepareStatement(FULL_TEXT);
+        fuzzy = connection.prepareStatement(FUZZY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void titleLikeScan(Blackhole blackhole) throws SQLException {
+        likeScan.setString(1, query);
+        drain(likeScan, blackhole);
+    }
+
+    @Benchmark
+    public void fullTextRanked(Blackhole blackhole) throws SQLException {
+        fullText.setString(1, query);
+        drain(fullText, blackhole);
+    }
+
+    @Benchmark
+    public void trigramFallback(Blackhole blackhole) throws SQLException {
+        fuzzy.setString(1, misspelled);
+        fuzzy.setString(2, misspelled);
+        drain(fuzzy, blackhole);
+    }
+
+    private static void drain(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getLong(1));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventSearchBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-Dbench.url=" + System.getProperty("bench.url", "jdbc:postgresql://localhost:5432/bench"),
+                        "-Dbench.user=" + System.getProperty("bench.user", "postgres"),
+                        "-Dbench.password=" + System.getProperty("bench.password", "postgres"))
+                .build()).run();
+    }
+}
@@ -0,0 +1,259 @@
+package krashi.server.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import krashi.server.entity.Event;
+import krashi.server.entity.UserInfo;
+import krashi.server.entity.Waitlist;
+import krashi.server.service.serviceImpl.WaitlistCacheImpl;
+import krashi.server.support.PostgresTestDatabase;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(WaitlistCacheImpl.class)
+class WaitlistRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry, "waitlist_repository_test");
+    }
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WaitlistCacheImpl waitlistCache;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE booking, waitlist, email_outbox, event, user_info RESTART IDENTITY CASCADE");
+        Event newEvent = new Event();
+        newEvent.setTitle("Spring Meetup");
+        newEvent.setStatus("PUBLISHED");
+        newEvent.setDateTime(START.plusDays(30));
+        event = eventRepository.save(newEvent);
+    }
+
+    @Test
+    void notifyWaitingChunkFlipsTheQueueHeadAndQueuesOneNoticeEach() {
+        Waitlist first = join("Ann <b>&</b> 'Lee'", 2, START);
+        Waitlist second = join("Bob", 1, START.plusSeconds(1));
+        Waitlist third = join("Cid", 3, START.plusSeconds(2));
+
+        List<Long> notified = transactionTemplate.execute(status -> notifyChunk(2));
+
+        assertEquals(List.of(first.getId(), second.getId()), notified);
+        assertEquals("NOTIFIED", waitlistRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals("WAITING", waitlistRepository.findById(third.getId()).orElseThrow().getStatus());
+
+        List<Map<String, Object>> outbox = jdbcTemplate.queryForList(
+                "SELECT recipient, subject, body, html_body, status FROM email_outbox ORDER BY id");
+        assertEquals(2, outbox.size());
+        Map<String, Object> annMail = outbox.stream()
+                .filter(row -> row.get("recipient").equals(first.getUser().getEmail()))
+                .findFirst().orElseThrow();
+        assertEquals("Waitlist Update - Spring Meetup", annMail.get("subject"));
+        assertEquals("PENDING", annMail.get("status"));
+        assertEquals("Dear Ann <b>&</b> 'Lee', seats 2", annMail.get("body"));
+        assertEquals("<p>Ann &lt;b&gt;&amp;&lt;/b&gt; &#39;Lee&#39; / 2</p>", annMail.get("html_body"));
+
+        assertEquals(List.of(third.getId()), transactionTemplate.execute(status -> notifyChunk(2)));
+        assertTrue(transactionTemplate.execute(status -> notifyChunk(2)).isEmpty());
+    }
+
+    @Test
+    void noticesRollBackWithTheStatusChange() {
+        Waitlist entry = join("Ann", 2, START);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notifyChunk(10);
+            status.setRollbackOnly();
+        });
+
+        assertEquals("WAITING", waitlistRepository.findById(entry.getId()).orElseThrow().getStatus());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM email_outbox", Integer.class));
+    }
+
+    @Test
+    void notifiedEntriesNoLongerCountAsMembership() {
+        Waitlist waiting = join("Ann", 2, START);
+        Waitlist notified = join("Bob", 1, START.plusSeconds(1));
+        jdbcTemplate.update("UPDATE waitlist SET status = 'NOTIFIED' WHERE id = ?", notified.getId());
+
+        List<Object[]> active = waitlistRepository.findActiveEntries(event.getId());
+
+        assertEquals(1, active.size());
+        assertEquals(waiting.getId(), ((Number) active.get(0)[0]).longValue());
+    }
+
+    @Test
+    void expireOfferOnlyExpiresOpenOffersPastTheirDeadline() {
+        LocalDateTime now = LocalDateTime.now();
+        Waitlist open = offer(join("Ann", 2, START), now.plusMinutes(5));
+        Waitlist due = offer(join("Bob", 1, START.plusSeconds(1)), now.minusSeconds(1));
+        Waitlist waiting = join("Cid", 3, START.plusSeconds(2));
+
+        assertEquals(0, waitlistRepository.expireOffer(open.getId(), now));
+        assertEquals(0, waitlistRepository.expireOffer(waiting.getId(), now));
+        assertEquals(1, waitlistRepository.expireOffer(due.getId(), now));
+        assertEquals(0, waitlistRepository.expireOffer(due.getId(), now));
+
+        assertEquals("OFFERED", waitlistRepository.findById(open.getId()).orElseThrow().getStatus());
+        assertEquals("EXPIRED", waitlistRepository.findById(due.getId()).orElseThrow().getStatus());
+        assertEquals("WAITING", waitlistRepository.findById(waiting.getId()).orElseThrow().getStatus());
+        // An expired offer can no longer be claimed, and a claimed one can no longer expire.
+        assertEquals(0, waitlistRepository.claimOffer(due.getId(), now));
+        assertEquals(1, waitlistRepository.claimOffer(open.getId(), now));
+        assertEquals(0, waitlistRepository.expireOffer(open.getId(), now.plusMinutes(10)));
+    }
+
+    @Test
+    void membershipIndexRejectsASecondActiveEntryForTheSameUser() {
+        waitlistCache.createMembershipIndex();
+        Waitlist first = join("Ann", 2, START);
+
+        assertThrows(DataIntegrityViolationException.class, () -> rejoin(first));
+
+        // Entries that are no longer active do not block joining again.
+        jdbcTemplate.update("UPDATE waitlist SET status = 'NOTIFIED' WHERE id = ?", first.getId());
+        Waitlist second = rejoin(first);
+        jdbcTemplate.update("UPDATE waitlist SET status = 'EXPIRED' WHERE id = ?", second.getId());
+        rejoin(first);
+    }
+
+    @Test
+    void insertFromWaitlistBooksOnlyEntriesStillWaiting() {
+        Waitlist stays = join("Ann", 2, START);
+        Waitlist leaves = join("Bob", 1, START.plusSeconds(1));
+        Waitlist notified = join("Cid", 3, START.plusSeconds(2));
+        List<Long> head = waitlistRepository.findWaitingQueueHead(event.getId(), PageRequest.of(0, 3)).stream()
+                .map(Waitlist::getId).toList();
+
+        // Between the head read and the insert one user leaves and another is notified.
+        waitlistRepository.deleteById(leaves.getId());
+        jdbcTemplate.update("UPDATE waitlist SET status = 'NOTIFIED' WHERE id = ?", notified.getId());
+        List<Object[]> booked = transactionTemplate.execute(status ->
+                bookingRepository.insertFromWaitlist(head, LocalDateTime.now()));
+
+        assertEquals(1, booked.size());
+        assertEquals(stays.getUser().getId(), ((Number) booked.get(0)[1]).longValue());
+        assertEquals(2, ((Number) booked.get(0)[2]).intValue());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM booking", Integer.class));
+    }
+
+    @Test
+    void lockedHeadEntriesAreSkippedByAConcurrentPromotion() throws Exception {
+        Waitlist first = join("Ann", 2, START);
+        Waitlist second = join("Bob", 1, START.plusSeconds(1));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            waitlistRepository.lockWaitingQueueHeadIds(event.getId(), 1);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            List<Long> head = transactionTemplate.execute(status ->
+                    waitlistRepository.lockWaitingQueueHeadIds(event.getId(), 2));
+
+            assertEquals(List.of(second.getId()), head);
+            // The user row is not locked along with the entry.
+            assertEquals(1, jdbcTemplate.update("UPDATE user_info SET name = 'Ann B' WHERE id = ?",
+                    first.getUser().getId()));
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+        assertEquals(List.of(first.getId(), second.getId()), waitlistRepository
+                .findWaitingQueueHead(event.getId(), PageRequest.of(0, 2)).stream().map(Waitlist::getId).toList());
+    }
+
+    private Waitlist rejoin(Waitlist previous) {
+        Waitlist waitlist = new Waitlist();
+        waitlist.setUser(previous.getUser());
+        waitlist.setEvent(event);
+        waitlist.setRequestedSeats(1);
+        waitlist.setStatus("WAITING");
+        waitlist.setJoinedAt(LocalDateTime.now());
+        return waitlistRepository.save(waitlist);
+    }
+
+    private Waitlist offer(Waitlist waitlist, LocalDateTime expiresAt) {
+        waitlist.setStatus("OFFERED");
+        waitlist.setNotifiedAt(LocalDateTime.now());
+        waitlist.setOfferExpiresAt(expiresAt);
+        return waitlistRepository.save(waitlist);
+    }
+
+    private List<Long> notifyChunk(int limit) {
+        return waitlistRepository.notifyWaitingChunk(event.getId(), LocalDateTime.now(), limit,
+                "Waitlist Update - Spring Meetup", "Dear {{userName}}, seats {{seats}}", "<p>{{userName}} / {{seats}}</p>");
+    }
+
+    private Waitlist join(String name, int seats, LocalDateTime joinedAt) {
+        UserInfo user = new UserInfo();
+        user.setName(name);
+        user.setUserName("user" + joinedAt.getSecond());
+        user.setEmail("user" + joinedAt.getSecond() + "@example.com");
+        user.setRole("USER");
+        user = userInfoRepository.save(user);
+
+        Waitlist waitlist = new Waitlist();
+        waitlist.setUser(user);
+        waitlist.setEvent(event);
+        waitlist.setRequestedSeats(seats);
+        waitlist.setStatus("WAITING");
+        waitlist.setJoinedAt(joinedAt);
+        return waitlistRepository.save(waitlist);
+    }
+}
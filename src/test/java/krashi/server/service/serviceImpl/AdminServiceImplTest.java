@@ -0,0 +1,103 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import krashi.server.dto.WaitlistNoticeDto;
+import krashi.server.entity.Event;
+import krashi.server.entity.UserInfo;
+import krashi.server.repository.BookingRepository;
+import krashi.server.repository.EventFeedbackRepository;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.AdmissionService;
+import krashi.server.service.AuthenticationService;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.EventCatalogCache;
+import krashi.server.service.EventDetailCache;
+import krashi.server.service.EventSuggestIndex;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.service.WaitlistPositionService;
+
+class AdminServiceImplTest {
+
+    private static final long EVENT_ID = 6L;
+
+    private WaitlistRepository waitlistRepository;
+    private WaitlistCache waitlistCache;
+    private PlatformTransactionManager transactionManager;
+    private AdminServiceImpl adminService;
+
+    @BeforeEach
+    void setUp() {
+        UserInfo admin = new UserInfo();
+        admin.setId(1L);
+        Event event = new Event();
+        event.setId(EVENT_ID);
+        event.setCreatedBy(admin);
+
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+        AuthenticationService authenticationService = mock(AuthenticationService.class);
+        when(authenticationService.getCurrentAdmin()).thenReturn(admin);
+        EmailNotificationService emailNotificationService = mock(EmailNotificationService.class);
+        when(emailNotificationService.renderWaitlistNotice(event)).thenReturn(new WaitlistNoticeDto("s", "t", "h"));
+
+        waitlistRepository = mock(WaitlistRepository.class);
+        waitlistCache = mock(WaitlistCache.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        adminService = new AdminServiceImpl(eventRepository, mock(BookingRepository.class), waitlistRepository,
+                mock(EventFeedbackRepository.class), authenticationService, mock(FlashSaleService.class),
+                mock(AdmissionService.class), emailNotificationService, mock(WaitlistPositionService.class),
+                waitlistCache, mock(EventDetailCache.class), mock(EventCatalogCache.class),
+                mock(EventSuggestIndex.class), new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void eachChunkCommitsInItsOwnTransaction() {
+        List<Long> full = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(waitlistRepository.notifyWaitingChunk(eq(EVENT_ID), any(LocalDateTime.class), anyInt(),
+                anyString(), anyString(), anyString())).thenReturn(full, full, List.of(1001L));
+
+        assertEquals("Notified 1001 users on waitlist", adminService.notifyWaitlistUsers(EVENT_ID).getBody());
+        verify(transactionManager, times(3)).commit(any());
+        verify(waitlistCache, times(3)).onRemoved(eq(EVENT_ID), anyList());
+    }
+
+    // Chunks already committed stay notified and leave the caches when a later one fails.
+    @Test
+    void failedChunkKeepsEarlierChunks() {
+        List<Long> full = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(waitlistRepository.notifyWaitingChunk(eq(EVENT_ID), any(LocalDateTime.class), anyInt(),
+                anyString(), anyString(), anyString())).thenReturn(full).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> adminService.notifyWaitlistUsers(EVENT_ID));
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(waitlistCache).onRemoved(EVENT_ID, full);
+    }
+}
@@ -0,0 +1,83 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import krashi.server.service.AdmissionService;
+import krashi.server.service.AuthenticationService;
+
+class AdmissionServiceImplTest {
+
+    private static final long EVENT_ID = 4L;
+
+    private final Map<String, String> redis = new HashMap<>();
+    private AdmissionServiceImpl admissionService;
+    private String ticket;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(redisTemplate.opsForHash()).thenReturn(mock(HashOperations.class));
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation ->
+                redis.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> redis.remove(invocation.<String>getArgument(0)) != null);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("admission:{4}:issued", "admission:{4}:tickets")),
+                anyString(), anyString(), anyString())).thenReturn("1:" + System.currentTimeMillis());
+
+        AuthenticationService authenticationService = mock(AuthenticationService.class);
+        when(authenticationService.getCurrentUsername()).thenReturn("alice");
+        admissionService = new AdmissionServiceImpl(authenticationService, redisTemplate, "secret");
+        ReflectionTestUtils.setField(admissionService, "ticketTtlMinutes", 30L);
+        admissionService.openWaitingRoom(EVENT_ID, 10);
+        ticket = admissionService.joinQueue(EVENT_ID).getTicket();
+        admittedUpTo(1);
+    }
+
+    @Test
+    void ticketAdmitsOneRequestAtATime() {
+        assertEquals(AdmissionService.ADMITTED, admissionService.checkAdmission(EVENT_ID, "alice", ticket));
+        assertEquals(AdmissionService.SPENT_TICKET, admissionService.checkAdmission(EVENT_ID, "alice", ticket));
+
+        admissionService.ticketUsed(EVENT_ID, "alice", ticket, true);
+        assertEquals(AdmissionService.SPENT_TICKET, admissionService.checkAdmission(EVENT_ID, "alice", ticket));
+    }
+
+    @Test
+    void failedRequestCanRetryWithTheSameTicket() {
+        assertEquals(AdmissionService.ADMITTED, admissionService.checkAdmission(EVENT_ID, "alice", ticket));
+        admissionService.ticketUsed(EVENT_ID, "alice", ticket, false);
+
+        assertEquals(AdmissionService.ADMITTED, admissionService.checkAdmission(EVENT_ID, "alice", ticket));
+    }
+
+    @Test
+    void ticketIsBoundToItsHolder() {
+        assertEquals(AdmissionService.INVALID_TICKET, admissionService.checkAdmission(EVENT_ID, "mallory", ticket));
+        assertEquals(AdmissionService.ADMITTED, admissionService.checkAdmission(EVENT_ID, "alice", ticket));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void admittedUpTo(long sequence) {
+        ((Map<Long, Long>) ReflectionTestUtils.getField(admissionService, "admittedByRoom")).put(EVENT_ID, sequence);
+    }
+}
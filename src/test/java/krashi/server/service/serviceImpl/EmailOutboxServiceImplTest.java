@@ -0,0 +1,286 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import krashi.server.entity.EmailOutbox;
+import krashi.server.repository.EmailOutboxRepository;
+import krashi.server.support.FaultInjectingSmtpServer;
+import krashi.server.support.PostgresTestDatabase;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ EmailOutboxServiceImpl.class, MailTransportImpl.class, EmailOutboxServiceImplTest.SmtpConfig.class })
+@TestPropertySource(properties = {
+        "notification.outbox.batch-size=5",
+        "notification.outbox.max-attempts=3",
+        "notification.outbox.backoff-base-seconds=5",
+        "notification.transport.breaker.failure-threshold=100",
+        "notification.digest.max-messages=3"
+})
+class EmailOutboxServiceImplTest {
+
+    @TestConfiguration
+    static class SmtpConfig {
+        @Bean(destroyMethod = "close")
+        FaultInjectingSmtpServer smtpServer() throws Exception {
+            return new FaultInjectingSmtpServer();
+        }
+
+        @Bean
+        JavaMailSenderImpl mailSender(FaultInjectingSmtpServer smtpServer) {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("127.0.0.1");
+            sender.setPort(smtpServer.getPort());
+            return sender;
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry, "email_outbox_test");
+    }
+
+    @Autowired
+    private EmailOutboxServiceImpl emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private FaultInjectingSmtpServer smtpServer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        emailOutboxService.createDigestIndex();
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.HEALTHY);
+    }
+
+    @Test
+    void claimSkipsRowsLockedByAnotherTransaction() throws Exception {
+        enqueue(10);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Set<Long>> holder = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Set<Long> ids = ids(emailOutboxRepository.lockDueMessages(LocalDateTime.now(), 4));
+            locked.countDown();
+            await(release);
+            return ids;
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        Set<Long> claimed = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> transactionTemplate.execute(status ->
+                ids(emailOutboxRepository.lockDueMessages(LocalDateTime.now(), 10))));
+        release.countDown();
+        Set<Long> held = holder.get(5, TimeUnit.SECONDS);
+
+        assertEquals(4, held.size());
+        assertEquals(6, claimed.size());
+        assertTrue(claimed.stream().noneMatch(held::contains));
+    }
+
+    @Test
+    void concurrentDispatchersDeliverEachMessageOnce() throws Exception {
+        enqueue(20);
+        int deliveredBefore = smtpServer.getDeliveredCount();
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.SLOW);
+        smtpServer.setResponseDelayMillis(200);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(emailOutboxService::dispatchPending);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(emailOutboxService::dispatchPending);
+        CompletableFuture.allOf(first, second).get(30, TimeUnit.SECONDS);
+
+        assertEquals(20, smtpServer.getDeliveredCount() - deliveredBefore);
+        assertEquals(20, emailOutboxRepository.countByStatus("SENT"));
+    }
+
+    @Test
+    void failedSendIsRetriedWithExponentialBackoff() {
+        enqueue(1);
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.FAILING);
+
+        LocalDateTime before = LocalDateTime.now();
+        emailOutboxService.dispatchPending();
+        EmailOutbox message = single();
+        assertEquals("PENDING", message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getLastError());
+        assertBetween(before.plusSeconds(5), LocalDateTime.now().plusSeconds(5), message.getNextAttemptAt());
+
+        // Not due yet, so the next pass leaves it alone.
+        int sessions = smtpServer.getSessionCount();
+        emailOutboxService.dispatchPending();
+        assertEquals(sessions, smtpServer.getSessionCount());
+
+        makeDue();
+        before = LocalDateTime.now();
+        emailOutboxService.dispatchPending();
+        message = single();
+        assertEquals(2, message.getAttempts());
+        assertBetween(before.plusSeconds(10), LocalDateTime.now().plusSeconds(10), message.getNextAttemptAt());
+
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.HEALTHY);
+        makeDue();
+        emailOutboxService.dispatchPending();
+        message = single();
+        assertEquals("SENT", message.getStatus());
+        assertNotNull(message.getSentAt());
+    }
+
+    @Test
+    void messageIsDeadLetteredAfterMaxAttempts() {
+        enqueue(1);
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.FAILING);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            emailOutboxService.dispatchPending();
+            makeDue();
+        }
+        EmailOutbox message = single();
+        assertEquals("DEAD", message.getStatus());
+        assertEquals(3, message.getAttempts());
+
+        int sessions = smtpServer.getSessionCount();
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.HEALTHY);
+        emailOutboxService.dispatchPending();
+        assertEquals(sessions, smtpServer.getSessionCount());
+        assertEquals("DEAD", single().getStatus());
+    }
+
+    @Test
+    void digestibleMailsFoldIntoOneRowUntilFull() {
+        for (int i = 0; i < 4; i++) {
+            int n = i;
+            transactionTemplate.executeWithoutResult(status ->
+                    emailOutboxService.enqueueDigestible("fan@example.com", "Notice " + n, "body " + n, null));
+        }
+
+        List<EmailOutbox> rows = emailOutboxRepository.findAll().stream()
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId())).toList();
+        assertEquals(2, rows.size());
+        assertEquals(3, rows.get(0).getDigestCount());
+        assertFalse(rows.get(0).isDigest());
+        assertEquals(1, rows.get(1).getDigestCount());
+        assertTrue(rows.get(1).isDigest());
+    }
+
+    // Both transactions find no open digest; the second waits on the index and appends instead.
+    @Test
+    void racingFirstMailsShareOneDigest() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            emailOutboxService.enqueueDigestible("fan@example.com", "First", "one", null);
+            inserted.countDown();
+            await(release);
+        }));
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status ->
+                emailOutboxService.enqueueDigestible("fan@example.com", "Second", "two", null)));
+        Thread.sleep(200);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        EmailOutbox digest = single();
+        assertEquals(2, digest.getDigestCount());
+        assertTrue(digest.getBody().contains("one") && digest.getBody().contains("two"));
+    }
+
+    @Test
+    void claimedDigestTakesNoMoreMails() {
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxService.enqueueDigestible("fan@example.com", "First", "one", null));
+        makeDue();
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.FAILING);
+        emailOutboxService.dispatchPending();
+
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxService.enqueueDigestible("fan@example.com", "Second", "two", null));
+
+        List<EmailOutbox> rows = emailOutboxRepository.findAll();
+        assertEquals(2, rows.size());
+        assertTrue(rows.stream().allMatch(row -> row.getDigestCount() == 1));
+    }
+
+    private void enqueue(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                emailOutboxService.enqueue("user" + i + "@example.com", "Booking Confirmation", "body " + i);
+            }
+        });
+    }
+
+    private void makeDue() {
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = now() - interval '1 second' WHERE status = 'PENDING'");
+    }
+
+    private EmailOutbox single() {
+        List<EmailOutbox> all = emailOutboxRepository.findAll();
+        assertEquals(1, all.size());
+        return all.get(0);
+    }
+
+    private static Set<Long> ids(List<EmailOutbox> messages) {
+        return messages.stream().map(EmailOutbox::getId).collect(Collectors.toSet());
+    }
+
+    private static void assertBetween(LocalDateTime from, LocalDateTime to, LocalDateTime actual) {
+        assertTrue(!actual.isBefore(from.minusSeconds(1)) && !actual.isAfter(to.plusSeconds(1)),
+                () -> actual + " not within [" + from + ", " + to + "]");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
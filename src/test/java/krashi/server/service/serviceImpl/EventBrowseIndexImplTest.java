@@ -0,0 +1,244 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import krashi.server.dto.EventBrowseRequestDto;
+import krashi.server.dto.EventBrowseResultDto;
+import krashi.server.dto.EventResponseDto;
+import krashi.server.exception.BadRequestException;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.projection.EventView;
+
+class EventBrowseIndexImplTest {
+
+    private static final String[] CATEGORIES = {"MUSIC", "Tech", "sports", null};
+    private static final String[] LOCATIONS = {"Pune City", "Mumbai", "New Delhi", "Delhi Cantt", "Navi Mumbai, MH", null};
+    private static final double[] PRICES = {0, 100, 499.99, 500, 750, 1000, 2499, 2500, 4999, 5000, 9000};
+
+    private record Row(long id, LocalDateTime dateTime, String category, String location, double price, int seats) {
+    }
+
+    private final Random random = new Random(11);
+    private final List<Row> rows = new ArrayList<>();
+    private final LocalDate today = LocalDate.now();
+
+    private EventBrowseIndexImpl browseIndex;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 300; id++) {
+            // Two slots a day, so many events share a dateTime and are ordered by id.
+            LocalDateTime dateTime = today.plusDays(1 + random.nextInt(40)).atTime(random.nextBoolean() ? 10 : 18, 0);
+            double price = random.nextInt(4) == 0 ? random.nextInt(8000) : PRICES[random.nextInt(PRICES.length)];
+            rows.add(new Row(id, dateTime, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    LOCATIONS[random.nextInt(LOCATIONS.length)], price, random.nextInt(3)));
+        }
+        rows.sort(Comparator.comparing(Row::dateTime).thenComparingLong(Row::id));
+
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findBrowseRows(any())).thenAnswer(invocation -> rows.stream()
+                .map(row -> new Object[] {row.id(), row.dateTime(), row.category(), row.location(), row.price(), row.seats()})
+                .collect(Collectors.toList()));
+        Map<Long, EventView> viewsById = new HashMap<>();
+        for (Row row : rows) {
+            EventView view = mock(EventView.class);
+            when(view.getId()).thenReturn(row.id());
+            viewsById.put(row.id(), view);
+        }
+        // Views come back in no particular order, as from an IN query.
+        when(eventRepository.findViewsByIds(anyList())).thenAnswer(invocation -> {
+            List<EventView> views = new ArrayList<>();
+            for (Long id : invocation.<List<Long>>getArgument(0)) {
+                views.add(0, viewsById.get(id));
+            }
+            return views;
+        });
+
+        browseIndex = new EventBrowseIndexImpl(eventRepository);
+        ReflectionTestUtils.setField(browseIndex, "refreshMillis", 3_600_000L);
+        browseIndex.refreshIfStale();
+    }
+
+    @Test
+    void everyFilterCombinationMatchesBruteForce() {
+        for (int round = 0; round < 500; round++) {
+            EventBrowseRequestDto request = randomRequest();
+            request.setSize(1 + random.nextInt(25));
+
+            List<Row> expected = rows.stream().filter(row -> matches(row, request, true, true)).toList();
+            List<Long> seen = new ArrayList<>();
+            EventBrowseResultDto page = browseIndex.browse(request);
+            assertEquals(expected.size(), page.getTotal(), () -> describe(request));
+            assertEquals(expectedCategoryFacets(request), page.getCategoryFacets(), () -> describe(request));
+            assertEquals(expectedPriceFacets(request), page.getPriceFacets(), () -> describe(request));
+            while (true) {
+                page.getItems().stream().map(EventResponseDto::getId).forEach(seen::add);
+                if (!page.isHasMore()) {
+                    break;
+                }
+                request.setCursor(page.getNextCursor());
+                page = browseIndex.browse(request);
+            }
+
+            assertEquals(expected.stream().map(Row::id).toList(), seen, () -> describe(request));
+        }
+    }
+
+    @Test
+    void unknownCategoryOrLocationMatchesNothing() {
+        EventBrowseRequestDto request = new EventBrowseRequestDto();
+        request.setCategory("opera");
+        assertEquals(0, browseIndex.browse(request).getTotal());
+
+        request = new EventBrowseRequestDto();
+        request.setLocation("Pune Goa");
+        EventBrowseResultDto result = browseIndex.browse(request);
+        assertEquals(0, result.getTotal());
+        assertFalse(result.isHasMore());
+    }
+
+    @Test
+    void invalidFiltersAreRejected() {
+        EventBrowseRequestDto backwards = new EventBrowseRequestDto();
+        backwards.setFrom(today.plusDays(5).toString());
+        backwards.setTo(today.plusDays(4).toString());
+        assertThrows(BadRequestException.class, () -> browseIndex.browse(backwards));
+
+        EventBrowseRequestDto badDate = new EventBrowseRequestDto();
+        badDate.setFrom("05/01/2026");
+        assertThrows(BadRequestException.class, () -> browseIndex.browse(badDate));
+
+        EventBrowseRequestDto prices = new EventBrowseRequestDto();
+        prices.setMinPrice(1000.0);
+        prices.setMaxPrice(500.0);
+        assertThrows(BadRequestException.class, () -> browseIndex.browse(prices));
+
+        EventBrowseRequestDto negative = new EventBrowseRequestDto();
+        negative.setMinPrice(-1.0);
+        assertThrows(BadRequestException.class, () -> browseIndex.browse(negative));
+    }
+
+    private EventBrowseRequestDto randomRequest() {
+        EventBrowseRequestDto request = new EventBrowseRequestDto();
+        if (random.nextInt(3) == 0) {
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length - 1)];
+            request.setCategory(random.nextBoolean() ? " " + category.toLowerCase(Locale.ROOT) : category);
+        }
+        if (random.nextInt(3) == 0) {
+            request.setFrom(today.plusDays(random.nextInt(45)).toString());
+        }
+        if (random.nextInt(3) == 0) {
+            LocalDate from = request.getFrom() != null ? LocalDate.parse(request.getFrom()) : today;
+            request.setTo(from.plusDays(random.nextInt(20)).toString());
+        }
+        if (random.nextInt(3) == 0) {
+            request.setMinPrice(random.nextBoolean() ? PRICES[random.nextInt(PRICES.length)] : random.nextInt(6000));
+        }
+        if (random.nextInt(3) == 0) {
+            double min = request.getMinPrice() != null ? request.getMinPrice() : 0;
+            request.setMaxPrice(min + (random.nextBoolean() ? PRICES[random.nextInt(PRICES.length)] : random.nextInt(6000)));
+        }
+        if (random.nextInt(3) == 0) {
+            String[] queries = {"pune", "MUMBAI", "new delhi", "delhi", "navi-mumbai", "mh", "city pune"};
+            request.setLocation(queries[random.nextInt(queries.length)]);
+        }
+        if (random.nextInt(3) == 0) {
+            request.setHasSeats(random.nextBoolean());
+        }
+        return request;
+    }
+
+    private boolean matches(Row row, EventBrowseRequestDto request, boolean byCategory, boolean byPrice) {
+        if (request.getFrom() != null && row.dateTime().isBefore(LocalDate.parse(request.getFrom()).atStartOfDay())) {
+            return false;
+        }
+        if (request.getTo() != null && !row.dateTime().toLocalDate().isBefore(LocalDate.parse(request.getTo()).plusDays(1))) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(request.getHasSeats()) && row.seats() == 0) {
+            return false;
+        }
+        if (request.getLocation() != null && !words(row.location()).containsAll(words(request.getLocation()))) {
+            return false;
+        }
+        if (byCategory && request.getCategory() != null
+                && (row.category() == null || !row.category().equalsIgnoreCase(request.getCategory().trim()))) {
+            return false;
+        }
+        if (byPrice && request.getMinPrice() != null && row.price() < request.getMinPrice()) {
+            return false;
+        }
+        return !(byPrice && request.getMaxPrice() != null && row.price() > request.getMaxPrice());
+    }
+
+    // Every category in the snapshot, counted under every filter except the category one.
+    private Map<String, Integer> expectedCategoryFacets(EventBrowseRequestDto request) {
+        Map<String, Integer> facets = new TreeMap<>();
+        for (Row row : rows) {
+            if (row.category() != null) {
+                facets.merge(row.category().toUpperCase(Locale.ROOT), matches(row, request, false, true) ? 1 : 0, Integer::sum);
+            }
+        }
+        return facets;
+    }
+
+    private Map<String, Integer> expectedPriceFacets(EventBrowseRequestDto request) {
+        Map<String, Integer> facets = new LinkedHashMap<>();
+        for (String bucket : List.of("0", "0-500", "500-1000", "1000-2500", "2500-5000", "5000+")) {
+            facets.put(bucket, 0);
+        }
+        for (Row row : rows) {
+            if (matches(row, request, true, false)) {
+                facets.merge(bucket(row.price()), 1, Integer::sum);
+            }
+        }
+        return facets;
+    }
+
+    private static String bucket(double price) {
+        if (price <= 0) {
+            return "0";
+        }
+        return price < 500 ? "0-500" : price < 1000 ? "500-1000" : price < 2500 ? "1000-2500" : price < 5000 ? "2500-5000" : "5000+";
+    }
+
+    private static Set<String> words(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^a-z0-9]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static String describe(EventBrowseRequestDto request) {
+        return "category=" + request.getCategory() + " from=" + request.getFrom() + " to=" + request.getTo()
+                + " price=" + request.getMinPrice() + ".." + request.getMaxPrice() + " location=" + request.getLocation()
+                + " hasSeats=" + request.getHasSeats() + " size=" + request.getSize();
+    }
+}
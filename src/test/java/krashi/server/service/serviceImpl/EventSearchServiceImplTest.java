@@ -0,0 +1,149 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import krashi.server.dto.CursorPageDto;
+import krashi.server.dto.EventSearchResultDto;
+import krashi.server.entity.Event;
+import krashi.server.exception.ServiceBusyException;
+import krashi.server.repository.EventRepository;
+import krashi.server.support.PostgresTestDatabase;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(EventSearchServiceImpl.class)
+class EventSearchServiceImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry, "event_search_test");
+    }
+
+    @Autowired
+    private EventSearchServiceImpl searchService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE event RESTART IDENTITY CASCADE");
+        ReflectionTestUtils.setField(searchService, "schemaInit", true);
+        searchService.createSearchSchema();
+    }
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatchesAndDraftsAreHidden() {
+        Event inDescription = save("Weekend Workshop", "Hands-on kotlin coroutines", "PUBLISHED");
+        Event inTitle = save("Kotlin Conference", "Talks and panels", "PUBLISHED");
+        save("Kotlin Draft", "Not announced yet", "DRAFT");
+
+        CursorPageDto<EventSearchResultDto> page = searchService.search("kotlin", null, 10);
+
+        assertEquals(List.of(inTitle.getId(), inDescription.getId()), ids(page));
+        assertEquals("<mark>Kotlin</mark> Conference", page.getItems().get(0).getTitleHighlight());
+        assertTrue(page.getItems().get(1).getSnippet().contains("<mark>kotlin</mark>"));
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void eventTextIsEscapedWhileMatchesStayMarked() {
+        save("<script>alert(1)</script> Rust \u0002Meetup\u0003", "Learn rust & <img src=x onerror=alert(2)>",
+                "PUBLISHED");
+
+        EventSearchResultDto result = searchService.search("rust", null, 10).getItems().get(0);
+
+        assertEquals("&lt;script&gt;alert(1)&lt;/script&gt; <mark>Rust</mark> Meetup", result.getTitleHighlight());
+        assertTrue(result.getSnippet().startsWith("Learn <mark>rust</mark> &amp; &lt;img"), result.getSnippet());
+        assertFalse(result.getSnippet().replace("<mark>", "").replace("</mark>", "").matches(".*[<>].*"));
+    }
+
+    @Test
+    void cursorPagesWalkEveryMatchOnce() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(save("Cloud Summit " + i, i % 2 == 0 ? "cloud cloud cloud" : "", "PUBLISHED").getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<EventSearchResultDto> page = searchService.search("cloud", cursor, 3);
+            seen.addAll(ids(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected.size(), seen.size());
+        assertTrue(seen.containsAll(expected));
+        // Events whose description repeats the term rank first.
+        assertTrue(seen.subList(0, 4).stream().allMatch(id -> (id - expected.get(0)) % 2 == 0));
+    }
+
+    @Test
+    void typosFallBackToFuzzyTitleMatches() {
+        Event hackathon = save("Robotics Hackathon", "Build a robot", "PUBLISHED");
+        save("Design Sprint", "Figma basics", "PUBLISHED");
+
+        CursorPageDto<EventSearchResultDto> page = searchService.search("hackaton", null, 10);
+
+        assertEquals(List.of(hackathon.getId()), ids(page));
+        assertNull(page.getItems().get(0).getTitleHighlight());
+        assertNull(page.getItems().get(0).getSnippet());
+    }
+
+    @Test
+    void searchIsUnavailableWithoutTheSearchColumn() {
+        save("Data Meetup", "", "PUBLISHED");
+        jdbcTemplate.execute("ALTER TABLE event DROP COLUMN search_vector");
+        try {
+            ReflectionTestUtils.setField(searchService, "schemaInit", false);
+            searchService.createSearchSchema();
+
+            assertThrows(ServiceBusyException.class, () -> searchService.search("data", null, 10));
+        } finally {
+            ReflectionTestUtils.setField(searchService, "schemaInit", true);
+            searchService.createSearchSchema();
+        }
+        assertEquals(1, searchService.search("data", null, 10).getItems().size());
+    }
+
+    private static List<Long> ids(CursorPageDto<EventSearchResultDto> page) {
+        return page.getItems().stream().map(EventSearchResultDto::getId).toList();
+    }
+
+    private Event save(String title, String description, String status) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setDescription(description);
+        event.setStatus(status);
+        event.setDateTime(START.plusDays(30));
+        return eventRepository.save(event);
+    }
+}
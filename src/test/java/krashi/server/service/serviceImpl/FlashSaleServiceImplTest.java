@@ -0,0 +1,149 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import krashi.server.entity.Booking;
+import krashi.server.entity.Event;
+import krashi.server.entity.UserInfo;
+import krashi.server.repository.BookingRepository;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.UserInfoRepository;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.WaitlistPromotionWorker;
+
+class FlashSaleServiceImplTest {
+
+    private static final long EVENT_ID = 5L;
+
+    private StringRedisTemplate redisTemplate;
+    private BookingRepository bookingRepository;
+    private EventRepository eventRepository;
+    private EmailNotificationService emailNotificationService;
+    private WaitlistPromotionWorker waitlistPromotionWorker;
+    private FlashSaleServiceImpl flashSaleService;
+    private final List<String> queue = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        ListOperations<String, String> lists = mock(ListOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(redisTemplate.opsForList()).thenReturn(lists);
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(lists.range(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> List.copyOf(queue));
+
+        Event event = new Event();
+        event.setId(EVENT_ID);
+        eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById(EVENT_ID)).thenReturn(Optional.of(event));
+
+        UserInfoRepository userInfoRepository = mock(UserInfoRepository.class);
+        when(userInfoRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<UserInfo> users = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                UserInfo user = new UserInfo();
+                user.setId(id);
+                users.add(user);
+            }
+            return users;
+        });
+
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        emailNotificationService = mock(EmailNotificationService.class);
+        waitlistPromotionWorker = mock(WaitlistPromotionWorker.class);
+        ObjectProvider<WaitlistPromotionWorker> workerProvider = mock(ObjectProvider.class);
+        when(workerProvider.getObject()).thenReturn(waitlistPromotionWorker);
+
+        flashSaleService = new FlashSaleServiceImpl(redisTemplate, eventRepository, bookingRepository,
+                userInfoRepository, emailNotificationService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), workerProvider);
+        ReflectionTestUtils.setField(flashSaleService, "commitBatchSize", 200);
+        ReflectionTestUtils.setField(flashSaleService, "commitLeaseMillis", 10_000L);
+    }
+
+    // The previous run committed r1 and r2 but died before trimming the queue.
+    @Test
+    void replayedReservationsAreNeitherBookedNorCredited() {
+        queue.addAll(List.of("1:2:1000:r1", "2:3:1000:r2", "3:1:1000:r3", "4:4:1000:r4"));
+        when(bookingRepository.findReservationIdsIn(anyList())).thenReturn(List.of("r1", "r2"));
+        // User 4 already has a booking from a different reservation, so r4 is rejected.
+        when(bookingRepository.existsByUserIdAndEventIdAndStatus(4L, EVENT_ID, "Confirmed")).thenReturn(true);
+
+        commit();
+
+        List<Booking> saved = savedBookings();
+        assertEquals(1, saved.size());
+        assertEquals("r3", saved.get(0).getReservationId());
+        verify(eventRepository).adjustAvailableSeats(EVENT_ID, -1);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("flash:{5}:seats")), eq("4"));
+        verify(waitlistPromotionWorker).seatsReleased(EVENT_ID, 4);
+        verify(emailNotificationService).sendBookingConfirmationEmail(any(), any(), eq(1), any());
+    }
+
+    @Test
+    void fullyReplayedBatchCreditsNothing() {
+        queue.addAll(List.of("1:2:1000:r1", "2:3:1000:r2"));
+        when(bookingRepository.findReservationIdsIn(anyList())).thenReturn(List.of("r1", "r2"));
+
+        commit();
+
+        assertEquals(0, savedBookings().size());
+        verify(waitlistPromotionWorker, never()).seatsReleased(anyLong(), anyInt());
+        verify(emailNotificationService, never()).sendBookingConfirmationEmail(any(), any(), anyInt(), any());
+    }
+
+    // Payloads queued before reservation ids existed still commit.
+    @Test
+    void payloadsWithoutReservationIdsAreBooked() {
+        queue.add("1:2:1000");
+
+        commit();
+
+        List<Booking> saved = savedBookings();
+        assertEquals(1, saved.size());
+        assertNull(saved.get(0).getReservationId());
+        verify(bookingRepository, never()).findReservationIdsIn(anyList());
+    }
+
+    private void commit() {
+        ReflectionTestUtils.invokeMethod(flashSaleService, "commitPendingBookings", EVENT_ID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Booking> savedBookings() {
+        ArgumentCaptor<List<Booking>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bookingRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+}
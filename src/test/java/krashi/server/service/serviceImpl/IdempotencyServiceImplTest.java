@@ -0,0 +1,132 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import krashi.server.exception.BadRequestException;
+import krashi.server.exception.ServiceBusyException;
+import krashi.server.service.AuthenticationService;
+
+class IdempotencyServiceImplTest {
+
+    private final Map<String, String> redis = new HashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private StringRedisTemplate redisTemplate;
+    private AuthenticationService authenticationService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation ->
+                redis.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(values).set(anyString(), anyString(), any(Duration.class));
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> redis.remove(invocation.<String>getArgument(0)) != null);
+
+        authenticationService = mock(AuthenticationService.class);
+        when(authenticationService.getCurrentUsername()).thenReturn("alice");
+    }
+
+    // Each call gets its own service so replays must come from the shared store, not the local cache.
+    private IdempotencyServiceImpl node() {
+        return new IdempotencyServiceImpl(redisTemplate, authenticationService, new ObjectMapper(), 100);
+    }
+
+    @Test
+    void aBusyBusKeepsTheClaimSoARetryCannotRunTheCommandAgain() {
+        ResponseEntity<?> first = node().execute("k1", "book:1:2", () -> {
+            calls.incrementAndGet();
+            throw new ServiceBusyException("Booking request is taking longer than expected");
+        });
+        ResponseEntity<?> retry = node().execute("k1", "book:1:2", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("booked");
+        });
+
+        assertEquals(HttpStatus.CONFLICT, first.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, retry.getStatusCode());
+        assertEquals(1, calls.get());
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void clientErrorsAreReplayed() {
+        assertThrows(BadRequestException.class, () -> node().execute("k2", "book:1:2", () -> {
+            calls.incrementAndGet();
+            throw new BadRequestException("You already have a booking for this event");
+        }));
+
+        ResponseEntity<?> replay = node().execute("k2", "book:1:2", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("booked");
+        });
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.BAD_REQUEST, replay.getStatusCode());
+        assertEquals("You already have a booking for this event", replay.getBody());
+        assertEquals("true", replay.getHeaders().getFirst("Idempotent-Replayed"));
+    }
+
+    @Test
+    void unexpectedFailuresReleaseTheClaim() {
+        assertThrows(IllegalStateException.class, () -> node().execute("k3", "cancel:9", () -> {
+            throw new IllegalStateException("connection reset");
+        }));
+
+        ResponseEntity<?> retry = node().execute("k3", "cancel:9", () -> ResponseEntity.ok("Booking cancelled successfully"));
+
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals("Booking cancelled successfully", retry.getBody());
+    }
+
+    @Test
+    void objectBodiesAreStoredAsJson() {
+        node().execute("k4", "book:1:2", () -> ResponseEntity.status(HttpStatus.CREATED).body(Map.of("bookingId", 42)));
+
+        ResponseEntity<?> replay = node().execute("k4", "book:1:2", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("booked");
+        });
+
+        assertEquals(0, calls.get());
+        assertEquals(HttpStatus.CREATED, replay.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, replay.getHeaders().getContentType());
+        assertEquals("{\"bookingId\":42}", replay.getBody());
+    }
+
+    @Test
+    void serverErrorResponsesAreNotStored() {
+        node().execute("k5", "book:1:2", () -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("boom"));
+
+        ResponseEntity<?> retry = node().execute("k5", "book:1:2", () -> ResponseEntity.ok("booked"));
+
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+    }
+}
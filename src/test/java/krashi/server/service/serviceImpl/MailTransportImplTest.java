@@ -0,0 +1,145 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import krashi.server.exception.EmailSendingException;
+import krashi.server.exception.MailTransportUnavailableException;
+import krashi.server.support.FaultInjectingSmtpServer;
+
+class MailTransportImplTest {
+
+    private FaultInjectingSmtpServer smtpServer;
+    private MailTransportImpl mailTransport;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FaultInjectingSmtpServer();
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtpServer.getPort());
+
+        mailTransport = new MailTransportImpl(sender, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(mailTransport, "poolSize", 2);
+        ReflectionTestUtils.setField(mailTransport, "queueCapacity", 10);
+        ReflectionTestUtils.setField(mailTransport, "connectTimeoutMs", 1000);
+        ReflectionTestUtils.setField(mailTransport, "readTimeoutMs", 500);
+        ReflectionTestUtils.setField(mailTransport, "callTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(mailTransport, "failureThreshold", 2);
+        ReflectionTestUtils.setField(mailTransport, "openSeconds", 60L);
+        mailTransport.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mailTransport.stop();
+        smtpServer.close();
+    }
+
+    @Test
+    void batchSharesOneSmtpSession() throws Exception {
+        mailTransport.sendAsync(message("a@example.com"), message("b@example.com"), message("c@example.com")).join();
+
+        assertEquals(3, smtpServer.getDeliveredCount());
+        assertEquals(1, smtpServer.getSessionCount());
+    }
+
+    @Test
+    void failingRelayOpensCircuitAndFailsFast() {
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.FAILING);
+
+        assertThrows(EmailSendingException.class, () -> mailTransport.send(simpleMessage()));
+        assertThrows(EmailSendingException.class, () -> mailTransport.send(simpleMessage()));
+        assertFalse(mailTransport.isAvailable());
+
+        int sessionsBefore = smtpServer.getSessionCount();
+        assertThrows(MailTransportUnavailableException.class, () -> mailTransport.send(simpleMessage()));
+        assertEquals(sessionsBefore, smtpServer.getSessionCount());
+    }
+
+    @Test
+    void slowRelayTimesOutInsteadOfBlocking() {
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.SLOW);
+        smtpServer.setResponseDelayMillis(3000);
+
+        long start = System.currentTimeMillis();
+        assertThrows(EmailSendingException.class, () -> mailTransport.send(simpleMessage()));
+        assertTrue(System.currentTimeMillis() - start < 2500);
+    }
+
+    @Test
+    void timedOutSendsStillQueuedAreCancelled() throws Exception {
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.SLOW);
+        smtpServer.setResponseDelayMillis(300);
+        ReflectionTestUtils.setField(mailTransport, "callTimeoutMs", 100L);
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            sends.add(mailTransport.sendAsync(message("user" + i + "@example.com")));
+        }
+        for (CompletableFuture<Void> send : sends) {
+            assertThrows(Exception.class, send::join);
+        }
+        Thread.sleep(1500);
+
+        // The two sends already on the wire complete anyway; the four queued behind them never start.
+        assertEquals(2, smtpServer.getSessionCount());
+        assertEquals(2, smtpServer.getDeliveredCount());
+    }
+
+    @Test
+    void callTimeoutIsRaisedAboveTheSocketTimeouts() {
+        mailTransport.stop();
+        ReflectionTestUtils.setField(mailTransport, "callTimeoutMs", 100L);
+        mailTransport.start();
+
+        assertTrue((long) ReflectionTestUtils.getField(mailTransport, "callTimeoutMs") > 1000 + 2 * 500);
+    }
+
+    @Test
+    void flappingRelayKeepsCircuitClosedWhileSomeSendsSucceed() {
+        smtpServer.setMode(FaultInjectingSmtpServer.Mode.FLAPPING);
+
+        assertThrows(EmailSendingException.class, () -> mailTransport.send(simpleMessage()));
+        mailTransport.send(simpleMessage());
+        assertThrows(EmailSendingException.class, () -> mailTransport.send(simpleMessage()));
+
+        assertTrue(mailTransport.isAvailable());
+        assertEquals(1, smtpServer.getDeliveredCount());
+    }
+
+    private MimeMessage message(String recipient) throws Exception {
+        MimeMessage mimeMessage = mailTransport.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo(recipient);
+        helper.setSubject("Booking Confirmation");
+        helper.setText("plain body", "<html><body>html body</body></html>");
+        return mimeMessage;
+    }
+
+    private SimpleMailMessage simpleMessage() {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@example.com");
+        message.setTo("user@example.com");
+        message.setSubject("Password Reset OTP");
+        message.setText("Your OTP is: 123456");
+        return message;
+    }
+}
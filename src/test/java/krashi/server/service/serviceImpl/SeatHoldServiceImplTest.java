@@ -0,0 +1,154 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import krashi.server.entity.Event;
+import krashi.server.entity.SeatHold;
+import krashi.server.entity.UserInfo;
+import krashi.server.exception.BadRequestException;
+import krashi.server.repository.BookingRepository;
+import krashi.server.repository.EventRepository;
+import krashi.server.repository.SeatHoldRepository;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.AuthenticationService;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.SeatInventoryService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.service.WaitlistPromotionWorker;
+
+class SeatHoldServiceImplTest {
+
+    private EventRepository eventRepository;
+    private BookingRepository bookingRepository;
+    private SeatHoldRepository seatHoldRepository;
+    private SeatInventoryService seatInventoryService;
+    private WaitlistPromotionWorker waitlistPromotionWorker;
+    private SeatHoldServiceImpl holdService;
+    private UserInfo user;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        seatHoldRepository = mock(SeatHoldRepository.class);
+        seatInventoryService = mock(SeatInventoryService.class);
+        when(seatInventoryService.release(any(), anyInt())).thenReturn(true);
+        waitlistPromotionWorker = mock(WaitlistPromotionWorker.class);
+        AuthenticationService authenticationService = mock(AuthenticationService.class);
+
+        user = new UserInfo();
+        user.setId(1L);
+        when(authenticationService.getCurrentUser()).thenReturn(user);
+        event = new Event();
+        event.setId(3L);
+        event.setStatus("PUBLISHED");
+        when(eventRepository.findById(3L)).thenReturn(Optional.of(event));
+
+        holdService = new SeatHoldServiceImpl(eventRepository, bookingRepository, mock(WaitlistRepository.class),
+                seatHoldRepository, authenticationService, seatInventoryService, mock(FlashSaleService.class),
+                mock(EmailNotificationService.class), waitlistPromotionWorker, mock(WaitlistCache.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(holdService, "holdTtlSeconds", 120L);
+        ReflectionTestUtils.setField(holdService, "sweepBatchSize", 500);
+        holdService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        holdService.stop();
+    }
+
+    // Holds whose timer lived on a node that went away are expired by the sweep.
+    @Test
+    void sweepReleasesOverdueHolds() {
+        SeatHold first = hold(7L, 2, LocalDateTime.now().minusMinutes(1));
+        SeatHold second = hold(8L, 1, LocalDateTime.now().minusSeconds(1));
+        when(seatHoldRepository.findOverdueHolds(any(), any())).thenReturn(List.of(7L, 8L));
+        when(seatHoldRepository.deleteHold(7L)).thenReturn(1);
+        // Already confirmed elsewhere: nothing to release.
+        when(seatHoldRepository.deleteHold(8L)).thenReturn(0);
+
+        holdService.sweepOverdueHolds();
+
+        verify(seatInventoryService, timeout(5_000)).release(event, first.getSeats());
+        verify(waitlistPromotionWorker, timeout(5_000)).seatsReleased(3L, first.getSeats());
+        verify(seatInventoryService, timeout(5_000).times(1)).release(any(), anyInt());
+        verify(seatHoldRepository, timeout(5_000)).deleteHold(second.getId());
+    }
+
+    @Test
+    void confirmingAHoldOnACancelledEventReleasesItInsteadOfBooking() {
+        event.setStatus("CANCELLED");
+        hold(7L, 2, LocalDateTime.now().plusMinutes(1));
+        when(seatHoldRepository.deleteHold(7L)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(BadRequestException.class, () -> holdService.confirmHold(7L));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(seatInventoryService, timeout(5_000)).release(event, 2);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void aConcurrentSecondHoldIsRejectedByTheUniqueConstraint() {
+        when(seatInventoryService.tryAcquire(event, 2)).thenReturn(true);
+        when(seatHoldRepository.save(any())).thenThrow(new DataIntegrityViolationException("uq_seat_hold_user_event"));
+
+        assertThrows(BadRequestException.class, () -> holdService.holdSeats(3L, 2));
+    }
+
+    // Seats the inventory refused to take back must not be offered to the waitlist.
+    @Test
+    void aRefusedReleaseIsNotPassedOnToTheWaitlist() {
+        hold(7L, 2, LocalDateTime.now().plusMinutes(1));
+        when(seatHoldRepository.deleteHold(7L)).thenReturn(1);
+        when(seatInventoryService.release(event, 2)).thenReturn(false);
+
+        holdService.releaseHold(7L);
+
+        verify(seatInventoryService).release(event, 2);
+        verify(waitlistPromotionWorker, never()).seatsReleased(anyLong(), anyInt());
+    }
+
+    private SeatHold hold(Long id, int seats, LocalDateTime expiresAt) {
+        SeatHold hold = new SeatHold();
+        hold.setId(id);
+        hold.setUser(user);
+        hold.setEvent(event);
+        hold.setSeats(seats);
+        hold.setExpiresAt(expiresAt);
+        when(seatHoldRepository.findById(id)).thenReturn(Optional.of(hold));
+        return hold;
+    }
+}
@@ -0,0 +1,123 @@
+package krashi.server.service.serviceImpl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import krashi.server.entity.Event;
+import krashi.server.entity.Waitlist;
+import krashi.server.repository.BookingRepository;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.AuthenticationService;
+import krashi.server.service.EmailNotificationService;
+import krashi.server.service.FlashSaleService;
+import krashi.server.service.SeatInventoryService;
+import krashi.server.service.WaitlistCache;
+import krashi.server.service.WaitlistPositionService;
+import krashi.server.service.WaitlistPromotionWorker;
+
+class WaitlistOfferServiceImplTest {
+
+    private static final long WAITLIST_ID = 11L;
+
+    private WaitlistRepository waitlistRepository;
+    private SeatInventoryService seatInventoryService;
+    private WaitlistCache waitlistCache;
+    private WaitlistPromotionWorker waitlistPromotionWorker;
+    private WaitlistOfferServiceImpl offerService;
+    private Waitlist offer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        waitlistRepository = mock(WaitlistRepository.class);
+        seatInventoryService = mock(SeatInventoryService.class);
+        when(seatInventoryService.release(any(), anyInt())).thenReturn(true);
+        waitlistCache = mock(WaitlistCache.class);
+        waitlistPromotionWorker = mock(WaitlistPromotionWorker.class);
+        ObjectProvider<WaitlistPromotionWorker> workerProvider = mock(ObjectProvider.class);
+        when(workerProvider.getObject()).thenReturn(waitlistPromotionWorker);
+
+        offerService = new WaitlistOfferServiceImpl(waitlistRepository, mock(BookingRepository.class),
+                mock(AuthenticationService.class), seatInventoryService, mock(FlashSaleService.class),
+                mock(EmailNotificationService.class), mock(WaitlistPositionService.class), waitlistCache,
+                workerProvider, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        offerService.start();
+
+        Event event = new Event();
+        event.setId(3L);
+        offer = new Waitlist();
+        offer.setId(WAITLIST_ID);
+        offer.setEvent(event);
+        offer.setRequestedSeats(2);
+        offer.setStatus("OFFERED");
+        offer.setOfferExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(waitlistRepository.findById(WAITLIST_ID)).thenReturn(Optional.of(offer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        offerService.stop();
+    }
+
+    @Test
+    void expiringADueOfferRollsItsSeatsOver() {
+        when(waitlistRepository.expireOffer(eq(WAITLIST_ID), any())).thenReturn(1);
+
+        expire();
+
+        verify(waitlistCache).onRemoved(3L, List.of(WAITLIST_ID));
+        verify(seatInventoryService).release(offer.getEvent(), 2);
+        verify(waitlistPromotionWorker).seatsReleased(3L, 2);
+    }
+
+    // The guarded update matched nothing, e.g. the deadline was pushed back: no seats move and the
+    // offer is rescheduled for its stored deadline.
+    @Test
+    void offerTheGuardDidNotExpireKeepsItsSeatsAndIsRescheduled() {
+        offer.setOfferExpiresAt(LocalDateTime.now().plusNanos(300_000_000));
+        when(waitlistRepository.expireOffer(eq(WAITLIST_ID), any())).thenReturn(0, 1);
+
+        expire();
+
+        verify(seatInventoryService, never()).release(any(), anyInt());
+        verify(waitlistRepository, timeout(5_000).times(2)).expireOffer(eq(WAITLIST_ID), any());
+        verify(seatInventoryService, timeout(5_000)).release(offer.getEvent(), 2);
+    }
+
+    @Test
+    void acceptedOrWithdrawnOffersAreLeftAlone() {
+        when(waitlistRepository.findById(WAITLIST_ID)).thenReturn(Optional.empty());
+        expire();
+
+        offer.setStatus("EXPIRED");
+        when(waitlistRepository.findById(WAITLIST_ID)).thenReturn(Optional.of(offer));
+        expire();
+
+        verify(waitlistRepository, never()).expireOffer(anyLong(), any());
+        verify(seatInventoryService, after(200).never()).release(any(), anyInt());
+    }
+
+    private void expire() {
+        ReflectionTestUtils.invokeMethod(offerService, "expireOffer", WAITLIST_ID);
+    }
+}
@@ -0,0 +1,206 @@
+package krashi.server.service.serviceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import krashi.server.dto.WaitlistPositionDto;
+import krashi.server.entity.Event;
+import krashi.server.entity.UserInfo;
+import krashi.server.entity.Waitlist;
+import krashi.server.exception.AccessDeniedException;
+import krashi.server.exception.BadRequestException;
+import krashi.server.repository.WaitlistRepository;
+import krashi.server.service.AuthenticationService;
+
+class WaitlistPositionServiceImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    // Stands in for Postgres: every entry ever created, keyed by id.
+    private final Map<Long, Waitlist> database = new TreeMap<>();
+    private final Random random = new Random(7);
+    private long nextId = 1;
+    private String currentUser;
+
+    private WaitlistRepository waitlistRepository;
+    private WaitlistPositionServiceImpl positionService;
+
+    @BeforeEach
+    void setUp() {
+        waitlistRepository = mock(WaitlistRepository.class);
+        when(waitlistRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(database.get(invocation.<Long>getArgument(0))));
+        when(waitlistRepository.findWaitingQueueHead(anyLong(), any()))
+                .thenAnswer(invocation -> waiting(invocation.getArgument(0)));
+
+        AuthenticationService authenticationService = mock(AuthenticationService.class);
+        when(authenticationService.getCurrentUsername()).thenAnswer(invocation -> currentUser);
+
+        positionService = new WaitlistPositionServiceImpl(waitlistRepository, authenticationService);
+        ReflectionTestUtils.setField(positionService, "refreshSeconds", 3600L);
+    }
+
+    @Test
+    void localHooksKeepPositionsExactWithoutReloading() {
+        for (long eventId = 1; eventId <= 3; eventId++) {
+            for (int i = 0; i < 20; i++) {
+                join(eventId, true);
+            }
+        }
+        assertAllPositions();
+
+        for (int step = 0; step < 500; step++) {
+            long eventId = 1 + random.nextInt(3);
+            if (random.nextBoolean() || waiting(eventId).isEmpty()) {
+                join(eventId, true);
+            } else {
+                leave(eventId, true);
+            }
+            if (step % 25 == 0) {
+                assertAllPositions();
+            }
+        }
+        assertAllPositions();
+
+        for (long eventId = 1; eventId <= 3; eventId++) {
+            verify(waitlistRepository, times(1)).findWaitingQueueHead(eq(eventId), any());
+        }
+    }
+
+    @Test
+    void changesFromOtherNodesShowUpAfterRefresh() {
+        Waitlist first = join(1L, true, START);
+        Waitlist second = join(1L, true, START.plusSeconds(1));
+        assertEquals(2, position(second).getPosition());
+
+        // Joined on another node: this node has never seen the id, so it reloads the event.
+        Waitlist remote = join(1L, false, START.plusSeconds(2));
+        assertEquals(3, position(remote).getPosition());
+
+        // Left on another node: stale until the refresh interval passes.
+        database.get(first.getId()).setStatus("EXPIRED");
+        assertEquals(2, position(second).getPosition());
+
+        ReflectionTestUtils.setField(positionService, "refreshSeconds", 0L);
+        assertEquals(1, position(second).getPosition());
+        assertEquals(2, position(remote).getPosition());
+    }
+
+    @Test
+    void mixedLocalAndRemoteChangesMatchTheDatabaseWhenRefreshingEveryRead() {
+        ReflectionTestUtils.setField(positionService, "refreshSeconds", 0L);
+        for (int step = 0; step < 400; step++) {
+            long eventId = 1 + random.nextInt(2);
+            boolean local = random.nextBoolean();
+            if (random.nextInt(3) != 0 || waiting(eventId).isEmpty()) {
+                join(eventId, local);
+            } else {
+                leave(eventId, local);
+            }
+            if (step % 20 == 0) {
+                assertAllPositions();
+            }
+        }
+        assertAllPositions();
+    }
+
+    @Test
+    void otherUsersCannotSeeAnEntry() {
+        Waitlist entry = join(1L, true);
+        currentUser = "someone-else";
+
+        assertThrows(AccessDeniedException.class, () -> positionService.getWaitlistPosition(entry.getId()));
+    }
+
+    @Test
+    void entriesNoLongerWaitingAreRejected() {
+        Waitlist entry = join(1L, false);
+        entry.setStatus("OFFERED");
+        currentUser = entry.getUser().getUserName();
+
+        assertThrows(BadRequestException.class, () -> positionService.getWaitlistPosition(entry.getId()));
+    }
+
+    // Coarse timestamps so ties on joinedAt are ordered by id.
+    private Waitlist join(long eventId, boolean local) {
+        return join(eventId, local, START.plusSeconds(random.nextInt(100)));
+    }
+
+    private Waitlist join(long eventId, boolean local, LocalDateTime joinedAt) {
+        long id = nextId++;
+        UserInfo user = new UserInfo();
+        user.setId(id);
+        user.setUserName("user" + id);
+        Event event = new Event();
+        event.setId(eventId);
+
+        Waitlist waitlist = new Waitlist();
+        waitlist.setId(id);
+        waitlist.setUser(user);
+        waitlist.setEvent(event);
+        waitlist.setRequestedSeats(1 + random.nextInt(5));
+        waitlist.setStatus("WAITING");
+        waitlist.setJoinedAt(joinedAt);
+        database.put(id, waitlist);
+        if (local) {
+            positionService.onJoined(waitlist);
+        }
+        return waitlist;
+    }
+
+    private void leave(long eventId, boolean local) {
+        List<Waitlist> queue = waiting(eventId);
+        Waitlist leaving = queue.get(random.nextInt(queue.size()));
+        leaving.setStatus("EXPIRED");
+        if (local) {
+            positionService.onRemoved(eventId, List.of(leaving.getId()));
+        }
+    }
+
+    private List<Waitlist> waiting(long eventId) {
+        return database.values().stream()
+                .filter(waitlist -> waitlist.getEvent().getId() == eventId && "WAITING".equals(waitlist.getStatus()))
+                .sorted(Comparator.comparing(Waitlist::getJoinedAt).thenComparing(Waitlist::getId))
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    private void assertAllPositions() {
+        for (long eventId = 1; eventId <= 3; eventId++) {
+            List<Waitlist> queue = waiting(eventId);
+            long seatsAhead = 0;
+            for (int i = 0; i < queue.size(); i++) {
+                WaitlistPositionDto dto = position(queue.get(i));
+                assertEquals(eventId, dto.getEventId());
+                assertEquals(i + 1, dto.getPosition());
+                assertEquals(seatsAhead, dto.getSeatsAhead());
+                assertEquals(queue.size(), dto.getTotalWaiting());
+                seatsAhead += queue.get(i).getRequestedSeats();
+            }
+        }
+    }
+
+    private WaitlistPositionDto position(Waitlist waitlist) {
+        currentUser = waitlist.getUser().getUserName();
+        return (WaitlistPositionDto) positionService.getWaitlistPosition(waitlist.getId()).getBody();
+    }
+}
@@ -0,0 +1,129 @@
+package krashi.server.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local SMTP relay for tests. Depending on its mode it accepts mail, answers slowly,
+ * refuses every transaction, or alternates between refusing and accepting sessions.
+ */
+public class FaultInjectingSmtpServer implements AutoCloseable {
+
+    public enum Mode { HEALTHY, SLOW, FAILING, FLAPPING }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger delivered = new AtomicInteger();
+
+    private volatile Mode mode = Mode.HEALTHY;
+    private volatile long responseDelayMillis = 2000;
+
+    public FaultInjectingSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        workers.execute(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public void setResponseDelayMillis(long responseDelayMillis) {
+        this.responseDelayMillis = responseDelayMillis;
+    }
+
+    public int getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public int getSessionCount() {
+        return sessions.get();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                workers.execute(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        int session = sessions.incrementAndGet();
+        boolean refuse = mode == Mode.FAILING || (mode == Mode.FLAPPING && session % 2 == 1);
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            if (mode == Mode.SLOW) {
+                Thread.sleep(responseDelayMillis);
+            }
+            if (refuse) {
+                reply(out, "421 Service not available, closing transmission channel");
+                return;
+            }
+            reply(out, "220 localhost fake SMTP ready");
+            int accepted = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // message content is discarded
+                        }
+                        accepted++;
+                        delivered.incrementAndGet();
+                        reply(out, "250 OK queued as " + session + "-" + accepted);
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (SocketException e) {
+            // client went away, e.g. after its own read timeout
+        } catch (IOException e) {
+            // ignore, the test asserts on client-side behaviour
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reply(Writer out, String line) throws IOException {
+        out.write(line + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,57 @@
+package krashi.server.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * One throwaway Postgres server per test JVM, started from the zonky embedded binaries so
+ * repository tests run real SQL (SKIP LOCKED, tsvector, pg_trgm) without Docker. Each test class
+ * gets its own database. Postgres refuses to start as root, so run these tests as a normal user.
+ */
+public final class PostgresTestDatabase {
+
+    private static EmbeddedPostgres server;
+
+    private PostgresTestDatabase() {
+    }
+
+    public static void register(DynamicPropertyRegistry registry, String database) {
+        String url = create(database);
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    private static synchronized String create(String database) {
+        try {
+            if (server == null) {
+                server = EmbeddedPostgres.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        server.close();
+                    } catch (IOException e) {
+                        // the JVM is exiting anyway
+                    }
+                }));
+            }
+            try (Connection connection = server.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP DATABASE IF EXISTS " + database);
+                statement.execute("CREATE DATABASE " + database);
+            }
+            return server.getJdbcUrl("postgres", database);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded Postgres", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to create test database " + database, e);
+        }
+    }
+}
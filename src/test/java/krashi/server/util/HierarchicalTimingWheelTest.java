@@ -0,0 +1,121 @@
+package krashi.server.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+    // 4 slots per level and 3 levels: level 0 covers 4 ticks, level 1 16, level 2 64.
+    private static final long TICK_MILLIS = 2;
+    private static final long SLACK_MILLIS = 500;
+
+    private HierarchicalTimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HierarchicalTimingWheel("test-wheel", TICK_MILLIS, TimeUnit.MILLISECONDS, 4, 3, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void everyDelayAcrossTheLevelBoundariesFiresOnTime() throws Exception {
+        List<Long> delays = new ArrayList<>();
+        for (long ticks = 0; ticks <= 70; ticks++) {
+            delays.add(ticks * TICK_MILLIS);
+        }
+        assertFireOnTime(delays);
+    }
+
+    @Test
+    void timeoutsBeyondTheTopLevelAreRefiledUntilDue() throws Exception {
+        assertFireOnTime(List.of(65 * TICK_MILLIS, 100 * TICK_MILLIS, 129 * TICK_MILLIS, 200 * TICK_MILLIS));
+    }
+
+    // Scheduling from different points in the wheel's rotation lands timeouts in different slots.
+    @Test
+    void timeoutsScheduledMidRotationFireOnTime() throws Exception {
+        for (int phase = 0; phase < 5; phase++) {
+            Thread.sleep(7 * TICK_MILLIS);
+            assertFireOnTime(List.of(3 * TICK_MILLIS, 4 * TICK_MILLIS, 5 * TICK_MILLIS,
+                    15 * TICK_MILLIS, 16 * TICK_MILLIS, 17 * TICK_MILLIS, 63 * TICK_MILLIS, 64 * TICK_MILLIS));
+        }
+    }
+
+    @Test
+    void cancelledTimeoutsNeverRun() throws Exception {
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        CountDownLatch kept = new CountDownLatch(2);
+
+        // Cancelled before the worker files it.
+        wheel.schedule(cancelledRuns::incrementAndGet, 10 * TICK_MILLIS, TimeUnit.MILLISECONDS).cancel();
+        // Cancelled while parked on an upper level, and while beyond the top level.
+        HierarchicalTimingWheel.Timeout upper =
+                wheel.schedule(cancelledRuns::incrementAndGet, 40 * TICK_MILLIS, TimeUnit.MILLISECONDS);
+        HierarchicalTimingWheel.Timeout overflow =
+                wheel.schedule(cancelledRuns::incrementAndGet, 150 * TICK_MILLIS, TimeUnit.MILLISECONDS);
+        wheel.schedule(kept::countDown, 50 * TICK_MILLIS, TimeUnit.MILLISECONDS);
+        wheel.schedule(kept::countDown, 160 * TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(10 * TICK_MILLIS);
+        upper.cancel();
+        overflow.cancel();
+
+        assertTrue(kept.await(5, TimeUnit.SECONDS));
+        assertTrue(upper.isCancelled() && overflow.isCancelled());
+        assertEquals(0, cancelledRuns.get());
+    }
+
+    // With one level nothing cascades; timeouts past the first revolution are re-filed until due.
+    @Test
+    void aSingleLevelWheelFiresTimeoutsSeveralRevolutionsOut() throws Exception {
+        wheel.close();
+        wheel = new HierarchicalTimingWheel("single-level-wheel", TICK_MILLIS, TimeUnit.MILLISECONDS, 4, 1, Runnable::run);
+
+        assertFireOnTime(List.of(0L, 3 * TICK_MILLIS, 4 * TICK_MILLIS, 5 * TICK_MILLIS, 9 * TICK_MILLIS, 30 * TICK_MILLIS));
+    }
+
+    @Test
+    void schedulingAfterCloseIsRejected() {
+        wheel.close();
+
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(() -> { }, 1, TimeUnit.MILLISECONDS));
+    }
+
+    private void assertFireOnTime(List<Long> delaysMillis) throws Exception {
+        Map<Integer, Long> elapsedNanos = new ConcurrentHashMap<>();
+        CountDownLatch fired = new CountDownLatch(delaysMillis.size());
+        long start = System.nanoTime();
+        for (int i = 0; i < delaysMillis.size(); i++) {
+            int index = i;
+            wheel.schedule(() -> {
+                elapsedNanos.put(index, System.nanoTime() - start);
+                fired.countDown();
+            }, delaysMillis.get(i), TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(10, TimeUnit.SECONDS), () -> "only " + elapsedNanos.size() + " fired");
+        for (int i = 0; i < delaysMillis.size(); i++) {
+            long delay = delaysMillis.get(i);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(elapsedNanos.get(i));
+            assertTrue(elapsed >= delay, "delay " + delay + "ms fired early at " + elapsed + "ms");
+            assertTrue(elapsed <= delay + SLACK_MILLIS, "delay " + delay + "ms fired late at " + elapsed + "ms");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package krashi.server.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+class IndexedSkipListTest {
+
+    private record Key(long score, long id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byScore = Long.compare(score, other.score);
+            return byScore != 0 ? byScore : Long.compare(id, other.id);
+        }
+    }
+
+    @Test
+    void emptyListHasNoRanks() {
+        IndexedSkipList list = new IndexedSkipList();
+
+        assertNull(list.rank(1, 1));
+        assertEquals(0, list.size());
+        assertEquals(0, list.totalWeight());
+        assertTrue(!list.remove(1, 1));
+    }
+
+    @Test
+    void equalScoresAreOrderedById() {
+        IndexedSkipList list = new IndexedSkipList();
+        list.insert(10, 3, 2);
+        list.insert(10, 1, 4);
+        list.insert(5, 9, 1);
+
+        assertEquals(new IndexedSkipList.Rank(1, 0), list.rank(5, 9));
+        assertEquals(new IndexedSkipList.Rank(2, 1), list.rank(10, 1));
+        assertEquals(new IndexedSkipList.Rank(3, 5), list.rank(10, 3));
+        assertNull(list.rank(10, 2));
+    }
+
+    // Random inserts and removals checked against a sorted map after every step.
+    @Test
+    void matchesBruteForceUnderRandomOperations() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            IndexedSkipList list = new IndexedSkipList();
+            TreeMap<Key, Integer> expected = new TreeMap<>();
+            List<Key> present = new ArrayList<>();
+
+            for (int step = 0; step < 2_000; step++) {
+                if (present.isEmpty() || random.nextInt(3) != 0) {
+                    Key key = new Key(random.nextInt(200), random.nextInt(50));
+                    int weight = 1 + random.nextInt(5);
+                    boolean inserted = list.insert(key.score(), key.id(), weight);
+                    assertEquals(!expected.containsKey(key), inserted);
+                    if (inserted) {
+                        expected.put(key, weight);
+                        present.add(key);
+                    }
+                } else {
+                    Key key = present.remove(random.nextInt(present.size()));
+                    assertTrue(list.remove(key.score(), key.id()));
+                    assertTrue(!list.remove(key.score(), key.id()));
+                    expected.remove(key);
+                }
+                if (step % 50 == 0) {
+                    assertMatches(expected, list);
+                }
+            }
+            assertMatches(expected, list);
+        }
+    }
+
+    private static void assertMatches(TreeMap<Key, Integer> expected, IndexedSkipList list) {
+        assertEquals(expected.size(), list.size());
+        int position = 0;
+        long weightAhead = 0;
+        for (Map.Entry<Key, Integer> entry : expected.entrySet()) {
+            position++;
+            IndexedSkipList.Rank rank = list.rank(entry.getKey().score(), entry.getKey().id());
+            assertNotNull(rank, () -> "missing " + entry.getKey());
+            assertEquals(position, rank.position());
+            assertEquals(weightAhead, rank.weightAhead());
+            weightAhead += entry.getValue();
+        }
+        assertEquals(weightAhead, list.totalWeight());
+    }
+}
@@ -0,0 +1,102 @@
+package krashi.server.util;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the compiled booking confirmation template with the String.format builder it
+ * replaced. Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=krashi.server.util.NotificationTemplateBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationTemplateBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a");
+
+    private String userName;
+    private String title;
+    private LocalDateTime dateTime;
+    private String location;
+    private int seats;
+    private long bookingId;
+
+    // Event fragments as EmailNotificationServiceImpl caches them per event version.
+    private String cachedDate;
+    private String cachedTime;
+
+    @Setup
+    public void setUp() {
+        userName = "Asha Verma";
+        title = "Spring Boot Performance Workshop";
+        dateTime = LocalDateTime.of(2026, 11, 14, 18, 30);
+        location = "Hall B, Tech Park, Bengaluru";
+        seats = 3;
+        bookingId = 482913L;
+        cachedDate = dateTime.format(DATE_FORMATTER);
+        cachedTime = dateTime.format(TIME_FORMATTER);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(
+            "Dear %s,\n\n" +
+            "Your booking has been confirmed!\n\n" +
+            "Event Details:\n" +
+            "- Event: %s\n" +
+            "- Date: %s\n" +
+            "- Time: %s\n" +
+            "- Location: %s\n" +
+            "- Number of Seats: %d\n" +
+            "- Booking ID: %d\n\n" +
+            "We look forward to seeing you at the event!\n\n" +
+            "Best regards,\n" +
+            "Krashi Events Team",
+            userName,
+            title,
+            dateTime.format(DATE_FORMATTER),
+            dateTime.format(TIME_FORMATTER),
+            location,
+            seats,
+            bookingId
+        );
+    }
+
+    @Benchmark
+    public String compiledTemplateText() {
+        return NotificationTemplates.BOOKING_CONFIRMATION.renderText(userName, title, cachedDate, cachedTime,
+                location, String.valueOf(seats), String.valueOf(bookingId));
+    }
+
+    @Benchmark
+    public String compiledTemplateHtml() {
+        return NotificationTemplates.BOOKING_CONFIRMATION.renderHtml(userName, title, cachedDate, cachedTime,
+                location, String.valueOf(seats), String.valueOf(bookingId));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotificationTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package krashi.server.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SeatCounterTest {
+
+    @Test
+    void acquireStopsAtZeroAndTracksUnflushedSeats() {
+        SeatCounter counter = new SeatCounter(5);
+
+        assertTrue(counter.tryAcquire(3));
+        assertFalse(counter.tryAcquire(3));
+        assertTrue(counter.tryAcquire(2));
+
+        assertEquals(0, counter.available());
+        assertEquals(5, counter.drainUnflushed());
+        assertEquals(0, counter.drainUnflushed());
+    }
+
+    @Test
+    void releaseNeverExceedsCapacity() {
+        SeatCounter counter = new SeatCounter(10);
+        assertTrue(counter.tryAcquire(4));
+
+        assertTrue(counter.release(3, 10));
+        assertFalse(counter.release(2, 10));
+        assertTrue(counter.release(1, 10));
+        assertFalse(counter.release(1, 10));
+
+        assertEquals(10, counter.available());
+        assertEquals(0, counter.drainUnflushed());
+    }
+
+    @Test
+    void forceAcquireUndoesARelease() {
+        SeatCounter counter = new SeatCounter(0);
+
+        counter.forceAcquire(2);
+        assertEquals(-2, counter.available());
+        assertFalse(counter.tryAcquire(1));
+        assertTrue(counter.release(2, 4));
+
+        assertEquals(0, counter.available());
+        assertEquals(0, counter.drainUnflushed());
+    }
+
+    // A partition booking while expiries hand seats back never oversells or overfills.
+    @Test
+    void concurrentAcquiresAndReleasesStayWithinBounds() throws InterruptedException {
+        SeatCounter counter = new SeatCounter(100);
+        AtomicInteger held = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            boolean acquirer = t % 2 == 0;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 50_000; i++) {
+                    if (acquirer) {
+                        if (counter.tryAcquire(1)) {
+                            held.incrementAndGet();
+                        }
+                    } else if (held.getAndUpdate(h -> h > 0 ? h - 1 : h) > 0) {
+                        assertTrue(counter.release(1, 100));
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100, counter.available() + held.get());
+        assertEquals(held.get(), counter.drainUnflushed());
+    }
+}